@@ -14,9 +14,16 @@ import com.revature.util.AdminMiddleware;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.JavalinAppUtil;
 import com.revature.util.DBUtil;
+import com.revature.util.IngredientPrefixIndex;
+import com.revature.util.MetricsRegistry;
+import com.revature.util.MigrationRunner;
+import com.revature.util.RecipeSearchIndex;
 
 import io.javalin.Javalin;
 
+import java.sql.SQLException;
+import java.util.List;
+
 /**
  * The Main class serves as the entry point for the application.
  * It initializes and manages various components related to recipes, chefs, 
@@ -83,6 +90,9 @@ public class Main {
      * The main method serves as the entry point for the application.
      * It initializes the application context and starts the server.
      *
+     * The database is brought up to date with the pending migrations only, so its data survives restarts.
+     * Starting with -Ddb.reset=true drops everything and recreates the sample data instead.
+     *
      * @param args Command line arguments passed during application startup.
      */
     public static void main(String[] args) {
@@ -109,7 +119,32 @@ public class Main {
 		
 		JAVALIN_APP_UTIL = new JavalinAppUtil(RECIPE_CONTROLLER, AUTH_CONTROLLER, INGREDIENT_CONTROLLER);
 		
-		DBUtil.RUN_SQL();
+		if (Boolean.getBoolean("db.reset")) {
+			DBUtil.RUN_SQL();
+		} else {
+			try {
+				long start = System.nanoTime();
+				MigrationRunner migrationRunner = new MigrationRunner();
+				List<Integer> applied = migrationRunner.migrate();
+				System.out.println("Database migrated in " + (System.nanoTime() - start) / 1_000_000 + " ms, applied "
+						+ (applied.isEmpty() ? "nothing" : "versions " + applied));
+				migrationRunner.getReports().forEach(System.out::println);
+			} catch (SQLException e) {
+				throw new IllegalStateException("Unable to migrate the database", e);
+			}
+		}
+		
+		RECIPE_DAO.rebuildSearchIndex();
+		RecipeSearchIndex searchIndex = RECIPE_DAO.getSearchIndex();
+		MetricsRegistry.register("recipeSearchIndex", searchIndex::getStats);
+		System.out.println("Recipe search index built: " + searchIndex.getStats());
+		
+		INGREDIENT_DAO.rebuildPrefixIndex();
+		IngredientPrefixIndex prefixIndex = INGREDIENT_DAO.getPrefixIndex();
+		MetricsRegistry.register("ingredientPrefixIndex", prefixIndex::getStats);
+		System.out.println("Ingredient prefix index built: " + prefixIndex.getStats());
+		
+		MetricsRegistry.register("chefCache", CHEF_DAO::getCacheStats);
 		
 		Javalin app = JAVALIN_APP_UTIL.getApp();
 		
@@ -5,6 +5,9 @@ import io.javalin.http.Context;
 
 import java.sql.SQLException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.revature.model.Chef;
 import com.revature.service.AuthenticationService;
@@ -16,6 +19,8 @@ import com.revature.service.ChefService;
  * The AuthenticationController class handles user authentication-related operations. This includes login, logout, and registration.
  * 
  * It interacts with the ChefService and AuthenticationService for certain functionalities related to the user.
+ * Passwords are hashed and verified off the request thread, so login and registration respond asynchronously,
+ * and with a 503 Service Unavailable status when the password hashing pool is saturated.
  */
 public class AuthenticationController {
 
@@ -53,12 +58,21 @@ public class AuthenticationController {
     public void register(Context ctx) throws SQLException {
     try {
         Chef newChef = ctx.bodyAsClass(Chef.class);
-        Chef registeredChef = authService.registerChef(newChef);
-        if (registeredChef != null) {
-            ctx.status(201).json(registeredChef);
-        } else {
-            ctx.status(409).result("Username already exists");
-        }
+        ctx.future(() -> authService.registerChefAsync(newChef)
+                .thenAccept(registeredChef -> {
+                    if (registeredChef != null) {
+                        ctx.status(201).json(registeredChef);
+                    } else {
+                        ctx.status(409).result("Username already exists");
+                    }
+                })
+                .exceptionally(failure -> {
+                    if (unwrap(failure) instanceof IllegalArgumentException) {
+                        ctx.status(400).result("Invalid input");
+                        return null;
+                    }
+                    return respondIfBusy(ctx, failure);
+                }));
     } catch (IllegalArgumentException e) {
         ctx.status(400).result("Invalid input");
     }
@@ -74,30 +88,66 @@ public class AuthenticationController {
      */
     public void login(Context ctx) {
         try {
-            System.out.println("Request Body: " + ctx.body());
             Chef loginDetails = ctx.bodyAsClass(Chef.class);
-            System.out.println("logindetails Body: " + ctx.body());
             if (loginDetails.getUsername() == null || loginDetails.getUsername().isEmpty() ||
                 loginDetails.getPassword() == null || loginDetails.getPassword().isEmpty()) {
                 ctx.status(400).result("Bad Request: Missing username or password.");
                 return;
             }
-            String token = authService.login(loginDetails);
-            if (token != null) {
-                ctx.status(200)
-                    .header("Authorization", "Bearer " + token)
-                    .result(token);
-            } else {
-                ctx.status(401).result("Invalid username or password");
-            }
-        } catch (SQLException e) {
-            ctx.status(500).result("Internal Server Error");
+            ctx.future(() -> loginFuture(loginDetails)
+                    .thenAccept(token -> {
+                        if (token != null) {
+                            ctx.status(200)
+                                .header("Authorization", "Bearer " + token)
+                                .result(token);
+                        } else {
+                            ctx.status(401).result("Invalid username or password");
+                        }
+                    })
+                    .exceptionally(failure -> {
+                        if (unwrap(failure) instanceof SQLException) {
+                            ctx.status(500).result("Internal Server Error");
+                            return null;
+                        }
+                        return respondIfBusy(ctx, failure);
+                    }));
         } catch (Exception e) {
             ctx.status(400).result("Bad Request");
         }
     }
     
 
+    /**
+     * @return the future token of a login; a failed lookup fails the future instead of throwing
+     */
+    private CompletableFuture<String> loginFuture(Chef loginDetails) {
+        try {
+            return authService.loginAsync(loginDetails);
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Responds with a 503 Service Unavailable status if a failure was the password hashing pool rejecting the
+     * work, and rethrows any other failure for Javalin's exception handling.
+     */
+    private static Void respondIfBusy(Context ctx, Throwable failure) {
+        if (unwrap(failure) instanceof RejectedExecutionException) {
+            ctx.status(503).header("Retry-After", "1").result("Server busy, please try again");
+            return null;
+        }
+        throw failure instanceof CompletionException ? (CompletionException) failure
+                : new CompletionException(failure);
+    }
+
+    /**
+     * @return the cause of a failure, unwrapped from the CompletionException a future wraps it in
+     */
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
     /**
      * TODO: Logs out the currently authenticated chef by invalidating their token. Responds with a 200 OK status and a result of "Logout successful".
      *
@@ -3,11 +3,14 @@ package com.revature.controller;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 
+import java.io.IOException;
 import java.sql.SQLException;
 
 import com.revature.dao.IngredientDAO;
 import com.revature.model.Ingredient;
 import com.revature.service.IngredientService;
+import com.revature.util.BulkResult;
+import com.revature.util.JsonItemReader;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 
@@ -27,6 +30,12 @@ public class IngredientController {
     @SuppressWarnings("unused")
     private IngredientService ingredientService;
 
+    /** The number of suggestions returned when no limit is given. */
+    private static final int DEFAULT_SUGGESTIONS = 10;
+
+    /** The largest number of suggestions a single request can ask for. */
+    private static final int MAX_SUGGESTIONS = 50;
+
     /**
      * Constructs an IngredientController with the specified IngredientService.
      *
@@ -122,10 +131,48 @@ public class IngredientController {
         }
     }
 
+    /**
+     * Imports many ingredients at once. The body is a JSON array or NDJSON stream of ingredients, such as
+     * {"name":"Salt"}, or of plain names. It is read as it arrives and written in chunks of the chunkSize
+     * parameter (default 1000, at most 10000), each chunk as one JDBC batch in its own transaction.
+     *
+     * Responds with a 200 OK status and the outcome of every item: its generated id, or a conflict if the name
+     * is already taken. Responds with a 400 Bad Request status if the chunk size is not a positive number, or if
+     * the body holds malformed JSON; the chunks before the malformed item are still written and reported.
+     * Only admins may import; the app's AdminMiddleware responds 401 Unauthorized to anyone else.
+     *
+     * @param ctx the Javalin context containing the ingredients in the request body
+     */
+    public void bulkCreateIngredients(Context ctx) throws IOException {
+        int chunkSize;
+        try {
+            chunkSize = getParamAsClassOrElse(ctx, "chunkSize", Integer.class, BulkResult.DEFAULT_CHUNK_SIZE);
+        } catch (Exception e) {
+            ctx.status(400);
+            return;
+        }
+        if (chunkSize < 1) {
+            ctx.status(400);
+            return;
+        }
+        BulkResult result;
+        try (JsonItemReader<Ingredient> items = new JsonItemReader<>(ctx.bodyInputStream(), Ingredient.class)) {
+            result = ingredientService.importIngredients(items, Math.min(chunkSize, BulkResult.MAX_CHUNK_SIZE));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).result(e.getMessage());
+            return;
+        }
+        ctx.status(result.getError() == null ? 200 : 400).json(result);
+    }
+
     /**
      * TODO: Retrieves a paginated list of ingredients, or all ingredients if no pagination parameters are provided.
      * 
      * If pagination parameters are included, returns ingredients based on page, page size, sorting, and filter term.
+     * If an after parameter is included (empty for the first page, then the nextCursor of the previous page),
+     * the page is fetched by keyset instead of by page number. Passing withTotals=false skips counting the
+     * matching ingredients; the page then reports hasNext instead of totalPages and totalElements.
+     * An unknown sortBy or sortDirection responds with 400 Bad Request.
      *
      * @param ctx the Javalin context containing query parameters for pagination, sorting, and filtering
      */
@@ -135,17 +182,58 @@ public class IngredientController {
         String sortDirection = ctx.queryParam("sortDirection") != null ? ctx.queryParam("sortDirection") : "asc";
         Integer page = getParamAsClassOrElse(ctx, "page", Integer.class, null);
         Integer pageSize = ctx.queryParamAsClass("pageSize", Integer.class).getOrDefault(null);
-        if (page == null && pageSize == null && term == null) {
+        String after = ctx.queryParam("after");
+        boolean withTotals = getParamAsClassOrElse(ctx, "withTotals", Boolean.class, true);
+        if (after != null || !withTotals) {
+            PageOptions pageOptions = new PageOptions(page != null ? page : 1, pageSize != null ? pageSize : 10,
+                    sortBy, sortDirection);
+            pageOptions.setAfter(after);
+            pageOptions.setWithTotals(withTotals);
+            try {
+                ctx.status(200).json(ingredientService.searchIngredients(term, pageOptions));
+            } catch (IllegalArgumentException e) {
+                ctx.status(400).result(e.getMessage());
+            }
+        } else if (page == null && pageSize == null && term == null) {
             ctx.status(200).json(ingredientService.searchIngredients(term));
         } else if (term != null && page == null && pageSize == null) {
             ctx.status(200).json(ingredientService.searchIngredients(term));
         } else {
-            Page<Ingredient> ingredients = ingredientService.searchIngredients(term, page, pageSize, sortBy, sortDirection);
-            ctx.status(200).json(ingredients);
+            try {
+                Page<Ingredient> ingredients = ingredientService.searchIngredients(term, page, pageSize, sortBy, sortDirection);
+                ctx.status(200).json(ingredients);
+            } catch (IllegalArgumentException e) {
+                ctx.status(400).result(e.getMessage());
+            }
         }
     }
     
 
+    /**
+     * Suggests ingredients whose names start with the prefix parameter, for type-ahead fields. Suggestions are
+     * answered from memory, in name order, and capped by the limit parameter (default 10, at most 50).
+     *
+     * Responds with a 200 OK status and the suggestions, which are empty for a missing or blank prefix, or with
+     * a 400 Bad Request status if the limit is not a positive number.
+     *
+     * @param ctx the Javalin context containing the prefix and limit query parameters
+     */
+    public void suggestIngredients(Context ctx) {
+        int limit;
+        try {
+            limit = getParamAsClassOrElse(ctx, "limit", Integer.class, DEFAULT_SUGGESTIONS);
+        } catch (Exception e) {
+            ctx.status(400);
+            return;
+        }
+        if (limit < 1) {
+            ctx.status(400);
+            return;
+        }
+        ctx.status(200).json(ingredientService.suggestIngredients(ctx.queryParam("prefix"),
+                Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
     /**
      * A helper method to retrieve a query parameter from the context as a specific class type, or return a default value if the query parameter is not present.
      *
@@ -170,8 +258,11 @@ public class IngredientController {
      */
     public void configureRoutes(Javalin app) {
         app.get("/ingredients", this::getIngredients);
+        // registered before /ingredients/{id} so "suggest" is not taken for an id
+        app.get("/ingredients/suggest", this::suggestIngredients);
         app.get("/ingredients/{id}", this::getIngredient);
         app.post("/ingredients", this::createIngredient);
+        app.post("/ingredients/bulk", this::bulkCreateIngredients);
         app.put("/ingredients/{id}", this::updateIngredient);
         app.delete("/ingredients/{id}", this::deleteIngredient);
     }
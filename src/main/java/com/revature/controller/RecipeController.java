@@ -7,10 +7,17 @@ import io.javalin.http.Context;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.revature.util.BulkResult;
+import com.revature.util.JdbcExecutor;
+import com.revature.util.JsonItemReader;
 import com.revature.util.Page;
+import com.revature.util.PageOptions;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
 import com.revature.model.Recipe;
 import com.revature.service.AuthenticationService;
 import com.revature.service.RecipeService;
@@ -19,6 +26,9 @@ import com.revature.service.RecipeService;
  * The RecipeController class provides RESTful endpoints for managing recipes.
  * It interacts with the RecipeService to fetch, create, update, and delete recipes.
  * Handlers in this class are fields assigned to lambdas, which define the behavior for each endpoint.
+ * The recipe list and detail handlers respond asynchronously, running their queries on the shared
+ * {@link JdbcExecutor} and responding with 503 Service Unavailable when it is saturated. When the server runs
+ * on virtual threads the queries run on the request's own thread, and only the connection pool limits them.
  */
 
 public class RecipeController {
@@ -31,6 +41,9 @@ public class RecipeController {
     @SuppressWarnings("unused")
     private AuthenticationService authService;
 
+    /** Runs the queries of the asynchronous handlers off the request threads. */
+    private JdbcExecutor jdbcExecutor;
+
     /**
      * TODO: Constructor that initializes the RecipeController with the parameters.
      * 
@@ -38,71 +51,120 @@ public class RecipeController {
      * * @param authService the service used to manage authentication-related operations
      */
     public RecipeController(RecipeService recipeService, AuthenticationService authService) {
+        this(recipeService, authService, JdbcExecutor.shared());
+    }
+
+    /**
+     * Constructs a RecipeController whose asynchronous handlers run their queries on the given executor.
+     *
+     * @param recipeService The service that handles the business logic for managing recipes.
+     * @param authService the service used to manage authentication-related operations
+     * @param jdbcExecutor the executor the recipe list and detail queries run on
+     */
+    public RecipeController(RecipeService recipeService, AuthenticationService authService,
+            JdbcExecutor jdbcExecutor) {
         this.recipeService = recipeService;
         this.authService = authService;
+        this.jdbcExecutor = jdbcExecutor;
     }
 
     /**
      * TODO: Handler for fetching all recipes. Supports pagination, sorting, and filtering by recipe name or ingredient.
      * 
-     * Responds with a 200 OK status and the list of recipes, or 404 Not Found with a result of "No recipes found".
+     * Passing include=ingredients fills in each recipe's ingredients with one batched query. Passing after
+     * (empty for the first page, then the nextCursor of the previous page) pages by keyset instead of by
+     * page number; an invalid cursor or sort key responds with 400 Bad Request. Passing withTotals=false skips
+     * counting the matching recipes; the page then reports hasNext instead of totalPages and totalElements.
+     * Pages of a term search are ranked by relevance unless sortBy or sortDirection is passed; other pages are
+     * sorted by name unless sortBy says otherwise.
+     * 
+     * Each request runs exactly one query on the JDBC executor, and the request thread is released while it
+     * does. Passing only name returns the unpaginated list of recipes matching it; any paging parameter (page,
+     * pageSize, term or after), or no parameter at all, returns a page instead, with name standing in for term
+     * when term is absent.
+     * 
+     * Responds with a 200 OK status and the list or page of recipes, or 404 Not Found with a result of
+     * "No recipes found" when nothing matches or the page is past the last one.
      */
     public Handler fetchAllRecipes = ctx -> {
         int page = getParamAsClassOrElse(ctx, "page", Integer.class, 1);
         int pageSize = getParamAsClassOrElse(ctx, "pageSize", Integer.class, 10);
-        String sortBy = getParamAsClassOrElse(ctx, "sortBy", String.class, "name");
-        String sortDirection = getParamAsClassOrElse(ctx, "sortDirection", String.class, "asc");
         String searchTermRecipe = ctx.queryParam("name");
-        String searchTermPaginated = getParamAsClassOrElse(ctx, "term", String.class, "");          
-        List<Recipe> recipes = recipeService.searchRecipes(searchTermRecipe);
-        Page<Recipe> recipesPage = recipeService.searchRecipes(searchTermPaginated, page, pageSize, sortBy, sortDirection);
-        if (recipes == null || recipes.isEmpty()) {
-            ctx.status(404);
-            ctx.result("No recipes found");
-        } else if(recipesPage == null) {
-            ctx.status(200);
-            ctx.json(recipes);
-        } else {
-            ctx.status(200);
-            ctx.json(recipesPage);
-
+        String searchTermPaginated = getParamAsClassOrElse(ctx, "term", String.class,
+                searchTermRecipe == null ? "" : searchTermRecipe);
+        // no default sort for a term search, so the service can tell it to rank the results by relevance
+        boolean byRelevance = !searchTermPaginated.isEmpty() && ctx.queryParam("after") == null
+                && ctx.queryParam("sortDirection") == null;
+        String sortBy = getParamAsClassOrElse(ctx, "sortBy", String.class, byRelevance ? null : "name");
+        String sortDirection = getParamAsClassOrElse(ctx, "sortDirection", String.class, sortBy == null ? null : "asc");
+        PageOptions pageOptions = new PageOptions(page, pageSize, sortBy, sortDirection);
+        pageOptions.setAfter(ctx.queryParam("after"));
+        pageOptions.setWithTotals(getParamAsClassOrElse(ctx, "withTotals", Boolean.class, true));
+        boolean withIngredients = includesIngredients(ctx);
+        if (searchTermRecipe != null && !requestsPage(ctx)) {
+            ctx.future(() -> jdbcExecutor.supply(() -> {
+                List<Recipe> recipes = recipeService.searchRecipes(searchTermRecipe);
+                if (recipes != null && !recipes.isEmpty() && withIngredients) {
+                    recipeService.loadIngredients(recipes);
+                }
+                return recipes;
+            }).thenAccept(recipes -> {
+                if (recipes == null || recipes.isEmpty()) {
+                    ctx.status(404);
+                    ctx.result("No recipes found");
+                } else {
+                    ctx.status(200);
+                    ctx.json(recipes);
+                }
+            }).exceptionally(failure -> respondToFailure(ctx, failure)));
+            return;
         }
-};
+        ctx.future(() -> jdbcExecutor.supply(() -> {
+            Page<Recipe> recipesPage = recipeService.searchRecipes(searchTermPaginated, pageOptions);
+            if (!isEmpty(recipesPage) && withIngredients) {
+                recipeService.loadIngredients(recipesPage.getItems());
+            }
+            return recipesPage;
+        }).thenAccept(recipesPage -> {
+            if (isEmpty(recipesPage)) {
+                ctx.status(404);
+                ctx.result("No recipes found");
+            } else {
+                ctx.status(200);
+                ctx.json(recipesPage);
+            }
+        }).exceptionally(failure -> respondToFailure(ctx, failure)));
+    };
     
 
     /**
      * TODO: Handler for fetching a recipe by its ID.
      * 
-     * If successful, responds with a 200 status code and the recipe as the response body.
+     * If successful, responds with a 200 status code and the recipe as the response body. Passing
+     * include=ingredients also returns the recipe's ingredients.
      * 
      * If unsuccessful, responds with a 404 status code and a result of "Recipe not found".
+     * 
+     * The recipe is read on the JDBC executor, and the request thread is released while it is.
      */
     public Handler fetchRecipeById = ctx -> {
         int id = Integer.parseInt(ctx.pathParam("id"));
-        String token = ctx.header("Authorization");
-        
-        if (token != null ) {
-            if(token.startsWith("Bearer ") && authService.getChefFromSessionToken(token.substring(7)) == null)
-            {
-                Optional<Recipe> recipe = recipeService.findRecipe(id);
-
-                if (recipe.isPresent()) {
-                    ctx.status(200);
-                    ctx.json(recipe.get());
-                } else {
-                    ctx.status(404);
-                    ctx.result("Recipe not found");
-                }
+        boolean withIngredients = includesIngredients(ctx);
+        ctx.future(() -> jdbcExecutor.supply(() -> {
+            Optional<Recipe> recipe = recipeService.findRecipe(id);
+            if (recipe.isPresent() && withIngredients) {
+                recipeService.loadIngredients(List.of(recipe.get()));
             }
-        } 
-        Optional<Recipe> recipe = recipeService.findRecipe(id);
-        if (recipe.isPresent()) {
-            ctx.status(200);
-            ctx.json(recipe.get());
-        } else {
-            ctx.status(404);
-            ctx.result("Recipe not found");
-        }
+            return recipe;
+        }).thenAccept(recipe -> {
+            if (recipe.isPresent()) {
+                ctx.status(200);
+                ctx.json(recipe.get());
+            } else {
+                ctx.status(404);
+                ctx.result("Recipe not found");
+            }
+        }).exceptionally(failure -> respondToFailure(ctx, failure)));
     };
 
     /**
@@ -125,12 +187,60 @@ public class RecipeController {
             return;
         }
         Recipe recipe = ctx.bodyAsClass(Recipe.class);
-        System.out.println(recipe +"in create handler");
         recipeService.saveRecipe(recipe);
         ctx.status(201);
         ctx.json(recipe);
     };
 
+    /**
+     * Handler for importing many recipes, with their ingredients, at once. The body is an NDJSON stream of
+     * recipes, one per line, or a JSON array of them; each recipe lists its ingredients by name, such as
+     * {"name":"pesto","instructions":"Blend.","ingredients":[{"name":"basil","volume":2,"unit":"cups"}]}.
+     * The body is read as it arrives and written in chunks of the chunkSize parameter (default 1000, at most
+     * 10000), each chunk in its own transaction. Every recipe is created for the authenticated chef.
+     * 
+     * If successful, responds with a 200 status and the outcome of every recipe: its generated id, a conflict
+     * if the name is already taken, or invalid with the reason, such as an unknown ingredient.
+     * If unauthorized, responds with a 401 Unauthorized status.
+     * If the chunk size is not a positive number, or the body holds malformed JSON, responds with a 400 status;
+     * the chunks before the malformed recipe are still written and reported.
+     */
+    public Handler bulkCreateRecipes = ctx -> {
+        String token = ctx.header("Authorization");
+        if (token == null || !token.startsWith("Bearer ")) {
+            ctx.status(401);
+            ctx.result("Unauthorized - Invalid token format");
+            return;
+        }
+        Chef author = authService.getChefFromSessionToken(token.substring(7));
+        if (author == null) {
+            ctx.status(401);
+            ctx.result("Unauthorized");
+            return;
+        }
+        int chunkSize;
+        try {
+            chunkSize = getParamAsClassOrElse(ctx, "chunkSize", Integer.class, BulkResult.DEFAULT_CHUNK_SIZE);
+        } catch (NumberFormatException e) {
+            chunkSize = 0;
+        }
+        if (chunkSize < 1) {
+            ctx.status(400);
+            ctx.result("chunkSize must be a positive number");
+            return;
+        }
+        BulkResult result;
+        try (JsonItemReader<Recipe> items = new JsonItemReader<>(ctx.bodyInputStream(), Recipe.class)) {
+            result = recipeService.importRecipes(items, author, Math.min(chunkSize, BulkResult.MAX_CHUNK_SIZE));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400);
+            ctx.result(e.getMessage());
+            return;
+        }
+        ctx.status(result.getError() == null ? 200 : 400);
+        ctx.json(result);
+    };
+
     /**
      * TODO: Handler for deleting a recipe by its id.
      * 
@@ -140,10 +250,7 @@ public class RecipeController {
      */
     public Handler deleteRecipe = ctx -> {
         int id = Integer.parseInt(ctx.pathParam("id"));
-        Optional<Recipe> recipe = recipeService.findRecipe(id);
-        if (recipe.isPresent()) {
-            System.out.println("in delete handler"+ recipe.get());
-            recipeService.deleteRecipe(id);
+        if (recipeService.deleteRecipe(id)) {
             ctx.status(200);
             ctx.result("Recipe deleted successfully");
         } else {
@@ -168,10 +275,8 @@ public class RecipeController {
         }
         int id = Integer.parseInt(ctx.pathParam("id"));
         Recipe updatedRecipe = ctx.bodyAsClass(Recipe.class);
-        Optional<Recipe> existingRecipe = recipeService.findRecipe(id);
-        if (existingRecipe.isPresent()) {
-            updatedRecipe.setId(id);
-            recipeService.saveRecipe(updatedRecipe);
+        updatedRecipe.setId(id);
+        if (recipeService.updateRecipe(updatedRecipe)) {
             ctx.status(200);
             ctx.json(updatedRecipe);
         } else {
@@ -204,6 +309,79 @@ public class RecipeController {
         return defaultValue;
     }
 
+    /**
+     * Responds to the failure of an asynchronous handler: 503 Service Unavailable if the JDBC executor was
+     * saturated, 400 Bad Request with the message for an invalid argument such as a bad cursor or sort key.
+     * Any other failure is rethrown for Javalin's exception handling.
+     *
+     * @param ctx The context of the request.
+     * @param failure the failure, possibly wrapped in a CompletionException.
+     * @return null, once a response has been set.
+     */
+    private Void respondToFailure(Context ctx, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof RejectedExecutionException) {
+            ctx.status(503);
+            ctx.header("Retry-After", "1");
+            ctx.result("Server busy, please try again");
+            return null;
+        }
+        if (cause instanceof IllegalArgumentException) {
+            ctx.status(400);
+            ctx.result(cause.getMessage());
+            return null;
+        }
+        throw failure instanceof CompletionException ? (CompletionException) failure
+                : new CompletionException(failure);
+    }
+
+    /**
+     * Checks whether the request passed any parameter that only makes sense for a page of recipes.
+     * 
+     * @param ctx The context of the request.
+     * @return true if the request should be answered with a page rather than the list of recipes matching name.
+     */
+    private boolean requestsPage(Context ctx) {
+        for (String param : new String[] { "page", "pageSize", "term", "after" }) {
+            if (ctx.queryParam(param) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a page holds no recipes. Only the items are looked at, so a page past the last one is
+     * empty whether or not totals were counted.
+     * 
+     * @param recipesPage The page of recipes.
+     * @return true if the page has no recipes to show.
+     */
+    private boolean isEmpty(Page<Recipe> recipesPage) {
+        return recipesPage == null || recipesPage.getItems() == null || recipesPage.getItems().isEmpty();
+    }
+
+    /**
+     * Checks whether the request asked for recipe ingredients with include=ingredients. The include
+     * parameter accepts a comma separated list so other expansions can be added later.
+     * 
+     * @param ctx The context of the request.
+     * @return true if ingredients should be loaded for the recipes in the response.
+     */
+    private boolean includesIngredients(Context ctx) {
+        String include = ctx.queryParam("include");
+        if (include == null) {
+            return false;
+        }
+        for (String expansion : include.split(",")) {
+            if (expansion.trim().equalsIgnoreCase("ingredients")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Configure the routes for recipe operations.
      *
@@ -213,6 +391,7 @@ public class RecipeController {
         app.get("/recipes", fetchAllRecipes);
         app.get("/recipes/{id}", fetchRecipeById);
         app.post("/recipes", createRecipe);
+        app.post("/recipes/bulk", bulkCreateRecipes);
         app.put("/recipes/{id}", updateRecipe);
         app.delete("/recipes/{id}", deleteRecipe);
     }
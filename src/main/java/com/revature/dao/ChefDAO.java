@@ -1,11 +1,18 @@
 package com.revature.dao;
+import com.revature.util.BoundedCache;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.JdbcTemplate;
+import com.revature.util.CountCache;
+import com.revature.util.Pager;
+import com.revature.util.RecipeSearchIndex;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.SortSpec;
 import com.revature.*;
 
 import com.revature.model.Chef;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.text.Style;
 
@@ -25,9 +32,30 @@ import java.sql.*;
 public class ChefDAO {
 
     /** A utility class for establishing connections to the database. */
-    @SuppressWarnings("unused")
     private ConnectionUtil connectionUtil;
 
+    /** Offset and keyset paging for chefs; pages can be sorted by id, username or email. */
+    private static final Pager<Chef> PAGER = new Pager<Chef>("CHEF", "SELECT COUNT(*) FROM CHEF",
+            new SortSpec("id").allow("username", "username").allow("email", "email"), Chef::getId)
+            .seekable("username", Chef::getUsername)
+            .seekable("email", Chef::getEmail);
+
+    /**
+     * Chefs looked up by id, without their passwords. Recipe rendering and admin checks look chefs up far more
+     * often than chefs change, so lookups are served from here and updates and deletes invalidate them.
+     */
+    private final BoundedCache<Integer, Chef> chefCache = new BoundedCache<>(
+            Integer.getInteger("cache.chef.maxSize", 1_000), Long.getLong("cache.chef.ttlMillis", 60_000));
+
+    /**
+     * Usernames recently looked up and not found, so repeated logins with unknown usernames do not each reach
+     * the database. Entries live briefly and creating or renaming a chef invalidates their username; setting
+     * auth.login.negativeCacheMillis to 0 turns the cache off.
+     */
+    private final BoundedCache<String, Boolean> unknownUsernames = new BoundedCache<>(
+            Integer.getInteger("auth.login.negativeCacheMaxSize", 10_000),
+            Long.getLong("auth.login.negativeCacheMillis", 5_000));
+
     /** 
      * Constructs a ChefDAO with the specified ConnectionUtil for database connectivity.
      * 
@@ -45,105 +73,63 @@ public class ChefDAO {
      * @return a list of all Chef objects
      */
     public List<Chef> getAllChefs(){
-        try (Connection conn = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM CHEF ORDER BY id";
-            Statement statement = conn.createStatement();
-            ResultSet rs = statement.executeQuery(sql);
-            List<Chef> chefs = new ArrayList<>();
-            while (rs.next()) {
-                chefs.add(new Chef(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getBoolean("is_admin")
-                ));
-            }
-            return chefs;
+        try {
+            return jdbc().query("SELECT * FROM CHEF ORDER BY id", this::mapSingleRow);
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching all chefs");
         }
     }
 
-    public Chef getChefByCredential(Chef chef){
-        try(Connection conn = connectionUtil.getConnection();){
-            String sql = "SELECT * FROM CHEF WHERE username = ? AND password = ?";
-            PreparedStatement statement = conn.prepareStatement(sql);
-            statement.setString(1,chef.getUsername());
-            statement.setString(2,chef.getPassword());
-            ResultSet resultSet = statement.executeQuery();
-                while(resultSet.next()){
-                    Chef chef1 = new Chef(resultSet.getInt("id"),
-                    resultSet.getString("username"),
-                    resultSet.getString("email"),
-                    resultSet.getString("password"),
-                    resultSet.getBoolean("is_Admin"));
-                    return chef1;
-                } 
-        }catch(SQLException e){
-           e.printStackTrace();
+    /**
+     * Retrieves the chef with exactly the given username, using the unique index on CHEF.username. Unlike
+     * {@link #getChefById(int)} the chef carries their password, as this is the lookup used to log in.
+     *
+     * @param username the username to look up
+     * @return the Chef with that username, or null if there is none
+     * @throws SQLException if the lookup fails
+     */
+    public Chef getChefByUsername(String username) throws SQLException {
+        if (username == null) {
+            return null;
         }
-        return null;
+        Chef[] found = new Chef[1];
+        // only misses are cached: the loader hands back a found chef directly and caches nothing for it
+        unknownUsernames.get(username, key -> {
+            found[0] = jdbc().queryForObject("SELECT * FROM CHEF WHERE username = ?", this::mapSingleRow, key);
+            return found[0] == null ? Boolean.TRUE : null;
+        });
+        return found[0];
     }
 
     /**
      * TODO: Retrieves a paginated list of all chefs from the database.
      * 
+     * When pageOptions carries an "after" cursor the page is fetched by keyset instead of by offset. Totals
+     * come from the count cache, or are skipped when pageOptions asks for no totals.
+     * 
      * @param pageOptions options for pagination, including page size and page number
      * @return a paginated list of Chef objects
      */
     public Page<Chef> getAllChefs(PageOptions pageOptions)throws SQLException {
-        StringBuilder sql = new StringBuilder("SELECT * FROM CHEF");
-        if (pageOptions.getSortBy() != null && pageOptions.getSortDirection() != null) {
-            sql.append(" ORDER BY ").append(pageOptions.getSortBy())
-               .append(" ").append(pageOptions.getSortDirection());
-        }
-        int pageNumber = Math.max(1, pageOptions.getPageNumber());
-        int offset = (pageNumber - 1) * pageOptions.getPageSize();
-        sql.append(" LIMIT ? OFFSET ?");
-        List<Chef> chefs = new ArrayList<>();
-        int totalItems = 0;
-
-        try (Connection conn = connectionUtil.getConnection();
-            PreparedStatement statement = conn.prepareStatement(sql.toString())) {
-            statement.setInt(1, pageOptions.getPageSize());
-            statement.setInt(2, offset);
-            ResultSet rs = statement.executeQuery();
-            chefs = mapRows(rs);
-            String countSql = "SELECT COUNT(*) FROM CHEF";
-            try (PreparedStatement countStatement = conn.prepareStatement(countSql)) {
-                ResultSet countResultSet = countStatement.executeQuery();
-                if (countResultSet.next()) {
-                    totalItems = countResultSet.getInt(1);
-                }
-            }
-            int totalPages = (int) Math.ceil((double) totalItems / pageOptions.getPageSize());
-            return new Page<>(totalItems, totalPages, pageNumber, pageOptions.getPageSize(), chefs);
-        }
+        JdbcTemplate jdbc = jdbc();
+        return jdbc.execute(conn -> PAGER.page(jdbc, conn, "SELECT * FROM CHEF", null, this::mapSingleRow,
+                pageOptions));
     }
 
     /**
      * TODO: Retrieves a Chef record by its unique identifier.
      *
+     * Chefs are served from a read-through cache. The returned Chef never carries a password, and is a copy
+     * the caller is free to change.
+     *
      * @param id the unique identifier of the Chef to retrieve.
-     * @return the Chef object, if found.
+     * @return the Chef object without its password, if found.
      */
     public Chef getChefById(int id) throws SQLException{
-        try{
-            Connection conn = connectionUtil.getConnection();
-            String sql = "SELECT * FROM CHEF WHERE id = ?";
-            PreparedStatement statement = conn.prepareStatement(sql);
-            statement.setInt(1,id);
-            ResultSet resultSet = statement.executeQuery();
-            System.out.println("connection");
-            while(resultSet.next()){
-                return new Chef(resultSet.getInt("id"),
-                resultSet.getString("username"),
-                resultSet.getString("email"),
-                resultSet.getString("password"),
-                resultSet.getBoolean("is_Admin"));
-            } 
-        }catch(SQLException e){
+        try {
+            return withoutPassword(chefCache.get(id, key -> withoutPassword(
+                    jdbc().queryForObject("SELECT * FROM CHEF WHERE id = ?", this::mapSingleRow, key))));
+        } catch (SQLException e) {
            e.printStackTrace();
         }
         return null;
@@ -156,28 +142,15 @@ public class ChefDAO {
      * @return the unique identifier of the created Chef.
      */
     public int createChef(Chef chef) throws SQLException{
-        try{
-            Connection conn = connectionUtil.getConnection();
-            String sql = "INSERT INTO CHEF(username,email,password,is_Admin) VALUES(?,?,?,?)";
-            PreparedStatement statement = conn.prepareStatement(sql);
-            statement.setString(1,chef.getUsername());
-            statement.setString(2,chef.getEmail()); 
-            statement.setString(3,chef.getPassword());
-            statement.setBoolean(4,chef.isAdmin()); 
-
-            int affectedRows = statement.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("CHEF created fail");
-            }
-            ResultSet generatedKeys = statement.getGeneratedKeys();
-            if (generatedKeys.next()) {
-                int generated_chefId = generatedKeys.getInt(1);
-                return generated_chefId;
-            }
-        }catch (SQLException e){
-            throw new SQLException("Chef Created Fial");
+        try {
+            int id = jdbc().insert("INSERT INTO CHEF(username,email,password,is_Admin) VALUES(?,?,?,?)",
+                    chef.getUsername(), chef.getEmail(), chef.getPassword(), chef.isAdmin());
+            CountCache.invalidate("CHEF");
+            unknownUsernames.invalidate(chef.getUsername());
+            return id;
+        } catch (SQLException e) {
+            throw new SQLException("Chef creation failed", e);
         }
-        return -1;
     }
 
     /**
@@ -186,34 +159,42 @@ public class ChefDAO {
      * @param chef the Chef object containing updated information.
      */
     public void updateChef(Chef chef) {
-        try{
-            Connection conn = connectionUtil.getConnection();
-            String sql = "UPDATE CHEF SET username = ?,email = ?,password= ?,is_Admin = ? WHERE id = ?";
-            PreparedStatement st  = conn.prepareStatement(sql);
-            st.setString(1, chef.getUsername());
-            st.setString(2, chef.getEmail());
-            st.setString(3, chef.getPassword());
-            st.setBoolean(4, chef.isAdmin());
-            st.setInt(5, chef.getId());
-            st.executeUpdate();
-        }catch(Exception e){
+        try {
+            jdbc().update("UPDATE CHEF SET username = ?,email = ?,password= ?,is_Admin = ? WHERE id = ?",
+                    chef.getUsername(), chef.getEmail(), chef.getPassword(), chef.isAdmin(), chef.getId());
+            CountCache.invalidate("CHEF");
+            chefCache.invalidate(chef.getId());
+            unknownUsernames.invalidate(chef.getUsername());
+        } catch (Exception e) {
             throw new IllegalArgumentException("Chef is not Updated"); 
         }
     }
 
+    /**
+     * Replaces a chef's stored password, such as a legacy plain text password with its hash. Cached chefs carry
+     * no password, so the cache is left alone.
+     *
+     * @param id the id of the chef
+     * @param password the new stored password
+     * @throws SQLException if the update fails
+     */
+    public void updatePassword(int id, String password) throws SQLException {
+        jdbc().update("UPDATE CHEF SET password = ? WHERE id = ?", password, id);
+    }
+
     /**
      * TODO: Deletes a Chef record from the database.
      *
      * @param chef the Chef object to be deleted.
      */
     public void deleteChef(Chef chef) {
-        try{
-            Connection conn = connectionUtil.getConnection();
-            String sql = "DELETE FROM CHEF WHERE id = ?";
-            PreparedStatement st  = conn.prepareStatement(sql);
-            st.setInt(1, chef.getId());
-            st.executeUpdate();  
-        }catch (Exception e){
+        try {
+            jdbc().update("DELETE FROM CHEF WHERE id = ?", chef.getId());
+            chefCache.invalidate(chef.getId());
+            // deleting a chef cascades to their recipes
+            CountCache.invalidate("CHEF", "RECIPE");
+            RecipeSearchIndex.invalidateAll();
+        } catch (Exception e) {
             throw new IllegalArgumentException("Chef not deleted");
         }
     }
@@ -225,24 +206,9 @@ public class ChefDAO {
      * @return a list of Chef objects that match the search term.
      */
     public List<Chef> searchChefsByTerm(String term) {
-        try (Connection conn = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM CHEF WHERE username LIKE ? OR email LIKE ? ORDER BY id";
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ps.setString(1, "%" + term + "%");
-            ps.setString(2, "%" + term + "%");
-            ResultSet rs = ps.executeQuery();
-
-            List<Chef> chefs = new ArrayList<>();
-            while (rs.next()) {
-                chefs.add(new Chef(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getBoolean("is_admin")
-                ));
-            }
-            return chefs;
+        try {
+            return jdbc().query("SELECT * FROM CHEF WHERE username LIKE ? OR email LIKE ? ORDER BY id",
+                    this::mapSingleRow, "%" + term + "%", "%" + term + "%");
         } catch (SQLException e) {
             throw new RuntimeException("Error searching chefs");
         }
@@ -258,55 +224,43 @@ public class ChefDAO {
 
 
     public Page<Chef> searchChefsByTerm(String term, PageOptions pageOptions) {
-        StringBuilder sql = new StringBuilder("SELECT * FROM CHEF WHERE username LIKE ? OR email LIKE ?");
-        if (pageOptions.getSortBy() != null && pageOptions.getSortDirection() != null) {
-            sql.append(" ORDER BY ").append(pageOptions.getSortBy())
-            .append(" ").append(pageOptions.getSortDirection());
-        }
-        int offset = (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize();
-        sql.append(" LIMIT ? OFFSET ?");
-
-        List<Chef> chefs = new ArrayList<>();
-        int totalItems = 0;
-
-        try (Connection conn = connectionUtil.getConnection();
-            PreparedStatement statement = conn.prepareStatement(sql.toString())) {
-            statement.setString(1, "%" + term + "%");
-            statement.setString(2, "%" + term + "%");
-            statement.setInt(3, pageOptions.getPageSize());
-            statement.setInt(4, offset);
-            ResultSet rs = statement.executeQuery();
-            while (rs.next()) {
-                Chef chef = new Chef(
-                    rs.getInt("id"),
-                    rs.getString("username"),
-                    rs.getString("email"),
-                    rs.getString("password"),
-                    rs.getBoolean("is_Admin")
-                );
-                chefs.add(chef);
-            }
-            String countSql = "SELECT COUNT(*) FROM CHEF WHERE username LIKE ? OR email LIKE ?";
-            try (PreparedStatement countStatement = conn.prepareStatement(countSql)) {
-                countStatement.setString(1, "%" + term + "%");
-                countStatement.setString(2, "%" + term + "%");
-
-                ResultSet countResultSet = countStatement.executeQuery();
-                if (countResultSet.next()) {
-                    totalItems = countResultSet.getInt(1);
-                }
-            }
-            int totalPages = (int) Math.ceil((double) totalItems / pageOptions.getPageSize());
-            return new Page<Chef>(totalItems, totalPages, pageOptions.getPageNumber(), pageOptions.getPageSize(),chefs);
+        String pattern = "%" + term + "%";
+        JdbcTemplate jdbc = jdbc();
+        try {
+            return jdbc.execute(conn -> PAGER.page(jdbc, conn, "SELECT * FROM CHEF", "(username LIKE ? OR email LIKE ?)",
+                    this::mapSingleRow, pageOptions, pattern, pattern));
         } catch (SQLException e) {
             e.printStackTrace();
-            return new Page<>(0, 0, 0, pageOptions.getPageSize(),new ArrayList<>());
+            return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), 0, 0, new ArrayList<>());
         }
     }
 
         
         // below are helper methods that are included for your convenience
 
+    /**
+     * @return a JdbcTemplate over the current connectionUtil; every query runs through it so no connection,
+     * statement or result set outlives the call that opened it
+     */
+    private JdbcTemplate jdbc() {
+        return new JdbcTemplate(connectionUtil);
+    }
+
+    /**
+     * @return the size, hit ratio, evictions and load times of the chef lookup cache
+     */
+    public Map<String, Object> getCacheStats() {
+        return chefCache.getStats();
+    }
+
+    /**
+     * @return a copy of the chef with its password cleared, or null for no chef
+     */
+    private static Chef withoutPassword(Chef chef) {
+        return chef == null ? null
+                : new Chef(chef.getId(), chef.getUsername(), chef.getEmail(), null, chef.isAdmin());
+    }
+
         /**
          * Maps a single row from the ResultSet to a Chef object.
          *
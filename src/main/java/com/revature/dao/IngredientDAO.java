@@ -2,13 +2,24 @@ package com.revature.dao;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.revature.util.ConnectionUtil;
+import com.revature.util.IngredientPrefixIndex;
+import com.revature.util.JdbcTemplate;
+import com.revature.util.CountCache;
+import com.revature.util.Pager;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.SortSpec;
 import com.revature.model.Chef;
 import com.revature.model.Ingredient;
+import com.revature.model.RecipeIngredient;
 import java.sql.*;
 
 
@@ -22,9 +33,19 @@ import java.sql.*;
 public class IngredientDAO {
 
     /** A utility class used for establishing connections to the database. */
-    @SuppressWarnings("unused")
     private ConnectionUtil connectionUtil;
 
+    /** Offset and keyset paging for ingredients; pages can be sorted by id or by name. */
+    private static final Pager<Ingredient> PAGER = new Pager<Ingredient>("INGREDIENT",
+            "SELECT COUNT(*) FROM INGREDIENT", new SortSpec("id").allow("name", "name"), Ingredient::getId)
+            .seekable("name", Ingredient::getName);
+
+    /**
+     * The in-memory name index behind ingredient suggestions. It is built from the database on first use and
+     * kept in step with every write made through this DAO.
+     */
+    private final IngredientPrefixIndex prefixIndex = new IngredientPrefixIndex();
+
     /**
      * Constructs an IngredientDAO with the specified ConnectionUtil for database connectivity.
      * 
@@ -46,17 +67,9 @@ public class IngredientDAO {
      */
     
     public Ingredient getIngredientById(int id){
-        String sql = "SELECT * FROM INGREDIENT WHERE id = ?";
-        try(Connection conn = connectionUtil.getConnection()){
-            PreparedStatement statement = conn.prepareStatement(sql);
-            statement.setInt(1, id);
-            ResultSet resultSet = statement.executeQuery();
-            while(resultSet.next()){
-                return new Ingredient(resultSet.getInt("id"),
-                resultSet.getString("name"));
-                
-            } 
-        }catch(SQLException e){
+        try {
+            return jdbc().queryForObject("SELECT * FROM INGREDIENT WHERE id = ?", this::mapSingleRow, id);
+        } catch (SQLException e) {
             e.printStackTrace();
         }
         return null;
@@ -67,57 +80,90 @@ public class IngredientDAO {
      *
      * @param ingredient the Ingredient object to be created.
      * @return the unique identifier of the created Ingredient.
-     * @throws SQLException 
      */
 
     public int createIngredient(Ingredient ingredient){
-        String sql = "INSERT INTO INGREDIENT(name) VALUES(?)";
-    
-        try (Connection conn = connectionUtil.getConnection();
-            PreparedStatement statement = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) { 
-            statement.setString(1, ingredient.getName());
-            int affectedRows = statement.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Ingredient creation failed, no rows affected.");
-            }
-            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    return generatedKeys.getInt(1); 
-                } else {
-                    throw new SQLException("Failed");
-                }
-            }
-            
+        try {
+            int id = jdbc().insert("INSERT INTO INGREDIENT(name) VALUES(?)", ingredient.getName());
+            CountCache.invalidate("INGREDIENT");
+            prefixIndex.put(new Ingredient(id, ingredient.getName()));
+            return id;
         } catch (SQLException e) {
             e.printStackTrace();
             return -1;  
         }
     }
 
+    /**
+     * Creates many ingredients in one transaction, sending the inserts as a single JDBC batch. Names that
+     * already exist, or repeat an earlier name of the list, are skipped instead of failing the batch. If another
+     * request inserts one of the names between the check and the batch, the transaction is rolled back and the
+     * names are checked again.
+     *
+     * @param names the names of the ingredients to create
+     * @return the id of every ingredient created, keyed by name in list order; skipped names are absent
+     */
+    public Map<String, Integer> createIngredients(List<String> names) {
+        JdbcTemplate jdbc = jdbc();
+        Map<String, Integer> created;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                created = jdbc.inTransaction(connection -> {
+                    Set<String> taken = jdbc.findExisting(connection, "INGREDIENT", "name", names);
+                    List<String> pending = new ArrayList<>();
+                    List<Object[]> rows = new ArrayList<>();
+                    for (String name : names) {
+                        if (taken.add(name)) {
+                            pending.add(name);
+                            rows.add(new Object[] {name});
+                        }
+                    }
+                    int[] ids = jdbc.batchInsert(connection, "INSERT INTO INGREDIENT(name) VALUES(?)", rows);
+                    Map<String, Integer> inserted = new LinkedHashMap<>();
+                    for (int i = 0; i < ids.length; i++) {
+                        inserted.put(pending.get(i), ids[i]);
+                    }
+                    return inserted;
+                });
+                break;
+            } catch (SQLException e) {
+                if (attempt < 3 && JdbcTemplate.isDuplicateKey(e)) {
+                    continue;
+                }
+                throw new RuntimeException("Error creating ingredients", e);
+            }
+        }
+        if (!created.isEmpty()) {
+            CountCache.invalidate("INGREDIENT");
+            List<Ingredient> ingredients = new ArrayList<>(created.size());
+            for (Map.Entry<String, Integer> ingredient : created.entrySet()) {
+                ingredients.add(new Ingredient(ingredient.getValue(), ingredient.getKey()));
+            }
+            prefixIndex.putAll(ingredients);
+        }
+        return created;
+    }
+
     /**
      * TODO: Deletes an ingredient record from the database, including references in related tables.
      *
      * @param ingredient the Ingredient object to be deleted.
      */
     public void deleteIngredient(Ingredient ingredient){
-        try{
-            Connection conn = connectionUtil.getConnection();
-            String sql = "DELETE FROM INGREDIENT WHERE id = ?";
-            PreparedStatement st  = conn.prepareStatement(sql);
-            st.setInt(1, ingredient.getId());
-            st.executeUpdate();  
-        }catch (Exception e){
+        try {
+            jdbc().update("DELETE FROM INGREDIENT WHERE id = ?", ingredient.getId());
+            CountCache.invalidate("INGREDIENT");
+            prefixIndex.remove(ingredient.getId());
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
     public void deleteIngredientById(int ingredientId){
         try {
-            Connection conn = connectionUtil.getConnection();
-            String sql = "DELETE FROM INGREDIENT WHERE id = ?";
-            PreparedStatement st = conn.prepareStatement(sql);
-            st.setInt(1, ingredientId);
-            int rowsAffected = st.executeUpdate();
+            int rowsAffected = jdbc().update("DELETE FROM INGREDIENT WHERE id = ?", ingredientId);
+            CountCache.invalidate("INGREDIENT");
+            prefixIndex.remove(ingredientId);
             if (rowsAffected == 0) {
                 throw new IllegalArgumentException("Ingredient not found with ID: " + ingredientId);
             }
@@ -130,17 +176,18 @@ public class IngredientDAO {
     /**
      * TODO: Updates an existing Ingredient record in the database.
      *
+     * Updating an id that does not exist changes nothing, so it leaves the caches and the prefix index alone.
+     *
      * @param ingredient the Ingredient object containing updated information.
      */
     public void updateIngredient(Ingredient ingredient){
-        try{
-            Connection conn = connectionUtil.getConnection();
-            String sql = "UPDATE INGREDIENT SET name = ? WHERE id = ?";
-            PreparedStatement st  = conn.prepareStatement(sql);
-            st.setString(1, ingredient.getName());
-            st.setInt(2, ingredient.getId());
-            st.executeUpdate();
-        }catch(SQLException e){
+        try {
+            if (jdbc().update("UPDATE INGREDIENT SET name = ? WHERE id = ?", ingredient.getName(),
+                    ingredient.getId()) > 0) {
+                CountCache.invalidate("INGREDIENT");
+                prefixIndex.put(ingredient);
+            }
+        } catch (SQLException e) {
             throw new IllegalArgumentException("Ingredient is not Updated"); 
         }
     }
@@ -151,52 +198,28 @@ public class IngredientDAO {
      * @return a list of all Ingredient objects.
      */
     public List<Ingredient> getAllIngredients(){
-        List<Ingredient> ingredients = new ArrayList<>();
-        try{
-            String sql = "SELECT * FROM INGREDIENT ORDER BY id";
-            Connection conn = connectionUtil.getConnection();
-            Statement statement = conn.createStatement();
-            ResultSet resultSet = statement.executeQuery(sql);
-            while(resultSet.next()){
-                Ingredient ingredient = new Ingredient(resultSet.getInt("id"),
-                resultSet.getString("name"));
-                ingredients.add(ingredient);
-            } 
-        }catch(SQLException e){
+        try {
+            return jdbc().query("SELECT * FROM INGREDIENT ORDER BY id", this::mapSingleRow);
+        } catch (SQLException e) {
            e.printStackTrace();
         }
-        return ingredients;
+        return new ArrayList<>();
     }
 
     /**
      * TODO: Retrieves all ingredient records from the database with pagination options.
      *
+     * When pageOptions carries an "after" cursor the page is fetched by keyset instead of by offset. Totals
+     * come from the count cache, or are skipped when pageOptions asks for no totals.
+     *
      * @param pageOptions options for pagination and sorting.
      * @return a Page of Ingredient objects containing the retrieved ingredients.
      */
     public Page<Ingredient> getAllIngredients(PageOptions pageOptions){
-        try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM INGREDIENT ORDER BY id LIMIT ? OFFSET ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setInt(1, pageOptions.getPageSize());
-            ps.setInt(2, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-            ResultSet rs = ps.executeQuery();
-
-            List<Ingredient> ingredients = new ArrayList<>();
-            while (rs.next()) {
-                ingredients.add(new Ingredient(rs.getInt("id"), rs.getString("name")));
-            }
-
-            String countSql = "SELECT COUNT(*) FROM INGREDIENT";
-            PreparedStatement countPs = connection.prepareStatement(countSql);
-            ResultSet countRs = countPs.executeQuery();
-            int totalCount = 0;
-            if (countRs.next()) {
-                totalCount = countRs.getInt(1);
-            }
-
-            int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-            return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, ingredients);
+        JdbcTemplate jdbc = jdbc();
+        try {
+            return jdbc.execute(connection -> PAGER.page(jdbc, connection, "SELECT * FROM INGREDIENT", null,
+                    this::mapSingleRow, pageOptions));
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching paginated ingredients");
         }
@@ -209,23 +232,13 @@ public class IngredientDAO {
      * @return a list of Ingredient objects that match the search term.
      */
     public List<Ingredient> searchIngredients(String term){
-        List<Ingredient> ingredients = new ArrayList<>();
-        try{
-            Connection conn = connectionUtil.getConnection();
-            String sql = "SELECT * FROM INGREDIENT WHERE name LIKE ? ORDER BY id";
-            String searchTerm = "%" + term + "%";
-            PreparedStatement statement = conn.prepareStatement(sql);
-            statement.setString(1,searchTerm);
-            ResultSet resultSet = statement.executeQuery();
-            while(resultSet.next()){
-                Ingredient ingredient = new Ingredient(resultSet.getInt("id"),
-                resultSet.getString("name"));
-                ingredients.add(ingredient);
-            } 
-        }catch(SQLException e){
+        try {
+            return jdbc().query("SELECT * FROM INGREDIENT WHERE name LIKE ? ORDER BY id", this::mapSingleRow,
+                    "%" + term + "%");
+        } catch (SQLException e) {
            e.printStackTrace();
         }
-        return ingredients;
+        return new ArrayList<>();
     }
 
     /**
@@ -236,37 +249,88 @@ public class IngredientDAO {
      * @return a Page of Ingredient objects containing the retrieved ingredients.
      */
     public Page<Ingredient> searchIngredients(String term, PageOptions pageOptions){
-        try (Connection connection = connectionUtil.getConnection()) {
-            String sql = "SELECT * FROM INGREDIENT WHERE name LIKE ? ORDER BY " + pageOptions.getSortBy() + " " + pageOptions.getSortDirection() + " LIMIT ? OFFSET ?";
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, "%" + term + "%");
-            ps.setInt(2, pageOptions.getPageSize());
-            ps.setInt(3, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-            ResultSet rs = ps.executeQuery();
+        JdbcTemplate jdbc = jdbc();
+        try {
+            return jdbc.execute(connection -> PAGER.page(jdbc, connection, "SELECT * FROM INGREDIENT", "name LIKE ?",
+                    this::mapSingleRow, pageOptions, "%" + term + "%"));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error searching paginated ingredients by term");
+        }
+    }
 
-            List<Ingredient> ingredients = new ArrayList<>();
-            while (rs.next()) {
-                ingredients.add(new Ingredient(rs.getInt("id"), rs.getString("name")));
+    /**
+     * Retrieves the ingredients of many recipes at once. Recipe ids are sent in IN lists of at most
+     * MAX_IN_LIST_SIZE, so a page of recipes costs a single query regardless of its size. Each IN list is
+     * padded to a power of two by repeating its last id, so only a handful of distinct SQL strings exist and
+     * they stay in the connection's statement cache.
+     *
+     * @param recipeIds the ids of the recipes whose ingredients should be loaded
+     * @return each recipe's ingredients keyed by recipe id; recipes without ingredients are absent
+     */
+    public Map<Integer, List<RecipeIngredient>> getRecipeIngredients(Collection<Integer> recipeIds) {
+        Map<Integer, List<RecipeIngredient>> ingredientsByRecipe = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(recipeIds);
+        for (int from = 0; from < ids.size(); from += JdbcTemplate.MAX_IN_LIST_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + JdbcTemplate.MAX_IN_LIST_SIZE, ids.size()));
+            Object[] params = JdbcTemplate.padInList(chunk);
+            String sql = "SELECT ri.recipe_id, i.id, i.name, ri.vol, ri.unit FROM RECIPE_INGREDIENT ri "
+                    + "JOIN INGREDIENT i ON i.id = ri.ingredient_id WHERE ri.recipe_id IN ("
+                    + JdbcTemplate.placeholders(params.length) + ") ORDER BY ri.recipe_id, ri.id";
+            try {
+                List<Map.Entry<Integer, RecipeIngredient>> rows = jdbc().query(sql,
+                        rs -> Map.entry(rs.getInt("recipe_id"), new RecipeIngredient(rs.getInt("id"),
+                                rs.getString("name"), rs.getDouble("vol"), rs.getString("unit"))),
+                        params);
+                for (Map.Entry<Integer, RecipeIngredient> row : rows) {
+                    ingredientsByRecipe.computeIfAbsent(row.getKey(), id -> new ArrayList<>()).add(row.getValue());
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error fetching recipe ingredients", e);
             }
+        }
+        return ingredientsByRecipe;
+    }
 
-            String countSql = "SELECT COUNT(*) FROM INGREDIENT WHERE name LIKE ?";
-            PreparedStatement countPs = connection.prepareStatement(countSql);
-            countPs.setString(1, "%" + term + "%");
-            ResultSet countRs = countPs.executeQuery();
-            int totalCount = 0;
-            if (countRs.next()) {
-                totalCount = countRs.getInt(1);
+    /**
+     * Returns the in-memory index of ingredient names, rebuilding it from the database first if it has never
+     * been built or the database was reset since.
+     *
+     * @return the prefix index
+     */
+    public IngredientPrefixIndex getPrefixIndex() {
+        if (!prefixIndex.isCurrent()) {
+            synchronized (prefixIndex) {
+                if (!prefixIndex.isCurrent()) {
+                    rebuildPrefixIndex();
+                }
             }
-
-            int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-            return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, ingredients);
-        } catch (SQLException e) {
-            throw new RuntimeException("Error searching paginated ingredients by term");
         }
+        return prefixIndex;
+    }
+
+    /**
+     * Rebuilds the in-memory index of ingredient names from every ingredient in the database.
+     */
+    public void rebuildPrefixIndex() {
+        prefixIndex.rebuild(() -> {
+            try {
+                return jdbc().query("SELECT * FROM INGREDIENT", this::mapSingleRow);
+            } catch (SQLException e) {
+                // unlike getAllIngredients, never build the index from an empty list when the query fails
+                throw new RuntimeException("Error loading ingredient names", e);
+            }
+        });
     }
 
     // below are helper methods for your convenience
 
+    /**
+     * @return a JdbcTemplate over the current connectionUtil, which closes every resource it opens
+     */
+    private JdbcTemplate jdbc() {
+        return new JdbcTemplate(connectionUtil);
+    }
+
     /**
      * Maps a single row from the ResultSet to an Ingredient object.
      *
@@ -1,13 +1,25 @@
 package com.revature.dao;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.revature.util.ConnectionUtil;
+import com.revature.util.JdbcTemplate;
+import com.revature.util.CountCache;
+import com.revature.util.Pager;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.RecipeSearchIndex;
+import com.revature.util.SortSpec;
 import com.revature.model.Chef;
+import com.revature.model.Ingredient;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
 import java.sql.*;
 
 
@@ -21,20 +33,50 @@ import java.sql.*;
 public class RecipeDAO {
 
     /**
-	 * DAO for managing Chef entities, used for retrieving chef details associated with recipes.
+	 * DAO for managing Chef entities. Recipe authors are joined into recipe queries directly,
+	 * so this is no longer called per row.
 	 */
+    @SuppressWarnings("unused")
 	private ChefDAO chefDAO;
 
 	/**
 	 * DAO for managing Ingredient entities, used for retrieving ingredient details for recipes.
 	 */
-    @SuppressWarnings("unused")
 	private IngredientDAO ingredientDAO;
 
     /** A utility class for establishing connections to the database. */
-    @SuppressWarnings("unused")
     private ConnectionUtil connectionUtil;
 
+	/**
+	 * Selects recipes joined with their author, so that a list or page of recipes is read in a single
+	 * round trip instead of one extra chef lookup per row. Chef columns are aliased to avoid clashing
+	 * with the recipe's own id and name. The password is not selected: authors are rendered with every
+	 * recipe, so like {@link ChefDAO#getChefById(int)} they never carry one.
+	 */
+	private static final String SELECT_RECIPE_WITH_AUTHOR = "SELECT r.id, r.name, r.instructions, r.chef_id, "
+			+ "c.username AS chef_username, c.email AS chef_email, c.is_admin AS chef_is_admin "
+			+ "FROM RECIPE r LEFT JOIN CHEF c ON c.id = r.chef_id";
+
+	/** The keys recipe pages can be sorted by: id, name or chef (the author's id). */
+	public static final SortSpec SORT_SPEC = new SortSpec("r.id").allow("name", "r.name")
+			.allow("chef", "r.chef_id");
+
+	/**
+	 * Offset and keyset paging for recipes. Keyset pages can be sorted by id or name only, as a recipe's chef
+	 * may be null.
+	 */
+	private static final Pager<Recipe> PAGER = new Pager<Recipe>("RECIPE", "SELECT COUNT(*) FROM RECIPE r",
+			SORT_SPEC, Recipe::getId).seekable("name", Recipe::getName);
+
+	/** Matches recipes with a word containing a search word, in their name or instructions. */
+	private static final String WORD_MATCH = "(LOWER(r.name) LIKE ? OR LOWER(r.instructions) LIKE ?)";
+
+	/**
+	 * The full-text index behind recipe searches. It is built from the database on first use and kept in
+	 * step with every write made through this DAO.
+	 */
+	private final RecipeSearchIndex searchIndex = new RecipeSearchIndex();
+
     /**
 	 * Constructs a RecipeDAO instance with specified ChefDAO and IngredientDAO.
 	 *
@@ -56,55 +98,31 @@ public class RecipeDAO {
      * @return a list of all Recipe objects
      */
 
-		 public List<Recipe> getAllRecipes(){
-				try (Connection conn = connectionUtil.getConnection()) {
-						String sql = "SELECT * FROM RECIPE ORDER BY id";
-						Statement statement = conn.createStatement();
-						ResultSet rs = statement.executeQuery(sql);
-						List<Recipe> recipes = new ArrayList<>();
-						recipes = mapRows(rs);
-						return recipes;
-						} catch (SQLException e) {
-								throw new RuntimeException("Error fetching all recipes");
-						}
-			}
+	public List<Recipe> getAllRecipes(){
+		try {
+			return jdbc().query(SELECT_RECIPE_WITH_AUTHOR + " ORDER BY r.id", this::mapSingleRow);
+		} catch (SQLException e) {
+			throw new RuntimeException("Error fetching all recipes");
+		}
+	}
 
     /**
      * TODO: Retrieves a paginated list of all recipes from the database.
      * 
+     * When pageOptions carries an "after" cursor the page is fetched by keyset instead of by offset. Totals
+     * come from the count cache, or are skipped when pageOptions asks for no totals.
+     *
      * @param pageOptions options for pagination, including page size and page number
      * @return a paginated list of Recipe objects
      */
-    public Page<Recipe> getAllRecipes(PageOptions pageOptions){
-			try (Connection conn = connectionUtil.getConnection()) {
-					String sql = "SELECT * FROM RECIPE ORDER BY id LIMIT ? OFFSET ?";
-					PreparedStatement ps = conn.prepareStatement(sql);
-					ps.setInt(1, pageOptions.getPageSize());
-					ps.setInt(2, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-					ResultSet rs = ps.executeQuery();
-					List<Recipe> recipes = new ArrayList<>();
-					while (rs.next()) {
-							Chef chef = chefDAO.getChefById(rs.getInt("chef_id"));
-							recipes.add(new Recipe(
-											rs.getInt("id"),
-											rs.getString("name"),
-											rs.getString("instructions"),
-											chef
-							));
-					}
-					String countSql = "SELECT COUNT(*) FROM RECIPE";
-					PreparedStatement countPs = conn.prepareStatement(countSql);
-					ResultSet countRs = countPs.executeQuery();
-					int totalCount = 0;
-					if (countRs.next()) {
-							totalCount = countRs.getInt(1);
-					}
-
-					int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-					return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, recipes);
-			} catch (SQLException e) {
-					throw new RuntimeException("Error fetching paginated recipes");
-			}  
+	public Page<Recipe> getAllRecipes(PageOptions pageOptions){
+		JdbcTemplate jdbc = jdbc();
+		try {
+			return jdbc.execute(conn -> PAGER.page(jdbc, conn, SELECT_RECIPE_WITH_AUTHOR, null, this::mapSingleRow,
+					pageOptions));
+		} catch (SQLException e) {
+			throw new RuntimeException("Error fetching paginated recipes");
+		}
 	}
 		
 
@@ -115,62 +133,48 @@ public class RecipeDAO {
      * @return a list of Recipe objects that match the search term
      */
 
-    public List<Recipe> searchRecipesByTerm(String term) {
-				List<Recipe> recipes = new ArrayList<>();
-				String sql = "SELECT * FROM RECIPE WHERE name LIKE ? OR instructions LIKE ?";
-		
-				try ( Connection conn = connectionUtil.getConnection();
-					PreparedStatement statement = conn.prepareStatement(sql)) {
-						String searchTerm = "%" + term + "%";
-						statement.setString(1, searchTerm);
-						statement.setString(2, searchTerm);
-		
-						try (ResultSet resultSet = statement.executeQuery()) {
-								recipes = mapRows(resultSet);
-						}
-				} catch (SQLException e) {
-						e.printStackTrace();
-				}
-				return recipes;
-    }
+	public List<Recipe> searchRecipesByTerm(String term) {
+		String searchTerm = "%" + term + "%";
+		try {
+			return jdbc().query(SELECT_RECIPE_WITH_AUTHOR + " WHERE r.name LIKE ? OR r.instructions LIKE ?",
+					this::mapSingleRow, searchTerm, searchTerm);
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return new ArrayList<>();
+	}
 
     /**
      * TODO: Searches for recipes that match a specified term and returns a paginated result.
      * 
+     * A recipe matches the way it does in the {@link RecipeSearchIndex}: every word of the term must be
+     * found inside a word of the recipe's name or instructions. Words contain only letters and digits, so
+     * that is a case-insensitive LIKE per word. Keyset searches are served from here, as they need a stable
+     * sort column rather than the index's relevance order.
+     *
      * @param term the search term to filter recipes by
      * @param pageOptions options for pagination, including page size and page number
      * @return a paginated list of Recipe objects that match the search term
      */
 
-		 public Page<Recipe> searchRecipesByTerm(String term, PageOptions pageOptions){
-			try (Connection conn = connectionUtil.getConnection()) {
-					String sql = "SELECT * FROM RECIPE WHERE name LIKE ? ORDER BY id LIMIT ? OFFSET ?";
-					PreparedStatement ps = conn.prepareStatement(sql);
-					ps.setString(1, "%" + term + "%");
-					ps.setInt(2, pageOptions.getPageSize());
-					ps.setInt(3, (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize());
-					ResultSet rs = ps.executeQuery();
-					List<Recipe> recipes = new ArrayList<>();
-
-					while (rs.next()) {
-							recipes.add(new Recipe(rs.getInt("id"), rs.getString("name"), rs.getString("instructions"), chefDAO.getChefById(rs.getInt("chef_id"))));
-					}
-
-					String countSql = "SELECT COUNT(*) FROM RECIPE WHERE name LIKE ?";
-					PreparedStatement countPs = conn.prepareStatement(countSql);
-					countPs.setString(1, "%" + term + "%");
-					ResultSet countRs = countPs.executeQuery();
-					int totalCount = 0;
-
-					if (countRs.next()) {
-							totalCount = countRs.getInt(1);
-					}
-
-					int totalPages = (int) Math.ceil((double) totalCount / pageOptions.getPageSize());
-					return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, totalCount, recipes);
-			} catch (SQLException e) {
-					throw new RuntimeException("Error searching paginated recipes by term: " + term, e);
-			}
+	public Page<Recipe> searchRecipesByTerm(String term, PageOptions pageOptions){
+		List<String> words = RecipeSearchIndex.tokenize(term);
+		List<String> conditions = new ArrayList<>();
+		List<Object> params = new ArrayList<>();
+		for (String word : words) {
+			conditions.add(WORD_MATCH);
+			params.add("%" + word + "%");
+			params.add("%" + word + "%");
+		}
+		// a term without words matches nothing, as in the index
+		String where = words.isEmpty() ? "FALSE" : String.join(" AND ", conditions);
+		JdbcTemplate jdbc = jdbc();
+		try {
+			return jdbc.execute(conn -> PAGER.page(jdbc, conn, SELECT_RECIPE_WITH_AUTHOR, where,
+					this::mapSingleRow, pageOptions, params.toArray()));
+		} catch (SQLException e) {
+			throw new RuntimeException("Error searching paginated recipes by term: " + term, e);
+		}
 	}
 
     /**
@@ -180,22 +184,12 @@ public class RecipeDAO {
      * @return the Recipe object corresponding to the given ID
      */
 
-		 public Recipe getRecipeById(int id) {
-				Recipe recipe;
-				try (Connection conn = connectionUtil.getConnection()) {
-						String sql = "SELECT * FROM RECIPE WHERE id = ?";
-						PreparedStatement ps = conn.prepareStatement(sql);
-						ps.setInt(1, id);
-						ResultSet rs = ps.executeQuery();
-
-						if (rs.next()) {
-								recipe = mapSingleRow(rs);
-								return recipe;
-						}
-						return null;
-						}catch (SQLException e) {
-								throw new RuntimeException("Error fetching recipe by ID: " + id, e);
-				}
+	public Recipe getRecipeById(int id) {
+		try {
+			return jdbc().queryForObject(SELECT_RECIPE_WITH_AUTHOR + " WHERE r.id = ?", this::mapSingleRow, id);
+		} catch (SQLException e) {
+			throw new RuntimeException("Error fetching recipe by ID: " + id, e);
+		}
 	}
 	
         
@@ -207,48 +201,41 @@ public class RecipeDAO {
      * @return the ID of the newly created recipe
      */
 
-    public int createRecipe(Recipe recipe) {
-				String sql = "INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)";
-				try ( Connection conn = connectionUtil.getConnection();
-					PreparedStatement statement = conn.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
-						statement.setString(1, recipe.getName());
-						statement.setString(2, recipe.getInstructions());
-						statement.setInt(3, recipe.getAuthor() != null ? recipe.getAuthor().getId() : null);
-		
-						int affectedRows = statement.executeUpdate();
-
-						if (affectedRows == 0) {
-								throw new SQLException("Creating recipe failed");
-						}
-						ResultSet rs = statement.getGeneratedKeys();
-            if (rs.next()) {
-                int newId = rs.getInt(1);
-                conn.commit();
-                return newId;
-            } 
-				} catch (SQLException e) {
-						e.printStackTrace();
-				}
-				return -1; 
-  }
+	public int createRecipe(Recipe recipe) {
+		try {
+			int id = jdbc().insert("INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)",
+					recipe.getName(), recipe.getInstructions(), authorId(recipe));
+			CountCache.invalidate("RECIPE");
+			searchIndex.put(id, recipe.getName(), recipe.getInstructions());
+			return id;
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return -1; 
+	}
 
     /**
      * TODO: Updates an existing recipe's instructions and chef_id in the database.
      * 
+     * The returned row count tells the caller whether the recipe existed, so no lookup is needed beforehand.
+     *
      * @param recipe the Recipe object with updated data
+     * @return the number of recipes updated, 0 if no recipe has the recipe's id
      */
 
-		 public void updateRecipe(Recipe recipe){
-				try (Connection conn = connectionUtil.getConnection()) {
-						String sql = "UPDATE RECIPE SET instructions = ?, chef_id = ? WHERE id = ?";
-						PreparedStatement ps = conn.prepareStatement(sql);
-						ps.setString(1, recipe.getInstructions());
-						ps.setInt(2, recipe.getAuthor().getId());
-						ps.setInt(3, recipe.getId());
-						ps.executeUpdate();
-				} catch (SQLException e) {
-						throw new RuntimeException("Error updating recipe");
-				}
+	public int updateRecipe(Recipe recipe){
+		try {
+			int updated = jdbc().update("UPDATE RECIPE SET instructions = ?, chef_id = ? WHERE id = ?",
+					recipe.getInstructions(), authorId(recipe), recipe.getId());
+			if (updated > 0) {
+				// term searches match on the instructions, so their cached totals may have changed
+				CountCache.invalidate("RECIPE");
+				searchIndex.updateInstructions(recipe.getId(), recipe.getInstructions());
+			}
+			return updated;
+		} catch (SQLException e) {
+			throw new RuntimeException("Error updating recipe");
+		}
 	}
 
     /**
@@ -257,25 +244,225 @@ public class RecipeDAO {
      * @param recipe the Recipe object to delete
      */
 
-    public void deleteRecipe(Recipe recipe) {
-				try (Connection conn = connectionUtil.getConnection()) {
-					String sql = "DELETE FROM RECIPE WHERE id = ?";
-					PreparedStatement statement = conn.prepareStatement(sql);
-					statement.setInt(1, recipe.getId());
-					statement.setInt(1, recipe.getId());
-					statement.executeUpdate();
-					System.out.println(statement.executeUpdate());
-				} catch (SQLException e) {
-						e.printStackTrace();
+	public void deleteRecipe(Recipe recipe) {
+		deleteRecipeById(recipe.getId());
+	}
+
+    /**
+     * Deletes a recipe by its id in a single statement. The returned row count tells the caller whether the
+     * recipe existed, so no lookup is needed beforehand.
+     *
+     * @param id the id of the recipe to delete
+     * @return the number of recipes deleted, 0 if no recipe has the id
+     */
+	public int deleteRecipeById(int id) {
+		try {
+			int deleted = jdbc().update("DELETE FROM RECIPE WHERE id = ?", id);
+			if (deleted > 0) {
+				CountCache.invalidate("RECIPE");
+				searchIndex.remove(id);
+			}
+			return deleted;
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return 0;
+	}
+
+    /**
+     * Retrieves the recipes with the given ids, in the order the ids are given. Ids are sent in IN lists of at
+     * most JdbcTemplate.MAX_IN_LIST_SIZE, so a page of search results costs a single query.
+     *
+     * @param ids the ids of the recipes to retrieve
+     * @return the recipes that still exist, in the order of their ids in the given list
+     */
+	public List<Recipe> getRecipesByIds(List<Integer> ids) {
+		Map<Integer, Recipe> recipesById = new HashMap<>();
+		for (int from = 0; from < ids.size(); from += JdbcTemplate.MAX_IN_LIST_SIZE) {
+			Object[] params = JdbcTemplate.padInList(ids.subList(from,
+					Math.min(from + JdbcTemplate.MAX_IN_LIST_SIZE, ids.size())));
+			try {
+				for (Recipe recipe : jdbc().query(SELECT_RECIPE_WITH_AUTHOR + " WHERE r.id IN ("
+						+ JdbcTemplate.placeholders(params.length) + ")", this::mapSingleRow, params)) {
+					recipesById.put(recipe.getId(), recipe);
+				}
+			} catch (SQLException e) {
+				throw new RuntimeException("Error fetching recipes by ID", e);
+			}
+		}
+		List<Recipe> recipes = new ArrayList<>();
+		for (Integer id : ids) {
+			Recipe recipe = recipesById.get(id);
+			if (recipe != null) {
+				recipes.add(recipe);
+			}
+		}
+		return recipes;
+	}
+
+    /**
+     * Returns the full-text search index over recipe names and instructions, rebuilding it from the database
+     * first if it has never been built or the database was reset since.
+     *
+     * @return the search index
+     */
+	public RecipeSearchIndex getSearchIndex() {
+		if (!searchIndex.isCurrent()) {
+			synchronized (searchIndex) {
+				if (!searchIndex.isCurrent()) {
+					rebuildSearchIndex();
+				}
+			}
+		}
+		return searchIndex;
+	}
+
+    /**
+     * Rebuilds the full-text search index from every recipe in the database.
+     */
+	public void rebuildSearchIndex() {
+		searchIndex.rebuild(this::getAllRecipes);
+	}
+
+    /**
+     * Fills in the ingredient list of every given recipe using one batched query for the whole list,
+     * never one query per recipe. Recipes without ingredients receive an empty list.
+     *
+     * @param recipes the recipes whose ingredients should be loaded
+     */
+	public void loadIngredients(List<Recipe> recipes) {
+		if (recipes == null || recipes.isEmpty()) {
+			return;
+		}
+		if (ingredientDAO == null) {
+			throw new IllegalStateException("RecipeDAO was created without an IngredientDAO");
+		}
+		List<Integer> recipeIds = new ArrayList<>();
+		for (Recipe recipe : recipes) {
+			recipeIds.add(recipe.getId());
+		}
+		Map<Integer, List<RecipeIngredient>> ingredientsByRecipe = ingredientDAO.getRecipeIngredients(recipeIds);
+		for (Recipe recipe : recipes) {
+			recipe.setIngredients(ingredientsByRecipe.getOrDefault(recipe.getId(), new ArrayList<>()));
+		}
+	}
+
+    /**
+     * Finds an ingredient by name in IngredientDAO's in-memory name index, without querying the database, so
+     * resolving the ingredients of a large import costs no round trips.
+     *
+     * @param name the ingredient's name, in any case
+     * @return the ingredient, or null if no ingredient has the name
+     */
+	public Ingredient findIngredient(String name) {
+		if (ingredientDAO == null) {
+			throw new IllegalStateException("RecipeDAO was created without an IngredientDAO");
+		}
+		return ingredientDAO.getPrefixIndex().find(name);
+	}
+
+    /**
+     * Creates many recipes together with their ingredients in one transaction: the recipes are inserted as one
+     * JDBC batch, then the RECIPE_INGREDIENT rows of all of them as a second batch. Every recipe ingredient must
+     * carry the id of an existing ingredient, such as one found with {@link #findIngredient(String)}.
+     *
+     * Recipes whose name is already taken, or repeats an earlier name of the list, are skipped instead of
+     * failing the batch. If another request takes one of the names between the check and the batch, the
+     * transaction is rolled back and the names are checked again.
+     *
+     * @param recipes the recipes to create, with their authors and ingredients
+     * @return the id of every recipe created, keyed by name in list order; skipped names are absent
+     */
+	public Map<String, Integer> createRecipes(List<Recipe> recipes) {
+		JdbcTemplate jdbc = jdbc();
+		List<String> names = new ArrayList<>(recipes.size());
+		for (Recipe recipe : recipes) {
+			names.add(recipe.getName());
+		}
+		Map<String, Integer> created;
+		for (int attempt = 1; ; attempt++) {
+			try {
+				created = jdbc.inTransaction(conn -> insertRecipes(jdbc, conn, recipes,
+						jdbc.findExisting(conn, "RECIPE", "name", names)));
+				break;
+			} catch (SQLException e) {
+				if (attempt < 3 && JdbcTemplate.isDuplicateKey(e)) {
+					continue;
+				}
+				throw new RuntimeException("Error creating recipes", e);
+			}
+		}
+		if (!created.isEmpty()) {
+			CountCache.invalidate("RECIPE");
+			Set<String> indexed = new HashSet<>();
+			for (Recipe recipe : recipes) {
+				Integer id = created.get(recipe.getName());
+				// only the first recipe of a repeated name was inserted
+				if (id != null && indexed.add(recipe.getName())) {
+					searchIndex.put(id, recipe.getName(), recipe.getInstructions());
 				}
-    }
+			}
+		}
+		return created;
+	}
 
     // below are helper methods for your convenience
+
+	/**
+	 * Inserts the recipes whose names are not taken, then their ingredients, on the caller's transaction.
+	 *
+	 * @param taken the names already in use; the names inserted are added to it
+	 * @return the id of every recipe inserted, keyed by name
+	 */
+	private Map<String, Integer> insertRecipes(JdbcTemplate jdbc, Connection conn, List<Recipe> recipes,
+			Set<String> taken) throws SQLException {
+		List<Recipe> pending = new ArrayList<>();
+		List<Object[]> recipeRows = new ArrayList<>();
+		for (Recipe recipe : recipes) {
+			if (taken.add(recipe.getName())) {
+				pending.add(recipe);
+				recipeRows.add(new Object[] { recipe.getName(), recipe.getInstructions(), authorId(recipe) });
+			}
+		}
+		int[] ids = jdbc.batchInsert(conn, "INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)",
+				recipeRows);
+		Map<String, Integer> inserted = new LinkedHashMap<>();
+		List<Object[]> ingredientRows = new ArrayList<>();
+		for (int i = 0; i < ids.length; i++) {
+			Recipe recipe = pending.get(i);
+			inserted.put(recipe.getName(), ids[i]);
+			if (recipe.getIngredients() != null) {
+				for (RecipeIngredient ingredient : recipe.getIngredients()) {
+					ingredientRows.add(new Object[] { ids[i], ingredient.getId(), ingredient.getVolume(),
+							ingredient.getUnit() });
+				}
+			}
+		}
+		jdbc.batchUpdate(conn, "INSERT INTO RECIPE_INGREDIENT (recipe_id, ingredient_id, vol, unit) VALUES (?, ?, ?, ?)",
+				ingredientRows);
+		return inserted;
+	}
+
+	/**
+	 * @return a JdbcTemplate over the current connectionUtil, which closes every resource it opens
+	 */
+	private JdbcTemplate jdbc() {
+		return new JdbcTemplate(connectionUtil);
+	}
+
+	/**
+	 * @param recipe the recipe being written
+	 * @return the id of the recipe's author, or null so the chef_id column is written as NULL
+	 */
+	private Integer authorId(Recipe recipe) {
+		return recipe.getAuthor() != null ? recipe.getAuthor().getId() : null;
+	}
 	
 	/**
 	 * Maps a single row from the ResultSet to a Recipe object.
 	 * This method extracts the recipe details such as ID, name, instructions,
-	 * and associated chef from the ResultSet and constructs a Recipe instance.
+	 * and the associated chef columns joined in by SELECT_RECIPE_WITH_AUTHOR,
+	 * and constructs a Recipe instance without any further queries.
 	 *
 	 * @param set the ResultSet containing the recipe data
 	 * @return a Recipe object representing the mapped row
@@ -285,8 +472,23 @@ public class RecipeDAO {
 		int id = set.getInt("id");
 		String name = set.getString("name");
 		String instructions = set.getString("instructions");
-		Chef author = chefDAO.getChefById(set.getInt("chef_id"));
-		return new Recipe(id, name, instructions, author);
+		return new Recipe(id, name, instructions, mapAuthor(set));
+	}
+
+	/**
+	 * Maps the joined chef columns of a recipe row to a Chef object.
+	 *
+	 * @param set the ResultSet positioned on a row produced by SELECT_RECIPE_WITH_AUTHOR
+	 * @return the recipe's author without their password, or null if the recipe has no chef
+	 * @throws SQLException if there is an error accessing the ResultSet
+	 */
+	private Chef mapAuthor(ResultSet set) throws SQLException {
+		int chefId = set.getInt("chef_id");
+		if (set.wasNull() || chefId == 0) {
+			return null;
+		}
+		return new Chef(chefId, set.getString("chef_username"), set.getString("chef_email"),
+				null, set.getBoolean("chef_is_admin"));
 	}
 
 	/**
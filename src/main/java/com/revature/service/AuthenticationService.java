@@ -1,12 +1,13 @@
 package com.revature.service;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import com.revature.model.Chef;
+import com.revature.util.MetricsRegistry;
+import com.revature.util.PasswordHasher;
+import com.revature.util.SessionStore;
 
 
 /**
@@ -14,7 +15,8 @@ import com.revature.model.Chef;
  * for Chef objects. It manages the login, logout, and registration
  * processes, as well as session management for chefs. This service 
  * utilizes a ChefService to perform operations related to chefs and 
- * maintains a session map to track active sessions.
+ * a {@link SessionStore}, shared by every instance, to track active sessions.
+ * Passwords are hashed and verified by a shared {@link PasswordHasher}.
  */
 
 public class AuthenticationService {
@@ -26,72 +28,188 @@ public class AuthenticationService {
     @SuppressWarnings("unused")
     private ChefService chefService;
 
-    /** A map that keeps track of currently logged in users, indexed by session token. */
-    public static Map<String, Chef> loggedInUsers = new HashMap<>();
+    /** The currently logged in users, indexed by session token. */
+    private static final SessionStore SESSIONS = SessionStore.fromSystemProperties();
+
+    /** Hashes and verifies passwords off the request threads. */
+    private static final PasswordHasher PASSWORDS = PasswordHasher.fromSystemProperties();
+
+    /**
+     * The hash of a random password, verified against when a username is unknown, so a failed login takes as
+     * long whether or not the username exists.
+     */
+    private static final String UNKNOWN_USER_HASH = PASSWORDS.hash(UUID.randomUUID().toString());
+
+    static {
+        MetricsRegistry.register("sessions", SESSIONS::getStats);
+        MetricsRegistry.register("passwordHasher", PASSWORDS::getStats);
+    }
 
     /**
-     * Constructs an AuthenticationService with the specified ChefService and a newly created HashMap for the LoggedInUsers.
+     * Constructs an AuthenticationService with the specified ChefService. Sessions are shared with every other
+     * instance, so constructing a service does not log anybody out.
      *
      * @param chefService the ChefService to be used by this authentication service
      */
     public AuthenticationService(ChefService chefService) {
         this.chefService = chefService;
-        loggedInUsers = new HashMap<>();
     }
 
     /**
-     * TODO: Authenticates a chef by verifying the provided credentials. If successful, a session token is generated and stored in the logged in users map.
+     * TODO: Authenticates a chef by verifying the provided credentials. If successful, a session token is generated and stored in the session store.
+     *
+     * The chef is looked up by exact username, and the password is verified on the calling thread. Request
+     * handlers use {@link #loginAsync(Chef)} instead. An unknown username is verified against a dummy hash,
+     * so it takes as long to reject as a wrong password. A legacy plain text password is replaced by its hash
+     * once it has been verified.
      * 
      * @param chef the Chef object containing login credentials
      * @return a session token if the login is successful; null otherwise
      * @throws SQLException 
      */
     public String login(Chef chef) throws SQLException {
-        List<Chef> chefs = chefService.searchChefs(chef.getUsername());
-        System.out.println("++++" + chefs);
-        Optional<Chef> existingChef = chefs.stream()
-            .filter(loginChef -> loginChef.getUsername().equals(chef.getUsername()) && loginChef.getPassword().equals(chef.getPassword()))
-            .findFirst();
-        if (existingChef.isPresent()) {
-            String token = UUID.randomUUID().toString();
-            loggedInUsers.put(token, existingChef.get());
-            return token;
+        Chef existingChef = chefService.getChefByUsername(chef.getUsername());
+        if (existingChef == null) {
+            PASSWORDS.verify(chef.getPassword(), UNKNOWN_USER_HASH);
+            return null;
         }
-        return null;
+        return PASSWORDS.verify(chef.getPassword(), existingChef.getPassword())
+                ? completeLogin(existingChef, chef.getPassword()) : null;
     }
 
     /**
-     * TODO: Logs out a chef by removing their session token from the LoggedInUsers map.
+     * Authenticates a chef like {@link #login(Chef)}, but verifies the password on the password hashing pool.
+     * The chef is looked up on the calling thread; unknown usernames are verified against a dummy hash on the
+     * pool too, so they are not told apart by how quickly they fail.
+     *
+     * @param chef the Chef object containing login credentials
+     * @return a future session token, or null if the login failed; fails with a RejectedExecutionException if
+     *         the hashing pool is saturated
+     * @throws SQLException if the chef cannot be looked up
+     */
+    public CompletableFuture<String> loginAsync(Chef chef) throws SQLException {
+        Chef existingChef = chefService.getChefByUsername(chef.getUsername());
+        if (existingChef == null) {
+            return PASSWORDS.verifyAsync(chef.getPassword(), UNKNOWN_USER_HASH).thenApply(matches -> null);
+        }
+        return PASSWORDS.verifyAsync(chef.getPassword(), existingChef.getPassword())
+                .thenApply(matches -> matches ? completeLogin(existingChef, chef.getPassword()) : null);
+    }
+
+    /**
+     * Finishes a verified login: replaces a legacy plain text password with its hash, then starts a session.
+     * A failure to save the hash does not fail the login; the password is hashed again at the next one.
+     *
+     * @param chef the chef as stored
+     * @param password the password they logged in with
+     * @return the new session token
+     */
+    private String completeLogin(Chef chef, String password) {
+        if (!PasswordHasher.isHash(chef.getPassword())) {
+            try {
+                chefService.updatePassword(chef.getId(), PASSWORDS.hash(password));
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        return startSession(chef);
+    }
+
+    /**
+     * Starts a session for a chef, keeping a copy of them without their password.
+     *
+     * @return the new session token
+     */
+    private String startSession(Chef chef) {
+        String token = UUID.randomUUID().toString();
+        SESSIONS.put(token, new Chef(chef.getId(), chef.getUsername(), chef.getEmail(), null, chef.isAdmin()));
+        return token;
+    }
+
+    /**
+     * TODO: Logs out a chef by removing their session token from the session store.
      *
      * @param token the session token of the chef to be logged out
      */
 
     public void logout(String token) {
-        loggedInUsers.remove(token);
+        SESSIONS.remove(token);
     }
 
     /**
 	 * TODO: Registers a new chef by saving the chef's information using ChefService.
 	 *
+	 * The password is hashed on the calling thread before it is saved. Request handlers use
+	 * {@link #registerChefAsync(Chef)} instead.
+	 *
 	 * @param chef the chef object containing registration details
-	 * @return the registered chef object
+	 * @return the registered chef object, without its password
      * @throws SQLException 
 	 */
     public Chef registerChef(Chef chef) throws SQLException {
+        return saveWithHash(chef, PASSWORDS.hash(chef.getPassword()));
+    }
+
+    /**
+     * Registers a new chef like {@link #registerChef(Chef)}, but hashes the password on the password hashing
+     * pool. The chef is saved by the hashing thread once the hash is ready.
+     *
+     * @param chef the chef object containing registration details
+     * @return the future registered chef, without their password; fails with a RejectedExecutionException if
+     *         the hashing pool is saturated, or with the SQLException if the chef cannot be saved
+     */
+    public CompletableFuture<Chef> registerChefAsync(Chef chef) {
+        return PASSWORDS.hashAsync(chef.getPassword()).thenApply(hash -> {
+            try {
+                return saveWithHash(chef, hash);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private Chef saveWithHash(Chef chef, String hash) throws SQLException {
+        chef.setPassword(hash);
         chefService.saveChef(chef);
-        return chef;
+        return new Chef(chef.getId(), chef.getUsername(), chef.getEmail(), null, chef.isAdmin());
     }
 
     /**
      * TODO: Retrieves a Chef object from the session token.
      *
      * @param token the session token used to retrieve the chef
-     * @return the Chef object associated with the session token; null if not found
+     * @return the Chef object associated with the session token; null if not found or expired
      */
     public Chef getChefFromSessionToken(String token) {
-        if (token == null || !loggedInUsers.containsKey(token)) {
+        return SESSIONS.get(token);
+    }
+
+    /**
+     * Checks whether a session token belongs to a logged in admin, without looking up the chef.
+     *
+     * @param token the session token to check
+     * @return true if the session exists, has not expired and belongs to an admin; false otherwise
+     */
+    public boolean isAdminSession(String token) {
+        return SESSIONS.isAdmin(token);
+    }
+
+    /**
+     * Extracts the session token from an Authorization header, with or without its "Bearer" prefix. The
+     * prefix counts only when whitespace follows it; otherwise the whole header is taken as the token.
+     *
+     * @param header the Authorization header; may be null
+     * @return the session token, or null if the header is missing or blank
+     */
+    public static String tokenFromHeader(String header) {
+        if (header == null) {
             return null;
         }
-        return loggedInUsers.get(token);
+        String token = header.trim();
+        if (token.length() > 6 && token.regionMatches(true, 0, "Bearer", 0, 6)
+                && Character.isWhitespace(token.charAt(6))) {
+            token = token.substring(6).trim();
+        }
+        return token.isEmpty() ? null : token;
     }
 }
@@ -105,7 +105,18 @@ public class ChefService {
      */
 	
     public Page<Chef> searchChefs(String term, int page, int pageSize, String sortBy, String sortDirection)throws SQLException {
-        PageOptions pageOptions = new PageOptions(page, pageSize, sortBy, sortDirection);
+        return searchChefs(term, new PageOptions(page, pageSize, sortBy, sortDirection));
+    }
+
+    /**
+     * Searches for chefs with the given paging options. Options carrying an "after" cursor are paged by
+     * keyset instead of by offset.
+     *
+     * @param term the search term used to find chefs
+     * @param pageOptions the page, sort and cursor options
+     * @return a Page containing the results of the search
+     */
+    public Page<Chef> searchChefs(String term, PageOptions pageOptions) throws SQLException {
         if (term == null || term.isEmpty()) {
             return chefDAO.getAllChefs(pageOptions);
         } else {
@@ -113,9 +124,24 @@ public class ChefService {
         }
     }
 
-    public Chef getChefByCredentials(Chef chef) throws SQLException {
-        Chef chef2 = chefDAO.getChefByCredential(chef);
-        return chef2;
+    /**
+     * Retrieves the chef with exactly the given username, password included, for logging in.
+     *
+     * @param username the username to look up
+     * @return the Chef with that username, or null if there is none
+     */
+    public Chef getChefByUsername(String username) throws SQLException {
+        return chefDAO.getChefByUsername(username);
+    }
+
+    /**
+     * Replaces a chef's stored password, such as a legacy plain text password with its hash.
+     *
+     * @param id the id of the chef
+     * @param password the new stored password
+     */
+    public void updatePassword(int id, String password) throws SQLException {
+        chefDAO.updatePassword(id, password);
     }
 }
 
@@ -1,11 +1,16 @@
 package com.revature.service;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.revature.dao.IngredientDAO;
 import com.revature.model.Chef;
 import com.revature.model.Ingredient;
+import com.revature.util.BulkResult;
+import com.revature.util.JsonItemReader;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 
@@ -20,6 +25,9 @@ import com.revature.util.PageOptions;
 
 public class IngredientService {
 
+    /** The longest ingredient name the INGREDIENT table holds. */
+    private static final int MAX_NAME_LENGTH = 20;
+
     /** The data access object used for performing operations on Ingredient entities. */
     @SuppressWarnings("unused")
     private IngredientDAO ingredientDAO;
@@ -58,8 +66,18 @@ public class IngredientService {
      * @return a Page object containing the list of Ingredients matching the criteria
      */
     public Page<Ingredient> searchIngredients(String term, int page, int pageSize, String sortBy, String sortDirection) {
-        PageOptions pageOptions = new PageOptions(page, pageSize, sortBy, sortDirection);
+        return searchIngredients(term, new PageOptions(page, pageSize, sortBy, sortDirection));
+    }
 
+    /**
+     * Searches for Ingredients with the given paging options. Options carrying an "after" cursor are paged
+     * by keyset instead of by offset.
+     *
+     * @param term the search term for filtering Ingredients by name
+     * @param pageOptions the page, sort and cursor options
+     * @return a Page object containing the list of Ingredients matching the criteria
+     */
+    public Page<Ingredient> searchIngredients(String term, PageOptions pageOptions) {
         if (term == null || term.isBlank()) {
             return ingredientDAO.getAllIngredients(pageOptions);
         }
@@ -80,6 +98,78 @@ public class IngredientService {
         return ingredientDAO.searchIngredients(term);
     }
 
+    /**
+     * Suggests ingredients for a type-ahead field. Suggestions are answered from the in-memory name index,
+     * without querying the database.
+     *
+     * @param prefix the start of the ingredient name being typed
+     * @param limit the largest number of suggestions to return
+     * @return up to limit ingredients whose names start with the prefix, ignoring case, in name order
+     */
+    public List<Ingredient> suggestIngredients(String prefix, int limit) {
+        return ingredientDAO.getPrefixIndex().suggest(prefix, limit);
+    }
+
+    /**
+     * Imports ingredients as they are read, writing them in chunks of chunkSize, each chunk as one JDBC batch in
+     * its own transaction. A name that already exists, or repeats an earlier name of the import, is reported as
+     * a conflict; a missing, blank or too long name is reported as invalid. Neither stops the import.
+     *
+     * Items that are not valid JSON do stop it: the items read before them are still written, and the error is
+     * set on the result.
+     *
+     * @param items the ingredients to import
+     * @param chunkSize the number of ingredients written per transaction
+     * @return the outcome of every item, in the order read
+     * @throws IOException if the items cannot be read
+     */
+    public BulkResult importIngredients(JsonItemReader<Ingredient> items, int chunkSize) throws IOException {
+        BulkResult result = new BulkResult();
+        List<String> chunk = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        try {
+            while (items.hasNext()) {
+                int index = items.getCount();
+                Ingredient ingredient = items.next();
+                String name = ingredient == null ? null : ingredient.getName();
+                if (name == null || name.isBlank()) {
+                    result.add(BulkResult.Item.invalid(index, name, "Ingredient name is required"));
+                } else if (name.length() > MAX_NAME_LENGTH) {
+                    result.add(BulkResult.Item.invalid(index, name,
+                            "Ingredient name is longer than " + MAX_NAME_LENGTH + " characters"));
+                } else {
+                    chunk.add(name);
+                    indexes.add(index);
+                    if (chunk.size() >= chunkSize) {
+                        writeChunk(chunk, indexes, result);
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            result.setError(e.getMessage());
+        }
+        writeChunk(chunk, indexes, result);
+        result.getItems().sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return result;
+    }
+
+    private void writeChunk(List<String> chunk, List<Integer> indexes, BulkResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> created = ingredientDAO.createIngredients(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            String name = chunk.get(i);
+            // remove, so a name repeated within the chunk is created once and then reported as a conflict
+            Integer id = created.remove(name);
+            result.add(id != null ? BulkResult.Item.created(indexes.get(i), name, id)
+                    : BulkResult.Item.conflict(indexes.get(i), name, "An ingredient named " + name + " already exists"));
+        }
+        result.chunkCommitted();
+        chunk.clear();
+        indexes.clear();
+    }
+
     /**
      * TODO: Deletes an Ingredient by its unique identifier, if it exists.
      *
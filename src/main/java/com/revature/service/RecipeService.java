@@ -1,12 +1,19 @@
 package com.revature.service;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.revature.dao.RecipeDAO;
 import com.revature.model.Chef;
+import com.revature.model.Ingredient;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.BulkResult;
+import com.revature.util.JsonItemReader;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 
@@ -19,6 +26,15 @@ import com.revature.util.PageOptions;
  */
 public class RecipeService {
 
+    /** The longest recipe name the RECIPE table holds. */
+    private static final int MAX_NAME_LENGTH = 255;
+    /** The longest instructions the RECIPE table holds. */
+    private static final int MAX_INSTRUCTIONS_LENGTH = 4000;
+    /** The longest unit the RECIPE_INGREDIENT table holds. */
+    private static final int MAX_UNIT_LENGTH = 20;
+    /** The largest volume a DECIMAL(10, 2) holds. */
+    private static final double MAX_VOLUME = 99_999_999.99;
+
     /** The data access object used for performing operations on Recipe entities. */
     private RecipeDAO recipeDAO;
 
@@ -42,27 +58,34 @@ public class RecipeService {
      */
     public Optional<Recipe> findRecipe(int id) throws SQLException{
         Recipe recipe = recipeDAO.getRecipeById(id);
-        System.out.println(recipe + "------");
         return Optional.ofNullable(recipe);
     }
 
     /**
      * TODO: Saves a Recipe object to the data store. If the id is 0, create a new Recipe and set the `recipe` id field to the updated id.
      * 
-     * Otherwise, updates the recipe's instructions and chef id.
+     * Otherwise, updates the recipe's instructions and chef id, creating the recipe if no recipe has its id.
+     * The update reports whether the recipe existed, so saving never looks the recipe up first.
      *
      * @param recipe the Recipe object to be saved
      */
     public void saveRecipe(Recipe recipe) throws SQLException{
-        if(recipe.getId() == 0 || recipeDAO.getRecipeById(recipe.getId()) == null)
-        {
+        if (recipe.getId() == 0 || recipeDAO.updateRecipe(recipe) == 0) {
             int newRecipeid = recipeDAO.createRecipe(recipe);
             recipe.setId(newRecipeid);
-        } else {
-            recipeDAO.updateRecipe(recipe);
         }
     }
 
+    /**
+     * Updates an existing recipe's instructions and chef id in a single statement.
+     *
+     * @param recipe the Recipe object to be updated, carrying the id of the recipe to update
+     * @return true if the recipe existed and was updated, false if no recipe has its id
+     */
+    public boolean updateRecipe(Recipe recipe) {
+        return recipeDAO.updateRecipe(recipe) > 0;
+    }
+
     /**
      * TODO: Searches for recipes with pagination and sorting options.
      *
@@ -74,17 +97,53 @@ public class RecipeService {
      * @return a Page containing the results of the search
      */
     public Page<Recipe> searchRecipes(String term, int page, int pageSize, String sortBy, String sortDirection) {
-        PageOptions pageOptions = new PageOptions(page, pageSize, sortBy, sortDirection);
+        return searchRecipes(term, new PageOptions(page, pageSize, sortBy, sortDirection));
+    }
+
+    /**
+     * Searches for recipes with the given paging options. Options carrying an "after" cursor are paged by
+     * keyset, so the next page costs the same no matter how deep it is.
+     *
+     * Search terms without a sortBy or sortDirection are looked up in the recipe search index and the results
+     * are ranked by relevance; only the recipes on the requested page are read from the database. A term search
+     * with an explicit sort, or paged by keyset, searches with SQL that matches the same words as the index,
+     * ordered by the sort options.
+     *
+     * @param term        the search term used to find recipes
+     * @param pageOptions the page, sort and cursor options
+     * @return a Page containing the results of the search
+     * @throws IllegalArgumentException if the sort key or direction is not allowed
+     */
+    public Page<Recipe> searchRecipes(String term, PageOptions pageOptions) {
         if (term == null || term.isEmpty()) {
             return recipeDAO.getAllRecipes(pageOptions);
-        } else {
+        }
+        if (pageOptions.getAfter() != null || pageOptions.getSortBy() != null
+                || pageOptions.getSortDirection() != null) {
             return recipeDAO.searchRecipesByTerm(term, pageOptions);
         }
+        List<Integer> ids = recipeDAO.getSearchIndex().search(term);
+        int pageNumber = Math.max(1, pageOptions.getPageNumber());
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        int from = Math.min(ids.size(), (pageNumber - 1) * pageSize);
+        int to = Math.min(ids.size(), from + pageSize);
+        List<Recipe> items = to > from ? recipeDAO.getRecipesByIds(ids.subList(from, to)) : new ArrayList<>();
+        Page<Recipe> page;
+        if (pageOptions.isWithTotals()) {
+            page = new Page<>(pageNumber, pageSize, (int) Math.ceil((double) ids.size() / pageSize), ids.size(),
+                    items);
+        } else {
+            page = new Page<>(pageNumber, pageSize, -1, -1, items);
+            page.setHasNext(to < ids.size());
+        }
+        return page;
     }
 
     /**
      * TODO: Searches for recipes based on a search term.
      *
+     * The term is looked up in the recipe search index, and the results are ranked by relevance.
+     *
      * @param term the search term used to find recipes
      * @return a list of Recipe objects that match the search term
      */
@@ -92,24 +151,137 @@ public class RecipeService {
         if (term == null || term.isEmpty()) {
             return recipeDAO.getAllRecipes();
         }
-        return recipeDAO.searchRecipesByTerm(term);
+        return recipeDAO.getRecipesByIds(recipeDAO.getSearchIndex().search(term));
+    }
+
+    /**
+     * Loads the ingredients of the given recipes in a single batched query.
+     *
+     * @param recipes the recipes whose ingredient lists should be filled in
+     */
+    public void loadIngredients(List<Recipe> recipes) {
+        recipeDAO.loadIngredients(recipes);
+    }
+
+    /**
+     * Imports recipes together with their ingredients as they are read, writing them in chunks of chunkSize,
+     * each chunk as two JDBC batches, recipes then ingredients, in its own transaction. Every recipe is
+     * authored by the given chef. Ingredients are named, and the names are resolved to ids from memory, so
+     * the ingredients must exist before the import.
+     *
+     * A recipe whose name already exists, or repeats an earlier name of the import, is reported as a
+     * conflict; a recipe with a missing or too long field, or an unknown ingredient, is reported as invalid.
+     * Neither stops the import. Items that are not valid JSON do: the recipes read before them are still
+     * written, and the error is set on the result.
+     *
+     * @param items the recipes to import
+     * @param author the chef the recipes are created for
+     * @param chunkSize the number of recipes written per transaction
+     * @return the outcome of every item, in the order read
+     * @throws IOException if the items cannot be read
+     */
+    public BulkResult importRecipes(JsonItemReader<Recipe> items, Chef author, int chunkSize) throws IOException {
+        BulkResult result = new BulkResult();
+        List<Recipe> chunk = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        try {
+            while (items.hasNext()) {
+                int index = items.getCount();
+                Recipe recipe = items.next();
+                String problem = resolve(recipe);
+                if (problem != null) {
+                    result.add(BulkResult.Item.invalid(index, recipe == null ? null : recipe.getName(), problem));
+                    continue;
+                }
+                recipe.setAuthor(author);
+                chunk.add(recipe);
+                indexes.add(index);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, indexes, result);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            result.setError(e.getMessage());
+        }
+        writeChunk(chunk, indexes, result);
+        result.getItems().sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return result;
+    }
+
+    /**
+     * Checks that a recipe fits the RECIPE and RECIPE_INGREDIENT columns and sets the id of each of its
+     * ingredients from the ingredient's name.
+     *
+     * @return why the recipe cannot be imported, or null if it can
+     */
+    private String resolve(Recipe recipe) {
+        if (recipe == null || recipe.getName() == null || recipe.getName().isBlank()) {
+            return "Recipe name is required";
+        }
+        if (recipe.getName().length() > MAX_NAME_LENGTH) {
+            return "Recipe name is longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        if (recipe.getInstructions() == null || recipe.getInstructions().isBlank()) {
+            return "Recipe instructions are required";
+        }
+        if (recipe.getInstructions().length() > MAX_INSTRUCTIONS_LENGTH) {
+            return "Recipe instructions are longer than " + MAX_INSTRUCTIONS_LENGTH + " characters";
+        }
+        if (recipe.getIngredients() == null) {
+            return null;
+        }
+        for (RecipeIngredient recipeIngredient : recipe.getIngredients()) {
+            if (recipeIngredient == null) {
+                return "Recipe ingredients cannot be null";
+            }
+            Ingredient ingredient = recipeDAO.findIngredient(recipeIngredient.getName());
+            if (ingredient == null) {
+                return "Unknown ingredient " + recipeIngredient.getName();
+            }
+            if (recipeIngredient.getUnit() == null || recipeIngredient.getUnit().isBlank()
+                    || recipeIngredient.getUnit().length() > MAX_UNIT_LENGTH) {
+                return "Unit of " + ingredient.getName() + " must be 1 to " + MAX_UNIT_LENGTH + " characters";
+            }
+            if (!(recipeIngredient.getVolume() >= 0 && recipeIngredient.getVolume() <= MAX_VOLUME)) {
+                return "Volume of " + ingredient.getName() + " must be between 0 and 99999999.99";
+            }
+            recipeIngredient.setId(ingredient.getId());
+            recipeIngredient.setName(ingredient.getName());
+        }
+        return null;
+    }
+
+    private void writeChunk(List<Recipe> chunk, List<Integer> indexes, BulkResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> created = recipeDAO.createRecipes(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            String name = chunk.get(i).getName();
+            // remove, so a name repeated within the chunk is created once and then reported as a conflict
+            Integer id = created.remove(name);
+            result.add(id != null ? BulkResult.Item.created(indexes.get(i), name, id)
+                    : BulkResult.Item.conflict(indexes.get(i), name, "A recipe named " + name + " already exists"));
+        }
+        result.chunkCommitted();
+        chunk.clear();
+        indexes.clear();
     }
 
     /**
      * TODO: Deletes a Recipe by its unique identifier.
      *
+     * The recipe is deleted in a single statement, without looking it up first.
+     *
      * @param id the unique identifier of the recipe to be deleted
+     * @return true if the recipe existed and was deleted, false otherwise
      */
-    public void deleteRecipe(int id) throws SQLException{
+    public boolean deleteRecipe(int id) throws SQLException{
         try{
-            Recipe recipe = recipeDAO.getRecipeById(id);
-            System.out.println(recipe + "----");
-            if (recipe != null) {
-                recipeDAO.deleteRecipe(recipe);
-            }
+            return recipeDAO.deleteRecipeById(id) > 0;
         }catch(Exception e){
             e.printStackTrace();
         }
-        
+        return false;
     }
 }
@@ -1,13 +1,15 @@
 package com.revature.util;
-import java.util.stream.Collectors;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
 
 import com.revature.dao.ChefDAO;
-import com.revature.model.Chef;
 import com.revature.service.AuthenticationService;
 import com.revature.service.ChefService;
 
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
 import io.javalin.http.UnauthorizedResponse;
 /**
  * The AdminMiddleware class is responsible for enforcing access control 
@@ -22,27 +24,26 @@ import io.javalin.http.UnauthorizedResponse;
 public class AdminMiddleware implements Handler {
 
     /**
-     * An array of protected HTTP methods that require admin access.
+     * The protected HTTP methods that require admin access.
      */
 
-    private String[] protectedMethods;
+    private final Set<HandlerType> protectedMethods;
 
     /**
      * The AuthenticationService instance used for handling authentication-related operations and validation.
      */
-    @SuppressWarnings("unused")
     private AuthenticationService authService;
     
 
     /**
-     * Constructs an AdminMiddleware instance with the specified AuthenticationService and an array of protected methods.
+     * Constructs an AdminMiddleware instance with an array of protected methods. Method names are matched
+     * ignoring case; names that are not HTTP methods, and a null array, protect nothing.
      *
-     * @param AuthenticationService - the AuthenticationService instance for handling authentication operations
      * @param protectedMethods - the array of protected HTTP methods
      */
 
     public AdminMiddleware(String... protectedMethods) {
-        this.protectedMethods = protectedMethods;
+        this.protectedMethods = toHandlerTypes(protectedMethods);
         this.authService = new AuthenticationService(new ChefService(new ChefDAO(new ConnectionUtil())));
     }
 
@@ -53,46 +54,36 @@ public class AdminMiddleware implements Handler {
      */
     @Override
     public void handle(Context ctx) {
-        if (isProtectedMethod(ctx.method().name())) {
-            // Get the token of the current logged in user
-            String token = AuthenticationService.loggedInUsers.keySet().stream().collect(Collectors.joining());
+        if (protectedMethods.contains(ctx.method())) {
+            // Get the token of the user making the request
+            String token = AuthenticationService.tokenFromHeader(ctx.header("Authorization"));
 
-            // Check the corresponding chef and check if they are admin
-            boolean isAdmin = isAdmin(authService.getChefFromSessionToken(token));
-            
-            // If they are not admin, throw an exception
-            if (!isAdmin) {
+            // If their session is not an admin's, throw an exception
+            if (!authService.isAdminSession(token)) {
                 throw new UnauthorizedResponse("Access denied");
             } 
         }
     }
 
     /**
-     * Checks if the specified HTTP method is among the protected methods.
+     * Converts the names of the protected methods to a set of HTTP methods.
      *
-     * @param method the HTTP method to check.
-     * @return true if the method is protected; false otherwise.
+     * @param methods the method names; may be null
+     * @return the HTTP methods named, skipping names that are not HTTP methods
      */
-    private boolean isProtectedMethod(String method) {
-        for (String protectedMethod : protectedMethods) {
-            if (protectedMethod.toString().equalsIgnoreCase(method)) {
-                return true;
-            }
+    private static Set<HandlerType> toHandlerTypes(String[] methods) {
+        Set<HandlerType> handlerTypes = EnumSet.noneOf(HandlerType.class);
+        if (methods == null) {
+            return handlerTypes;
         }
-        return false;
-    }
-
-    /**
-     * Determines if the chef with the specified ID has admin privileges.
-     *
-     * @param chefId the unique identifier of the chef.
-     * @return true if the chef is an admin; false otherwise.
-     */
-    private boolean isAdmin(Chef chef) {
-        if (chef != null) {
-            return chef.isAdmin();
+        for (String method : methods) {
+            for (HandlerType handlerType : HandlerType.values()) {
+                if (method != null && handlerType.name().equals(method.trim().toUpperCase(Locale.ROOT))) {
+                    handlerTypes.add(handlerType);
+                }
+            }
         }
-        return false;
+        return handlerTypes;
     }
 }
 
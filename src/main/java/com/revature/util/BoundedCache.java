@@ -0,0 +1,161 @@
+package com.revature.util;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The BoundedCache class is a read-through cache in front of a DAO lookup. It holds at most maxSize entries,
+ * evicting the least recently used one when full, and treats entries older than the TTL as misses.
+ *
+ * A DAO invalidates the keys it writes. As in the {@link CountCache}, every invalidation bumps a version, and
+ * a value loaded while an invalidation was in flight is returned to its caller but never stored, so a slow
+ * read cannot put a stale row back into the cache after the write that replaced it. {@link #clearAll()}
+ * empties every cache at once, for when the database has been reset.
+ *
+ * Values are shared between callers, so only immutable values or defensive copies should be cached.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class BoundedCache<K, V> {
+
+    /** Bumped by {@link #clearAll()}; entries stored under an older generation are misses. */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private final int maxSize;
+    private final long ttlNanos;
+    /** Entries in access order, least recently used first. Guarded by this cache's monitor. */
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Bumped by every invalidation of this cache. */
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    /**
+     * Loads a value on a cache miss.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        /**
+         * @return the value for the key, or null if there is none; null values are not cached
+         */
+        V load(K key) throws SQLException;
+    }
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param maxSize the largest number of entries kept
+     * @param ttlMillis how long an entry stays valid after it was loaded, in milliseconds
+     */
+    public BoundedCache(int maxSize, long ttlMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /** Empties every cache, for when the whole database has been reset. */
+    public static void clearAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Returns the cached value for a key, loading and caching it on a miss.
+     *
+     * @param key the key to look up
+     * @param loader reads the value from the database on a miss
+     * @return the value, or null if the loader found none
+     * @throws SQLException if the loader fails
+     */
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        long generation = GENERATION.get();
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.generation == generation && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        long readVersion = version.get();
+        long start = System.nanoTime();
+        V value = loader.load(key);
+        long loaded = System.nanoTime();
+        loads.increment();
+        loadNanos.add(loaded - start);
+        if (value != null) {
+            synchronized (this) {
+                // invalidations take this monitor too, so none can land between this check and the put
+                if (version.get() == readVersion) {
+                    if (!entries.containsKey(key) && entries.size() >= maxSize) {
+                        Map.Entry<K, Entry<V>> eldest = entries.entrySet().iterator().next();
+                        entries.remove(eldest.getKey());
+                        evictions.increment();
+                    }
+                    entries.put(key, new Entry<>(value, generation, loaded + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops the cached value of a key. DAOs call this after writing the row behind it.
+     *
+     * @param key the key whose row was written
+     */
+    public synchronized void invalidate(K key) {
+        version.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /** Drops every cached value. */
+    public synchronized void clear() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * @return the cache's size, hit ratio, evictions and average load time
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long loadCount = loads.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.sum());
+        stats.put("loads", loadCount);
+        stats.put("averageLoadMillis", loadCount == 0 ? 0.0 : loadNanos.sum() / 1_000_000.0 / loadCount);
+        return stats;
+    }
+
+    /** A cached value, the generation it was stored under and when it stops being valid. */
+    private static final class Entry<V> {
+        private final V value;
+        private final long generation;
+        private final long expiresAt;
+
+        private Entry(V value, long generation, long expiresAt) {
+            this.value = value;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
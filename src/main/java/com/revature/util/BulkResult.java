@@ -0,0 +1,165 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The BulkResult class is the response to a bulk import: an outcome for every item of the request, in request
+ * order, and how many items had each outcome.
+ *
+ * An item is either created, with its generated id; a conflict, when a row with the same unique name already
+ * exists or appeared earlier in the request; or invalid, with a message saying why. Items are written in
+ * chunks, each in its own transaction, so when an import stops early with an error the items of the chunks
+ * committed before it are still reported, and kept.
+ */
+public class BulkResult {
+
+    /** The number of items written per transaction when a request does not ask for a chunk size. */
+    public static final int DEFAULT_CHUNK_SIZE = Integer.getInteger("db.bulk.chunkSize", 1_000);
+    /** The largest number of items a request can ask to write per transaction. */
+    public static final int MAX_CHUNK_SIZE = 10_000;
+
+    /** The item was inserted. */
+    public static final String CREATED = "created";
+    /** The item's name is already taken; nothing was inserted. */
+    public static final String CONFLICT = "conflict";
+    /** The item was rejected before it reached the database. */
+    public static final String INVALID = "invalid";
+
+    private int created;
+    private int conflicts;
+    private int invalid;
+    private int chunks;
+    private final List<Item> items = new ArrayList<>();
+    /** Why the import stopped early; null if every item was read. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    /**
+     * Records the outcome of the next item.
+     *
+     * @param item the outcome
+     */
+    public void add(Item item) {
+        items.add(item);
+        switch (item.getStatus()) {
+            case CREATED:
+                created++;
+                break;
+            case CONFLICT:
+                conflicts++;
+                break;
+            default:
+                invalid++;
+                break;
+        }
+    }
+
+    /**
+     * Records that a chunk of items was committed.
+     */
+    public void chunkCommitted() {
+        chunks++;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getConflicts() {
+        return conflicts;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * @return the number of transactions committed
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * The outcome of one item of a bulk import.
+     */
+    public static final class Item {
+        private final int index;
+        private final String name;
+        private final String status;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private final Integer id;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private final String message;
+
+        private Item(int index, String name, String status, Integer id, String message) {
+            this.index = index;
+            this.name = name;
+            this.status = status;
+            this.id = id;
+            this.message = message;
+        }
+
+        /**
+         * @return an item that was inserted with the given id
+         */
+        public static Item created(int index, String name, int id) {
+            return new Item(index, name, CREATED, id, null);
+        }
+
+        /**
+         * @return an item whose name is already taken
+         */
+        public static Item conflict(int index, String name, String message) {
+            return new Item(index, name, CONFLICT, null, message);
+        }
+
+        /**
+         * @return an item rejected for the given reason
+         */
+        public static Item invalid(int index, String name, String message) {
+            return new Item(index, name, INVALID, null, message);
+        }
+
+        /**
+         * @return the position of the item in the request, counting from 0
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the generated id of a created item, otherwise null
+         */
+        public Integer getId() {
+            return id;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,726 @@
+package com.revature.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+/**
+ * The ConnectionPool class keeps a bounded set of physical connections open and lends them out to callers.
+ * Connections handed out are proxies: closing one returns the underlying connection to the pool instead of
+ * closing it, so DAO code keeps using try-with-resources exactly as it would with a plain DataSource.
+ *
+ * Callers that find the pool exhausted wait up to the configured acquire timeout. A background housekeeper
+ * closes connections that have been idle too long, tops the pool back up to its minimum size and reports
+ * connections that have been borrowed for longer than the leak detection threshold.
+ *
+ * With {@link PoolConfig#isTrackResources()} enabled, statements and result sets are tracked per lease as
+ * well. Any still open when the connection comes back are closed and counted as resource leaks, which lets
+ * tests fail a DAO method that forgets to close what it opened.
+ *
+ * Each physical connection also keeps a {@link StatementCache}. prepareStatement calls for SQL the connection
+ * has prepared before get the cached statement back instead of having the database parse and plan it again;
+ * closing the statement returns it to the cache.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** The source of new physical connections. */
+    private final DataSource dataSource;
+    /** The sizing and housekeeping options for this pool. */
+    private final PoolConfig config;
+
+    /** Guards the idle deque and the total, waiting and closed fields. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled whenever a connection is returned or a slot is freed. */
+    private final Condition available = lock.newCondition();
+    /** Idle connections, most recently returned first. */
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    /** Connections currently lent out. */
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    /** The number of physical connections open or being opened. */
+    private int total;
+    /** The number of callers blocked waiting for a connection. */
+    private int waiting;
+    /** Whether the pool has been shut down. */
+    private boolean closed;
+
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder resourceLeaks = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    /** Runs idle eviction, minimum-size top up and leak detection. */
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * Constructs a ConnectionPool and schedules its housekeeping. The pool fills up to its minimum size in
+     * the background, so construction never blocks on the database.
+     *
+     * @param dataSource the source of physical connections
+     * @param config the sizing and housekeeping options
+     */
+    public ConnectionPool(DataSource dataSource, PoolConfig config) {
+        if (config.getMaxSize() < 1 || config.getMinIdle() < 0 || config.getMinIdle() > config.getMaxSize()) {
+            throw new IllegalArgumentException("Invalid pool size: minIdle=" + config.getMinIdle()
+                    + ", maxSize=" + config.getMaxSize());
+        }
+        this.dataSource = dataSource;
+        this.config = config;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, config.getHousekeepingIntervalMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, opening a new one if the pool is below its maximum size or waiting for one to
+     * be returned otherwise.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLTransientConnectionException if no connection became available within the acquire timeout
+     * @throws SQLException if a new connection could not be opened or the pool is closed
+     */
+    public Connection acquire() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getAcquireTimeoutMillis());
+        while (true) {
+            PooledConnection entry = takeIdleOrReserveSlot(deadline);
+            if (entry == null) {
+                entry = open();
+            } else if (config.isValidateOnBorrow() && !isValid(entry)) {
+                discard(entry);
+                continue;
+            }
+            acquireLatency.record(System.nanoTime() - start);
+            return lend(entry);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool's occupancy and counters.
+     *
+     * @return the current pool statistics
+     */
+    public PoolStats getStats() {
+        int idleCount;
+        int waitingCount;
+        lock.lock();
+        try {
+            idleCount = idle.size();
+            waitingCount = waiting;
+        } finally {
+            lock.unlock();
+        }
+        return new PoolStats(borrowed.size(), idleCount, waitingCount, config.getMaxSize(), created.sum(),
+                destroyed.sum(), timeouts.sum(), leaks.sum(), resourceLeaks.sum(),
+                statementCacheHits.sum(), statementCacheMisses.sum(), acquireLatency);
+    }
+
+    /**
+     * Shuts the pool down. Idle connections are closed immediately; borrowed connections are closed as
+     * soon as they are returned. Callers waiting for a connection are woken up and fail.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        toClose.forEach(this::discard);
+    }
+
+    // below are helper methods used by acquire, release and the housekeeper
+
+    /**
+     * Takes the most recently used idle connection, or reserves a slot for a new connection if none is idle
+     * and the pool is below its maximum size, waiting until the deadline otherwise.
+     *
+     * @param deadline the System.nanoTime value after which to give up
+     * @return an idle connection, or null if the caller should open a new connection in the reserved slot
+     * @throws SQLException if the deadline passes, the thread is interrupted or the pool is closed
+     */
+    private PooledConnection takeIdleOrReserveSlot(long deadline) throws SQLException {
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new SQLException("Connection pool has been closed");
+                }
+                PooledConnection entry = idle.pollFirst();
+                if (entry != null) {
+                    return entry;
+                }
+                if (total < config.getMaxSize()) {
+                    total++;
+                    return null;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts.increment();
+                    throw new SQLTransientConnectionException("Timed out after " + config.getAcquireTimeoutMillis()
+                            + " ms waiting for a database connection (active=" + borrowed.size()
+                            + ", max=" + config.getMaxSize() + ")");
+                }
+                waiting++;
+                try {
+                    available.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a database connection", e);
+                } finally {
+                    waiting--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a new physical connection in a slot already reserved by the caller, freeing the slot if the
+     * connection cannot be opened.
+     *
+     * @return the new pooled connection
+     * @throws SQLException if the data source fails to open a connection
+     */
+    private PooledConnection open() throws SQLException {
+        try {
+            Connection physical = dataSource.getConnection();
+            created.increment();
+            return new PooledConnection(physical,
+                    config.getStatementCacheSize() > 0 ? new StatementCache(config.getStatementCacheSize()) : null);
+        } catch (SQLException | RuntimeException e) {
+            freeSlot();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks that an idle connection is still usable before lending it out.
+     *
+     * @param entry the connection to check
+     * @return true if the connection is open and responds within the validation timeout
+     */
+    private boolean isValid(PooledConnection entry) {
+        try {
+            return entry.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marks a connection as borrowed and wraps it in a proxy whose close method returns it to the pool.
+     *
+     * @param entry the connection to lend
+     * @return the proxy handed to the caller
+     */
+    private Connection lend(PooledConnection entry) {
+        entry.borrowedAt = System.nanoTime();
+        entry.borrowSite = config.getLeakDetectionThresholdMillis() > 0
+                ? new Throwable("Connection borrowed by " + Thread.currentThread().getName())
+                : null;
+        entry.leakReported = false;
+        borrowed.add(entry);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new Lease(entry));
+    }
+
+    /**
+     * Takes a returned connection back, resetting any transaction state the borrower left behind. Broken
+     * connections and connections returned after the pool was closed are discarded instead.
+     *
+     * @param entry the connection being returned
+     */
+    private void release(PooledConnection entry) {
+        borrowed.remove(entry);
+        if (entry.broken || !reset(entry)) {
+            discard(entry);
+            return;
+        }
+        entry.lastReturnedAt = System.nanoTime();
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.addFirst(entry);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(entry);
+    }
+
+    /**
+     * Rolls back any open transaction and restores auto-commit so the next borrower starts clean.
+     *
+     * @param entry the connection to reset
+     * @return true if the connection could be reset
+     */
+    private boolean reset(PooledConnection entry) {
+        try {
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            return !entry.physical.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes a physical connection and frees its slot.
+     *
+     * @param entry the connection to close
+     */
+    private void discard(PooledConnection entry) {
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            // the connection is being thrown away; there is nothing left to do with it
+        }
+        destroyed.increment();
+        freeSlot();
+    }
+
+    /** Gives a slot back and wakes one waiter so it can open a replacement connection. */
+    private void freeSlot() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Evicts connections idle past the idle timeout, tops the pool up to minIdle and reports leaks. */
+    private void housekeep() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            // the least recently used connections sit at the tail of the deque
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && total - evicted.size() > config.getMinIdle()) {
+                PooledConnection entry = oldestFirst.next();
+                if (entry.lastReturnedAt - cutoff > 0) {
+                    break;
+                }
+                oldestFirst.remove();
+                evicted.add(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::discard);
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= config.getMinIdle()) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            PooledConnection entry;
+            try {
+                entry = open();
+            } catch (SQLException e) {
+                // the database is unavailable; the next housekeeping run will try again
+                return;
+            }
+            entry.lastReturnedAt = System.nanoTime();
+            lock.lock();
+            try {
+                if (!closed) {
+                    idle.addLast(entry);
+                    available.signal();
+                    continue;
+                }
+            } finally {
+                lock.unlock();
+            }
+            discard(entry);
+            return;
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = config.getLeakDetectionThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PooledConnection entry : borrowed) {
+            long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - entry.borrowedAt);
+            if (heldMillis >= threshold && !entry.leakReported) {
+                entry.leakReported = true;
+                leaks.increment();
+                System.err.println("Possible connection leak: connection held for " + heldMillis + " ms");
+                if (entry.borrowSite != null) {
+                    entry.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * A physical connection together with the bookkeeping the pool needs about it.
+     */
+    private static final class PooledConnection {
+        private final Connection physical;
+        /** Idle prepared statements of this connection, or null if statement caching is disabled. */
+        private final StatementCache statements;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+        private volatile boolean broken;
+
+        private PooledConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+    }
+
+    /**
+     * The invocation handler behind each connection proxy handed out by the pool. A lease is valid from the
+     * moment the connection is borrowed until the borrower closes it; afterwards every call fails, so a
+     * stale reference can never touch a connection that has been lent to someone else.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection entry;
+        private volatile boolean returned;
+        /** Statements and result sets opened through this lease and not yet closed, when tracking is on. */
+        private final Set<TrackedResource> openResources = ConcurrentHashMap.newKeySet();
+
+        private Lease(PooledConnection entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        closeLeakedResources();
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + (returned ? ", returned]" : "]");
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                if (entry.statements != null && isCacheablePrepare(method)) {
+                    return track(method, args, prepareCached(args));
+                }
+                return track(method, args, method.invoke(entry.physical, args));
+            } catch (InvocationTargetException e) {
+                throw failed(e.getCause());
+            } catch (SQLException e) {
+                throw failed(e);
+            }
+        }
+
+        /**
+         * Marks the connection broken if the failure means the connection itself is unusable.
+         *
+         * @return the failure, to be rethrown
+         */
+        private Throwable failed(Throwable cause) {
+            if (cause instanceof SQLException sqlException && isConnectionFailure(sqlException)) {
+                entry.broken = true;
+            }
+            return cause;
+        }
+
+        /**
+         * Only the plain prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) forms are cached;
+         * the others are rare enough that they are always prepared afresh.
+         */
+        private boolean isCacheablePrepare(Method method) {
+            if (!method.getName().equals("prepareStatement")) {
+                return false;
+            }
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+
+        /**
+         * Hands out the connection's cached statement for the SQL if there is one, preparing it otherwise.
+         */
+        private PreparedStatement prepareCached(Object[] args) throws SQLException {
+            String sql = (String) args[0];
+            String key = args.length == 1 ? sql : sql + "\u0000" + args[1];
+            PreparedStatement statement = entry.statements.take(key);
+            if (statement != null) {
+                statementCacheHits.increment();
+            } else {
+                statementCacheMisses.increment();
+                statement = args.length == 1 ? entry.physical.prepareStatement(sql)
+                        : entry.physical.prepareStatement(sql, (Integer) args[1]);
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, new CachedStatement(this, key, statement));
+        }
+
+        /**
+         * Wraps a statement or result set returned by the physical connection so it can be tracked, when
+         * resource tracking is enabled. Other results are returned unchanged.
+         */
+        private Object track(Method method, Object[] args, Object result) {
+            if (!config.isTrackResources() || result == null) {
+                return result;
+            }
+            Class<?> type = method.getReturnType();
+            if (!Statement.class.isAssignableFrom(type) && !ResultSet.class.isAssignableFrom(type)) {
+                return result;
+            }
+            TrackedResource resource = new TrackedResource(this, null, result, method.getName() + sqlOf(args));
+            openResources.add(resource);
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, resource);
+        }
+
+        /** Closes anything the borrower left open and counts each one as a resource leak. */
+        private void closeLeakedResources() {
+            for (TrackedResource resource : openResources) {
+                resourceLeaks.increment();
+                System.err.println("Resource leak: " + resource.description + " was still open when its "
+                        + "connection was returned to the pool");
+                resource.closeQuietly();
+            }
+            openResources.clear();
+        }
+
+        /**
+         * SQLSTATE class 08 means the connection itself failed, so it must not go back into the pool.
+         */
+        private boolean isConnectionFailure(SQLException e) {
+            return e.getSQLState() != null && e.getSQLState().startsWith("08");
+        }
+    }
+
+    /**
+     * The invocation handler behind a tracked statement or result set. Closing the resource removes it from
+     * its lease; closing a statement also releases the result sets it produced, as JDBC specifies.
+     */
+    private static final class TrackedResource implements InvocationHandler {
+        private final Lease lease;
+        private final TrackedResource parent;
+        private final Object target;
+        private final String description;
+
+        private TrackedResource(Lease lease, TrackedResource parent, Object target, String description) {
+            this.lease = lease;
+            this.parent = parent;
+            this.target = target;
+            this.description = description;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    forget();
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet && ResultSet.class.isAssignableFrom(method.getReturnType())
+                    && target instanceof Statement) {
+                TrackedResource child = new TrackedResource(lease, this, result, "ResultSet of " + description);
+                lease.openResources.add(child);
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                        new Class<?>[] { ResultSet.class }, child);
+            }
+            return result;
+        }
+
+        /** Stops tracking this resource and, for a statement, the result sets it produced. */
+        private void forget() {
+            lease.openResources.remove(this);
+            lease.openResources.removeIf(resource -> resource.parent == this);
+        }
+
+        private void closeQuietly() {
+            try {
+                ((AutoCloseable) target).close();
+            } catch (Exception e) {
+                // the connection is being returned regardless
+            }
+        }
+    }
+
+    /**
+     * @return the SQL text passed to a prepareStatement or prepareCall style method, for leak reports
+     */
+    private static String sqlOf(Object[] args) {
+        return args != null && args.length > 0 && args[0] instanceof String sql ? "(\"" + sql + "\")" : "()";
+    }
+
+    /**
+     * The invocation handler behind a statement handed out from a connection's statement cache. Closing it
+     * closes the result sets it produced, clears its parameters and puts the statement back in the cache
+     * instead of closing it. Like the connection proxy, a handle fails once closed or once its connection
+     * has gone back to the pool.
+     */
+    private final class CachedStatement implements InvocationHandler {
+        private final Lease lease;
+        private final String key;
+        private final PreparedStatement target;
+        private final List<ResultSet> resultSets = new ArrayList<>(1);
+        private boolean batched;
+        private boolean closed;
+
+        private CachedStatement(Lease lease, String key, PreparedStatement target) {
+            this.lease = lease;
+            this.key = key;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || target.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "addBatch":
+                    batched = true;
+                    break;
+                default:
+                    break;
+            }
+            if (closed || lease.returned) {
+                throw new SQLException("Statement is closed");
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw lease.failed(e.getCause());
+            }
+            if (result instanceof ResultSet resultSet) {
+                pruneClosedResultSets();
+                resultSets.add(resultSet);
+            }
+            return result;
+        }
+
+        /** Forgets result sets the borrower already closed, so a long-lived handle does not pile them up. */
+        private void pruneClosedResultSets() throws SQLException {
+            Iterator<ResultSet> iterator = resultSets.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isClosed()) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        /** Resets the statement and returns it to the cache, or closes it if it cannot be reset. */
+        private void recycle() {
+            try {
+                for (ResultSet resultSet : resultSets) {
+                    resultSet.close();
+                }
+                resultSets.clear();
+                if (batched) {
+                    target.clearBatch();
+                }
+                target.clearParameters();
+                lease.entry.statements.put(key, target);
+            } catch (SQLException e) {
+                try {
+                    target.close();
+                } catch (SQLException ignored) {
+                    // the statement is being thrown away; there is nothing left to do with it
+                }
+            }
+        }
+    }
+}
@@ -5,9 +5,9 @@ import java.sql.SQLException;
 import org.h2.jdbcx.JdbcDataSource;
 
 /**
-This class provides autility methods and configuration for managing database connections for an H2 database. It uses a JdbcDataSource connection pool to manage connections efficiently.
+This class provides autility methods and configuration for managing database connections for an H2 database. Connections are lent out by a bounded ConnectionPool sitting in front of a JdbcDataSource, so DAO calls reuse open connections instead of paying for a new physical connection each time.
 
-You do not need to edit this class.
+The pool is sized from {@code db.pool.*} system properties when the class loads and can be replaced at startup with {@link #configure(PoolConfig)}.
 
  */
 public class ConnectionUtil {
@@ -16,27 +16,48 @@ public class ConnectionUtil {
 	private static String url = "jdbc:h2:./h2/db;";
 	private static String username = "sa";
 	private static String password = "";
-	private static JdbcDataSource pool = new JdbcDataSource();
+	private static JdbcDataSource dataSource = new JdbcDataSource();
+	private static volatile ConnectionPool pool;
 
 	/**
-	 * static initialization block to establish credentials for DataSoure Pool
+	 * static initialization block to establish credentials for the DataSource and start the pool
 	 */
 	static {
-		pool.setURL(url);
-		pool.setUser(username);
-		pool.setPassword(password);
+		dataSource.setURL(url);
+		dataSource.setUser(username);
+		dataSource.setPassword(password);
+		pool = new ConnectionPool(dataSource, PoolConfig.fromSystemProperties());
+		MetricsRegistry.register("connectionPool", ConnectionUtil::getPoolStats);
 	}
 
 	/**
-	 * @return an active connection to the database
+	 * Replaces the connection pool with one built from the given configuration. Connections borrowed from
+	 * the previous pool stay usable and are closed when they are returned.
+	 *
+	 * @param config the sizing and housekeeping options for the new pool
+	 */
+	public static synchronized void configure(PoolConfig config) {
+		ConnectionPool previous = pool;
+		pool = new ConnectionPool(dataSource, config);
+		previous.close();
+	}
+
+	/**
+	 * @return a snapshot of the connection pool's occupancy, counters and acquire latency
+	 */
+	public static PoolStats getPoolStats() {
+		return pool.getStats();
+	}
+
+	/**
+	 * @return an active connection to the database; closing it returns it to the pool
+	 * @throws RuntimeException if no connection could be obtained within the pool's acquire timeout
 	 */
 	public Connection getConnection(){
 		try {
-			return pool.getConnection();
+			return pool.acquire();
 		} catch (SQLException e) {
-			e.printStackTrace();
+			throw new RuntimeException("Unable to obtain a database connection", e);
 		}
-
-		return null;
 	}
 }
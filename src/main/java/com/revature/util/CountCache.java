@@ -0,0 +1,121 @@
+package com.revature.util;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The CountCache class remembers the row counts behind Page.totalElements, keyed by table and filter, so
+ * paging through a result set runs its COUNT(*) once instead of once per page. DAOs invalidate a table's
+ * counts whenever they write to it; entries also expire after a TTL as a safety net for writes made outside
+ * the DAOs. DBUtil clears the cache when it resets the database.
+ *
+ * Each table has a version that every invalidation bumps. A count computed while a write was in flight is
+ * therefore never stored, because the version it was read under is stale by the time it is put.
+ */
+public final class CountCache {
+
+    /** How long a count stays valid without an invalidating write, in milliseconds. */
+    private static final long TTL_MILLIS = Long.getLong("db.countCache.ttlMillis", 30_000);
+    /** The number of cached counts beyond which the cache is emptied rather than grown further. */
+    private static final int MAX_ENTRIES = Integer.getInteger("db.countCache.maxEntries", 1_000);
+
+    private static final Map<String, Entry> counts = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    static {
+        MetricsRegistry.register("countCache", CountCache::getStats);
+    }
+
+    /**
+     * Counts rows, the way a COUNT(*) query would.
+     */
+    @FunctionalInterface
+    public interface Counter {
+        int count() throws SQLException;
+    }
+
+    private CountCache() {
+    }
+
+    /**
+     * Returns the cached count for a table and filter, running the counter on a miss.
+     *
+     * @param table the table being counted, as passed to {@link #invalidate(String...)}
+     * @param filter a key describing the filter, including its parameter values; null for the whole table
+     * @param counter runs the COUNT(*) query
+     * @return the row count
+     * @throws SQLException if the counter fails
+     */
+    public static int get(String table, String filter, Counter counter) throws SQLException {
+        String key = table + '\u0000' + (filter == null ? "" : filter);
+        Entry entry = counts.get(key);
+        long now = System.nanoTime();
+        if (entry != null && entry.expiresAt - now > 0) {
+            hits.increment();
+            return entry.count;
+        }
+        misses.increment();
+        AtomicLong version = versions.computeIfAbsent(table, t -> new AtomicLong());
+        long readVersion = version.get();
+        int count = counter.count();
+        if (version.get() == readVersion) {
+            if (counts.size() >= MAX_ENTRIES) {
+                counts.clear();
+            }
+            counts.put(key, new Entry(count, now + TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS)));
+            if (version.get() != readVersion) {
+                // a write landed while the entry was being stored
+                counts.remove(key);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Drops every cached count of the given tables. DAOs call this after each write.
+     *
+     * @param tables the tables that were written to, including tables changed by cascading deletes
+     */
+    public static void invalidate(String... tables) {
+        for (String table : tables) {
+            versions.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+            String prefix = table + '\u0000';
+            counts.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    /** Drops every cached count, for when the whole database has been reset. */
+    public static void clear() {
+        versions.values().forEach(AtomicLong::incrementAndGet);
+        counts.clear();
+    }
+
+    /**
+     * @return the cache's size and hit and miss counters
+     */
+    public static Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", counts.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        return stats;
+    }
+
+    /** A cached count and when it stops being valid. */
+    private static final class Entry {
+        private final int count;
+        private final long expiresAt;
+
+        private Entry(int count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,44 +1,30 @@
 package com.revature.util;
 
-import java.io.InputStream;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.Scanner;
 
 /**
 The DBUtil class is a utility designed to handle database setup and reset operations by reading SQL commands from a file and executing them. This can be useful in scenarios where you need to reinitialize the database with a specific schema and data set.
 
-You do not need to edit this class.
+The application itself no longer resets the database on startup: it runs the {@link MigrationRunner}, which only applies scripts the database has not seen. RUN_SQL is kept for tests, which need every run to start from the same data.
 
  */
 public class DBUtil {
 	
-	/** A mutable text object that will contain the contents of a file once initialized. */
-	private static StringBuilder sqlScript = new StringBuilder();
-	private static InputStream inputStream =  DBUtil.class.getResourceAsStream("/sqlScript.sql");
-	
-
-	/**
-	 * static initialization block to initialize the `sqlScript` field with the content within the `sqlScript.sql` file. Any lines starting with comment syntax are ignored.
-	 */
-	static {
-			Scanner sc = new Scanner(inputStream);
-			while (sc.hasNextLine()) {
-				String nextLine = sc.nextLine();
-				if (!nextLine.startsWith("--")) {
-					sqlScript.append(nextLine + " ");
-				}
-			}
-			sc.close();
-	}
-
 	/**
-	 * This method resets and re-initializes the database by first dropping all existing objects (tables, views, procedures, etc.) and then executing the SQL script with the `sqlScript.sql` file.
+	 * This method resets and re-initializes the database by first dropping all existing objects (tables, views, procedures, etc.) and then executing every migration, starting with the `sqlScript.sql` file.
 	 */
 	public static void RUN_SQL() {
 		try(Connection conn = new ConnectionUtil().getConnection()) {
-			conn.prepareStatement("DROP ALL OBJECTS").executeUpdate();
-			conn.prepareStatement(sqlScript.toString()).executeUpdate();
+			try (PreparedStatement drop = conn.prepareStatement("DROP ALL OBJECTS")) {
+				drop.executeUpdate();
+			}
+			new MigrationRunner().migrate(conn);
+			CountCache.clear();
+			RecipeSearchIndex.invalidateAll();
+			IngredientPrefixIndex.invalidateAll();
+			BoundedCache.clearAll();
 			} catch (SQLException e) {
 			e.printStackTrace();
 		}
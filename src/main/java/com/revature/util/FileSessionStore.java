@@ -0,0 +1,403 @@
+package com.revature.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.revature.model.Chef;
+
+/**
+ * The FileSessionStore class keeps sessions across restarts, so clients do not all have to log in again after
+ * a deploy. Sessions are served from an {@link InMemorySessionStore}; this class only records each login and
+ * logout in an append-only log and replays the log when the application starts.
+ *
+ * The log is a memory-mapped file: an 8 byte header followed by records of the form length, CRC-32, type,
+ * payload. Appending a record is a copy into the mapping, and startup replays the whole file in one sequential
+ * scan. The first record that is cut short or fails its checksum, as after a crash mid-write, ends the log and
+ * is overwritten by the next append. Once the log holds more than twice as many records as there are live
+ * sessions it is compacted: the live sessions are written to a new file that atomically replaces the old one.
+ * A mapping that is replaced, when the log grows or is compacted, is unmapped right away rather than whenever
+ * the garbage collector gets to it, so the file is not held open and can be replaced on every platform.
+ *
+ * Only what a session needs is written: the token, when the session started, and the chef's id, username,
+ * email and admin flag. Passwords never reach the file, so restored and new sessions alike hold chefs
+ * without them. A restored session keeps its original start time, so it still ends at the end of its lifetime.
+ */
+public class FileSessionStore implements SessionStore {
+
+    private static final int MAGIC = 0x5345534E;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 8;
+    /** Length, CRC-32 and type. */
+    private static final int RECORD_HEADER_SIZE = 9;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private static final long INITIAL_SIZE = 1 << 20;
+    /** Logs shorter than this are never compacted, as rewriting them would save next to nothing. */
+    private static final int MIN_RECORDS_TO_COMPACT = 1024;
+    /** Unmaps a mapped buffer, or null if the JDK does not allow it. */
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // mappings are then released by the garbage collector
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private final Path path;
+    private final InMemorySessionStore memory;
+
+    // Guarded by this object's monitor.
+    private FileChannel channel;
+    private MappedByteBuffer log;
+    /** The payload of the put record of every session in the log, by token, in log order. */
+    private final Map<String, byte[]> logged = new LinkedHashMap<>();
+    /** The number of records in the log, live or not. */
+    private int records;
+    private long compactions;
+
+    private final int loadedSessions;
+    private final long loadMillis;
+
+    /**
+     * Opens the session file, creating it if it does not exist, restores the sessions it holds that have not
+     * yet outlived their lifetime, and compacts it if it has grown too long.
+     *
+     * @param path the session file
+     * @param memory the store that serves the sessions; limits and expiry are its own
+     * @return the store
+     * @throws IOException if the file cannot be read or written, or is not a session file
+     */
+    public static FileSessionStore open(Path path, InMemorySessionStore memory) throws IOException {
+        FileSessionStore store = new FileSessionStore(path, memory);
+        synchronized (store) {
+            store.maybeCompact();
+        }
+        return store;
+    }
+
+    private FileSessionStore(Path path, InMemorySessionStore memory) throws IOException {
+        this.path = path;
+        this.memory = memory;
+        long start = System.nanoTime();
+        int restored = 0;
+        synchronized (this) {
+            open();
+            for (Map.Entry<String, byte[]> session : logged.entrySet()) {
+                if (restore(session.getKey(), session.getValue())) {
+                    restored++;
+                }
+            }
+        }
+        this.loadedSessions = restored;
+        this.loadMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Override
+    public void put(String token, Chef chef) {
+        Chef stored = new Chef(chef.getId(), chef.getUsername(), chef.getEmail(), null, chef.isAdmin());
+        byte[] payload = encode(token, System.currentTimeMillis(), stored);
+        synchronized (this) {
+            append(PUT, payload);
+            logged.put(token, payload);
+            memory.put(token, stored);
+            maybeCompact();
+        }
+    }
+
+    @Override
+    public Chef get(String token) {
+        return memory.get(token);
+    }
+
+    @Override
+    public boolean isAdmin(String token) {
+        return memory.isAdmin(token);
+    }
+
+    @Override
+    public boolean remove(String token) {
+        if (token == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (logged.remove(token) != null) {
+                append(REMOVE, encode(token));
+                maybeCompact();
+            }
+            return memory.remove(token);
+        }
+    }
+
+    @Override
+    public int sweep() {
+        return memory.sweep();
+    }
+
+    @Override
+    public int size() {
+        return memory.size();
+    }
+
+    /**
+     * @return the in-memory store's statistics, plus the size of the log, how often it was compacted and how
+     *         many sessions were restored at startup
+     */
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(memory.getStats());
+        synchronized (this) {
+            stats.put("logRecords", records);
+            stats.put("logBytes", log.position());
+            stats.put("compactions", compactions);
+        }
+        stats.put("loadedSessions", loadedSessions);
+        stats.put("loadMillis", loadMillis);
+        return stats;
+    }
+
+    /** Writes the log to disk and closes it, and stops sweeping the sessions. */
+    @Override
+    public synchronized void close() {
+        memory.close();
+        try {
+            log.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not close the session file " + path, e);
+        }
+    }
+
+    /**
+     * Compacts the log right away, whatever its size.
+     */
+    public synchronized void compact() {
+        try {
+            rewrite();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not compact the session file " + path, e);
+        }
+    }
+
+    /**
+     * Maps the file and replays its records into {@link #logged}, leaving the mapping positioned after the last
+     * intact record.
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size >= HEADER_SIZE) {
+            // check the header before mapping, as mapping past the end of a file extends it
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT) {
+                channel.close();
+                throw new IOException(path + " is not a session file");
+            }
+        }
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, INITIAL_SIZE));
+        if (size < HEADER_SIZE) {
+            log.putInt(MAGIC).putInt(FORMAT);
+            return;
+        }
+        log.position(HEADER_SIZE);
+        records = 0;
+        CRC32 crc = new CRC32();
+        while (log.remaining() >= RECORD_HEADER_SIZE) {
+            int start = log.position();
+            int length = log.getInt();
+            int checksum = log.getInt();
+            if (length <= 0 || length > log.remaining()) {
+                log.position(start);
+                break;
+            }
+            byte[] record = new byte[length];
+            log.get(record);
+            crc.reset();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) {
+                log.position(start);
+                break;
+            }
+            records++;
+            String token = readToken(record);
+            if (record[0] == PUT) {
+                logged.put(token, Arrays.copyOfRange(record, 1, record.length));
+            } else {
+                logged.remove(token);
+            }
+        }
+    }
+
+    private void append(byte type, byte[] payload) {
+        int length = 1 + payload.length;
+        ensureCapacity(RECORD_HEADER_SIZE - 1 + length + 4);
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        log.putInt(length).putInt((int) crc.getValue()).put(type).put(payload);
+        // end the log explicitly, in case an earlier, torn record left bytes behind
+        if (log.remaining() >= 4) {
+            log.putInt(log.position(), 0);
+        }
+        records++;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (log.remaining() >= needed) {
+            return;
+        }
+        int position = log.position();
+        long size = Math.max((long) log.capacity() * 2, (long) position + needed);
+        MappedByteBuffer grown;
+        try {
+            grown = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not grow the session file " + path, e);
+        }
+        unmap(log);
+        log = grown;
+        log.position(position);
+    }
+
+    private void maybeCompact() {
+        if (records >= MIN_RECORDS_TO_COMPACT && records > 2 * memory.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes the live sessions to a new file and swaps it in for the log. Sessions that have expired or been
+     * evicted from memory are dropped.
+     */
+    private void rewrite() throws IOException {
+        Iterator<String> tokens = logged.keySet().iterator();
+        while (tokens.hasNext()) {
+            if (!memory.contains(tokens.next())) {
+                tokens.remove();
+            }
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT);
+            header.flip();
+            out.write(header);
+            CRC32 crc = new CRC32();
+            for (byte[] payload : logged.values()) {
+                ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+                crc.reset();
+                crc.update(PUT);
+                crc.update(payload);
+                record.putInt(1 + payload.length).putInt((int) crc.getValue()).put(PUT).put(payload);
+                record.flip();
+                out.write(record);
+            }
+            out.force(true);
+        }
+        log.force();
+        // a file that is still mapped cannot be replaced on Windows
+        unmap(log);
+        log = null;
+        channel.close();
+        try {
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            compactions++;
+        } finally {
+            // the old log is reopened if it could not be replaced
+            logged.clear();
+            open();
+        }
+    }
+
+    /**
+     * Releases a mapping. The buffer must not be used afterwards: reading or writing it would fault.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            // left to the garbage collector
+        }
+    }
+
+    private boolean restore(String token, byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            in.readUTF();
+            long createdAt = in.readLong();
+            Chef chef = new Chef(in.readInt(), in.readUTF(), in.readUTF(), null, in.readBoolean());
+            return memory.restore(token, chef, createdAt);
+        } catch (IOException e) {
+            throw new RuntimeException("Corrupt session record in " + path, e);
+        }
+    }
+
+    /**
+     * @return the token at the start of a record's payload, after its type
+     */
+    private String readToken(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record, 1, record.length - 1))) {
+            return in.readUTF();
+        } catch (IOException e) {
+            throw new RuntimeException("Corrupt session record in " + path, e);
+        }
+    }
+
+    private static byte[] encode(String token, long createdAt, Chef chef) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(token);
+            out.writeLong(createdAt);
+            out.writeInt(chef.getId());
+            out.writeUTF(chef.getUsername() == null ? "" : chef.getUsername());
+            out.writeUTF(chef.getEmail() == null ? "" : chef.getEmail());
+            out.writeBoolean(chef.isAdmin());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encode(String token) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(token);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,282 @@
+package com.revature.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.revature.model.Chef;
+
+/**
+ * The InMemorySessionStore class holds the logged in chefs in memory, indexed by session token, and is safe to
+ * use from every Javalin worker thread at once. Its sessions are lost when the application stops; the
+ * {@link FileSessionStore} keeps them across restarts.
+ *
+ * Tokens are spread over a fixed number of stripes by hash, and each stripe is a small access-ordered map
+ * with its own lock, so a lookup costs one hash and one short critical section that other stripes never wait
+ * on. A session ends when it has been idle for longer than the idle timeout or is older than the maximum
+ * lifetime. Expired sessions are removed when they are looked up and by a background sweeper.
+ *
+ * The store never holds more than maxSessions sessions: each stripe holds its share of the cap and, when full,
+ * evicts its least recently used session to make room for a new one. Small stores use a single stripe, so
+ * their eviction order is exactly least recently used.
+ */
+public class InMemorySessionStore implements SessionStore {
+
+    /** The daemon thread that sweeps every store's expired sessions. */
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "session-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long idleTimeoutNanos;
+    private final long maxLifetimeNanos;
+    private final int maxSessions;
+    private final Stripe[] stripes;
+    private final long sweepIntervalMillis;
+    /** The scheduled sweeps of this store; null until it is started. Guarded by this object's monitor. */
+    private ScheduledFuture<?> sweep;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * Constructs an empty store. Expired sessions are only swept in the background once {@link #start()} is
+     * called.
+     *
+     * @param idleTimeoutMillis how long a session may go unused before it ends, in milliseconds
+     * @param maxLifetimeMillis how long a session may last however often it is used, in milliseconds
+     * @param maxSessions the largest number of sessions held at once
+     * @param sweepIntervalMillis how often expired sessions are swept, in milliseconds
+     */
+    public InMemorySessionStore(long idleTimeoutMillis, long maxLifetimeMillis, int maxSessions, long sweepIntervalMillis) {
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(maxLifetimeMillis);
+        this.maxSessions = Math.max(1, maxSessions);
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(16, this.maxSessions / 64)));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(this.maxSessions / stripeCount);
+        }
+        this.sweepIntervalMillis = sweepIntervalMillis;
+    }
+
+    /**
+     * Schedules the background sweeper of this store. Calling it again has no effect.
+     *
+     * @return this store
+     */
+    public synchronized InMemorySessionStore start() {
+        if (sweep == null) {
+            sweep = SWEEPER.scheduleWithFixedDelay(this::sweep, sweepIntervalMillis, sweepIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Starts a session, evicting the least recently used session of the token's stripe if it is full.
+     */
+    @Override
+    public void put(String token, Chef chef) {
+        long now = System.nanoTime();
+        insert(token, new Session(chef, now, now));
+        created.increment();
+    }
+
+    /**
+     * Brings back a session that was started earlier, for stores that keep sessions across restarts. The
+     * session keeps its original start time, so it still ends at the end of its lifetime, but its idle time
+     * starts again from now.
+     *
+     * @param token the session token
+     * @param chef the logged in chef
+     * @param createdAtMillis when the session started, in milliseconds since the epoch
+     * @return false if the session had already outlived its lifetime and was not restored
+     */
+    public boolean restore(String token, Chef chef, long createdAtMillis) {
+        long age = TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - createdAtMillis));
+        if (age > maxLifetimeNanos) {
+            return false;
+        }
+        long now = System.nanoTime();
+        insert(token, new Session(chef, now - age, now));
+        return true;
+    }
+
+    /**
+     * Checks whether a session is live without marking it as used.
+     *
+     * @param token the session token
+     * @return true if the session exists and has not expired
+     */
+    public boolean contains(String token) {
+        if (token == null) {
+            return false;
+        }
+        Stripe stripe = stripeOf(token);
+        long now = System.nanoTime();
+        synchronized (stripe) {
+            Session session = stripe.sessions.get(token);
+            return session != null && !isExpired(session, now);
+        }
+    }
+
+    @Override
+    public Chef get(String token) {
+        Session session = touch(token);
+        return session == null ? null : session.chef;
+    }
+
+    @Override
+    public boolean isAdmin(String token) {
+        Session session = touch(token);
+        return session != null && session.admin;
+    }
+
+    @Override
+    public boolean remove(String token) {
+        if (token == null) {
+            return false;
+        }
+        Stripe stripe = stripeOf(token);
+        synchronized (stripe) {
+            return stripe.sessions.remove(token) != null;
+        }
+    }
+
+    /**
+     * Removes every expired session. Called periodically by the sweeper.
+     */
+    @Override
+    public int sweep() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Session> sessions = stripe.sessions.values().iterator();
+                while (sessions.hasNext()) {
+                    if (isExpired(sessions.next(), now)) {
+                        sessions.remove();
+                        removed++;
+                    }
+                }
+            }
+        }
+        expired.add(removed);
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.sessions.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the store's size and cap, and how many sessions were created, expired and evicted
+     */
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maxSessions", maxSessions);
+        stats.put("created", created.sum());
+        stats.put("expired", expired.sum());
+        stats.put("evicted", evicted.sum());
+        return stats;
+    }
+
+    /** Stops sweeping this store. Sessions can still be used until the store is discarded. */
+    @Override
+    public synchronized void close() {
+        if (sweep != null) {
+            sweep.cancel(false);
+        }
+    }
+
+    /**
+     * Adds a session, evicting the least recently used session of the token's stripe if it is full.
+     */
+    private void insert(String token, Session session) {
+        Stripe stripe = stripeOf(token);
+        synchronized (stripe) {
+            if (!stripe.sessions.containsKey(token) && stripe.sessions.size() >= stripe.capacity) {
+                Iterator<Session> eldest = stripe.sessions.values().iterator();
+                eldest.next();
+                eldest.remove();
+                evicted.increment();
+            }
+            stripe.sessions.put(token, session);
+        }
+    }
+
+    /**
+     * @return the live session of a token, marked as used, or null if there is none or it has expired
+     */
+    private Session touch(String token) {
+        if (token == null) {
+            return null;
+        }
+        Stripe stripe = stripeOf(token);
+        long now = System.nanoTime();
+        synchronized (stripe) {
+            Session session = stripe.sessions.get(token);
+            if (session == null) {
+                return null;
+            }
+            if (isExpired(session, now)) {
+                stripe.sessions.remove(token);
+                expired.increment();
+                return null;
+            }
+            session.lastAccess = now;
+            return session;
+        }
+    }
+
+    private boolean isExpired(Session session, long now) {
+        return now - session.lastAccess > idleTimeoutNanos || now - session.createdAt > maxLifetimeNanos;
+    }
+
+    private Stripe stripeOf(String token) {
+        int hash = token.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /** A share of the sessions, in access order, least recently used first. Guarded by its own monitor. */
+    private static final class Stripe {
+        private final int capacity;
+        private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Stripe(int capacity) {
+            this.capacity = Math.max(1, capacity);
+        }
+    }
+
+    /** A logged in chef, whether they are an admin, and when the session started and was last used. */
+    private static final class Session {
+        private final Chef chef;
+        private final boolean admin;
+        private final long createdAt;
+        private long lastAccess;
+
+        private Session(Chef chef, long createdAt, long lastAccess) {
+            this.chef = chef;
+            this.admin = chef != null && chef.isAdmin();
+            this.createdAt = createdAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.revature.model.Ingredient;
+
+/**
+ * The IngredientPrefixIndex class answers type-ahead lookups of ingredient names from memory. Ingredients are
+ * kept in an array sorted by lower-case name, so the names starting with a prefix form one contiguous run
+ * that a binary search finds without touching the database.
+ *
+ * Lookups never lock: every write builds a new array and publishes it through a volatile field. Ingredient
+ * writes are rare next to keystrokes and the table is small, so copying on write is cheaper overall than
+ * making every lookup synchronize.
+ *
+ * IngredientDAO keeps its index up to date on every write and rebuilds it from the database when it is first
+ * used or after {@link #invalidateAll()}, which DBUtil calls when it resets the database, the same way
+ * RecipeDAO maintains its {@link RecipeSearchIndex}.
+ */
+public class IngredientPrefixIndex {
+
+    private static final Comparator<Entry> ORDER = Comparator.<Entry, String>comparing(entry -> entry.key)
+            .thenComparingInt(entry -> entry.ingredient.getId());
+
+    /** Bumped by {@link #invalidateAll()}; an index built under an older generation is stale. */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    /** Every indexed ingredient, sorted by lower-case name and then id. Replaced, never modified. */
+    private volatile Entry[] entries = new Entry[0];
+
+    /** The generation this index was built under, or -1 if it has never been built or must be rebuilt. */
+    private volatile long builtGeneration = -1;
+    /** Counts writes, so a rebuild can tell whether one happened while it was loading. */
+    private final AtomicLong modifications = new AtomicLong();
+    private volatile long lastBuildMillis;
+
+    /** Marks every index as stale, for when the ingredient table has been changed outside IngredientDAO. */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * @return whether the index was built under the current generation and has not missed any write since
+     */
+    public boolean isCurrent() {
+        return builtGeneration == GENERATION.get();
+    }
+
+    /**
+     * Replaces the whole index with the ingredients returned by the loader. Lookups keep being served from
+     * the old array while the database is read.
+     *
+     * @param loader reads every ingredient from the database
+     */
+    public void rebuild(Supplier<List<Ingredient>> loader) {
+        long generation = GENERATION.get();
+        long writes = modifications.get();
+        long start = System.nanoTime();
+        List<Ingredient> ingredients = loader.get();
+        Entry[] built = new Entry[ingredients.size()];
+        for (int i = 0; i < built.length; i++) {
+            built[i] = new Entry(ingredients.get(i));
+        }
+        Arrays.sort(built, ORDER);
+        synchronized (this) {
+            entries = built;
+            builtGeneration = modifications.get() == writes ? generation : -1;
+            lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    /**
+     * Adds an ingredient to the index, replacing whatever was indexed for its id before.
+     *
+     * @param ingredient the created or renamed ingredient
+     */
+    public synchronized void put(Ingredient ingredient) {
+        modifications.incrementAndGet();
+        List<Entry> updated = withoutId(ingredient.getId());
+        Entry entry = new Entry(new Ingredient(ingredient.getId(), ingredient.getName()));
+        int position = Collections.binarySearch(updated, entry, ORDER);
+        updated.add(position < 0 ? -position - 1 : position, entry);
+        entries = updated.toArray(new Entry[0]);
+    }
+
+    /**
+     * Adds many ingredients to the index at once, replacing whatever was indexed for their ids before. The
+     * index is copied once for the whole collection rather than once per ingredient, so a bulk import stays
+     * linear in the size of the index.
+     *
+     * @param ingredients the created or renamed ingredients
+     */
+    public synchronized void putAll(Collection<Ingredient> ingredients) {
+        if (ingredients.isEmpty()) {
+            return;
+        }
+        modifications.incrementAndGet();
+        Set<Integer> ids = new HashSet<>();
+        for (Ingredient ingredient : ingredients) {
+            ids.add(ingredient.getId());
+        }
+        List<Entry> updated = new ArrayList<>(entries.length + ingredients.size());
+        for (Entry entry : entries) {
+            if (!ids.contains(entry.ingredient.getId())) {
+                updated.add(entry);
+            }
+        }
+        for (Ingredient ingredient : ingredients) {
+            updated.add(new Entry(new Ingredient(ingredient.getId(), ingredient.getName())));
+        }
+        updated.sort(ORDER);
+        entries = updated.toArray(new Entry[0]);
+    }
+
+    /**
+     * Removes an ingredient from the index.
+     *
+     * @param id the id of the deleted ingredient
+     */
+    public synchronized void remove(int id) {
+        modifications.incrementAndGet();
+        entries = withoutId(id).toArray(new Entry[0]);
+    }
+
+    /**
+     * Finds the ingredients whose names start with a prefix, ignoring case.
+     *
+     * @param prefix the start of the name being typed
+     * @param limit the largest number of ingredients to return
+     * @return up to limit matching ingredients in name order; empty for a blank prefix
+     */
+    public List<Ingredient> suggest(String prefix, int limit) {
+        List<Ingredient> suggestions = new ArrayList<>();
+        if (prefix == null || prefix.isBlank()) {
+            return suggestions;
+        }
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        Entry[] snapshot = entries;
+        for (int i = lowerBound(snapshot, key); i < snapshot.length && suggestions.size() < limit; i++) {
+            if (!snapshot[i].key.startsWith(key)) {
+                break;
+            }
+            Ingredient ingredient = snapshot[i].ingredient;
+            suggestions.add(new Ingredient(ingredient.getId(), ingredient.getName()));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Finds an ingredient by its whole name, ignoring case and surrounding spaces. When names differ only in
+     * case, the one matching exactly is preferred.
+     *
+     * @param name the name of the ingredient
+     * @return the ingredient, or null if no ingredient has the name
+     */
+    public Ingredient find(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim();
+        String key = trimmed.toLowerCase(Locale.ROOT);
+        Entry[] snapshot = entries;
+        Ingredient match = null;
+        for (int i = lowerBound(snapshot, key); i < snapshot.length && snapshot[i].key.equals(key); i++) {
+            if (match == null || trimmed.equals(snapshot[i].ingredient.getName())) {
+                match = snapshot[i].ingredient;
+            }
+        }
+        return match == null ? null : new Ingredient(match.getId(), match.getName());
+    }
+
+    /**
+     * @return the number of indexed ingredients and how long the last build took
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ingredients", entries.length);
+        stats.put("current", isCurrent());
+        stats.put("lastBuildMillis", lastBuildMillis);
+        return stats;
+    }
+
+    /**
+     * @return the index of the first entry whose key is not less than the given key
+     */
+    private static int lowerBound(Entry[] snapshot, String key) {
+        int low = 0;
+        int high = snapshot.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshot[middle].key.compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return a copy of the current entries without the entry of the given ingredient, still sorted
+     */
+    private List<Entry> withoutId(int id) {
+        List<Entry> copy = new ArrayList<>(entries.length + 1);
+        for (Entry entry : entries) {
+            if (entry.ingredient.getId() != id) {
+                copy.add(entry);
+            }
+        }
+        return copy;
+    }
+
+    /** An ingredient with its lower-case name. */
+    private static final class Entry {
+        private final String key;
+        private final Ingredient ingredient;
+
+        private Entry(Ingredient ingredient) {
+            this.key = ingredient.getName() == null ? "" : ingredient.getName().toLowerCase(Locale.ROOT);
+            this.ingredient = ingredient;
+        }
+    }
+}
@@ -1,4 +1,13 @@
 package com.revature.util;
+import java.util.Locale;
+
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
 import com.revature.controller.RecipeController;
 
 import io.javalin.Javalin;
@@ -15,10 +24,26 @@ import com.revature.controller.IngredientController;
  * to create and configure the Javalin app instance, including defining 
  * the routes for each controller and applying any necessary middleware, 
  * such as admin middleware.
+ * 
+ * Requests are handled on Jetty's platform thread pool by default, or on
+ * virtual threads when the server.threads system property is set to virtual.
+ * The server accepts up to server.acceptQueueSize (1024) connections ahead of
+ * the ones it is serving.
  */
 
 public class JavalinAppUtil {
 
+    /**
+     * The number of connections the operating system queues until the server accepts them. Left unset, the JDK
+     * allows 50, and clients connecting beyond that have their connections dropped and retried seconds later.
+     */
+    private static final int ACCEPT_QUEUE_SIZE = Integer.getInteger("server.acceptQueueSize", 1024);
+
+    /**
+     * The port the app listens on when it is started without one.
+     */
+    private static final int DEFAULT_PORT = 8080;
+
     /**
      * The RecipeController for handling recipe-related routes.
      */
@@ -51,14 +76,44 @@ public class JavalinAppUtil {
         this.ingredientController = ingredientController;
     }
 
+    /**
+     * The threads requests are handled on.
+     */
+    public enum ThreadMode {
+        /** A pool of up to 250 platform threads, sized like Jetty's default pool. */
+        PLATFORM,
+        /** A new virtual thread per task, limited only by the connection pool. */
+        VIRTUAL;
+
+        /**
+         * @return the mode named by the server.threads system property, PLATFORM if it is not set
+         */
+        public static ThreadMode fromSystemProperties() {
+            return valueOf(System.getProperty("server.threads", "platform").trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
     /**
      * Creates a Javalin instance, configures the routes for all controllers, 
      * and applies any necessary middleware, including admin middleware.
      *
-     * @return the configured Javalin instance
+     * @return the configured Javalin instance, in the thread mode named by the server.threads system property
      */
 	
     public Javalin getApp() {
+        return getApp(ThreadMode.fromSystemProperties());
+    }
+
+    /**
+     * Creates a Javalin instance like {@link #getApp()}, handling requests in the given thread mode.
+     *
+     * @param threadMode the threads requests are handled on
+     * @return the configured Javalin instance
+     */
+    public Javalin getApp(ThreadMode threadMode) {
+        VirtualThreadPool virtualThreads = threadMode == ThreadMode.VIRTUAL ? new VirtualThreadPool("javalin") : null;
+        // Javalin picks virtual threads on its own when the JDK has them, so the platform pool is set explicitly
+        ThreadPool threads = virtualThreads != null ? virtualThreads : new QueuedThreadPool(250, 8, 60_000);
         Javalin app = Javalin.create(config -> {
             config.plugins.enableCors(cors -> {
                 cors.add(it -> {
@@ -67,19 +122,55 @@ public class JavalinAppUtil {
 
             });
 
-            
+            config.jetty.server(() -> newServer(threads));
         });
 
+        if (virtualThreads != null) {
+            MetricsRegistry.register("virtualThreads", virtualThreads::getStats);
+            app.events(event -> event.serverStopped(virtualThreads::shutdown));
+        }
+
         // Configure routes for each controller
         recipeController.configureRoutes(app);
         authenticationController.configureRoutes(app);
         ingredientController.configureRoutes(app);
 
+        // Live metrics for the connection pool and other registered components
+        app.get("/metrics", ctx -> ctx.json(MetricsRegistry.snapshot()));
+
         app.before("/recipes/*", new AdminMiddleware("DELETE"));
         app.before("/ingredients/*", new AdminMiddleware("UPDATE", "CREATE", "DELETE"));
+        app.before("/ingredients/bulk", new AdminMiddleware("POST"));
 
         return app;
     }
 
+    /**
+     * Creates a Jetty server on the given threads whose connectors queue up to {@link #ACCEPT_QUEUE_SIZE}
+     * connections. Javalin adds its connector just before the server starts, so the queue is sized then. Javalin
+     * only falls back to port 8080 for a server of its own, so that is done here for apps started without a port.
+     *
+     * @param threads the threads requests are handled on
+     * @return the server
+     */
+    private static Server newServer(ThreadPool threads) {
+        Server server = new Server(threads);
+        server.addEventListener(new LifeCycle.Listener() {
+            @Override
+            public void lifeCycleStarting(LifeCycle event) {
+                for (Connector connector : server.getConnectors()) {
+                    if (connector instanceof ServerConnector) {
+                        ServerConnector serverConnector = (ServerConnector) connector;
+                        serverConnector.setAcceptQueueSize(ACCEPT_QUEUE_SIZE);
+                        if (serverConnector.getPort() < 0) {
+                            serverConnector.setPort(DEFAULT_PORT);
+                        }
+                    }
+                }
+            }
+        });
+        return server;
+    }
+
 
 }
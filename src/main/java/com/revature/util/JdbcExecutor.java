@@ -0,0 +1,158 @@
+package com.revature.util;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The JdbcExecutor class runs blocking database work on a dedicated, bounded pool, so request handlers can
+ * release their thread while queries run and can run independent queries at the same time.
+ *
+ * The pool has as many threads as the connection pool has connections by default, since a thread beyond that
+ * would only wait for a connection. Its queue is bounded: when it is full, new work is rejected at once with a
+ * {@link RejectedExecutionException}, which the controllers turn into a 503, rather than piling up while the
+ * database is slow.
+ *
+ * Work supplied from a virtual thread, as every request is when the server runs on virtual threads, is run
+ * on that thread instead. A blocked virtual thread only parks, so there is no thread to release, and handing
+ * the work to the pool would cap the requests in flight at the pool's threads plus its queue. Inline work is
+ * limited only by the connection pool, which requests beyond its size wait on.
+ */
+public class JdbcExecutor implements Executor {
+
+    /** The executor shared by every controller. */
+    private static final JdbcExecutor SHARED = new JdbcExecutor(
+            Integer.getInteger("db.executor.threads", PoolConfig.fromSystemProperties().getMaxSize()),
+            Integer.getInteger("db.executor.queueSize", 256));
+
+    static {
+        MetricsRegistry.register("jdbcExecutor", SHARED::getStats);
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder inline = new LongAdder();
+
+    /**
+     * Database work that may throw an SQLException.
+     *
+     * @param <T> the type of the work's result
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    /**
+     * Constructs an executor and starts its pool.
+     *
+     * @param threads the number of threads running database work
+     * @param queueSize the largest number of tasks waiting for a thread
+     */
+    public JdbcExecutor(int threads, int queueSize) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), task -> {
+                    Thread thread = new Thread(task, "jdbc-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @return the executor shared by every controller, sized by the db.executor.threads and
+     *         db.executor.queueSize system properties
+     */
+    public static JdbcExecutor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Runs database work on the pool, or right away when called from a virtual thread.
+     *
+     * @param work the work to run
+     * @return the work's future result; an SQLException thrown by the work fails it wrapped in a
+     *         CompletionException, and it fails with a RejectedExecutionException if the pool is saturated
+     */
+    public <T> CompletableFuture<T> supply(Work<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (Thread.currentThread().isVirtual()) {
+            inline.increment();
+            run(work, result);
+            return result;
+        }
+        try {
+            execute(() -> run(work, result));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Runs a task on the pool.
+     *
+     * @throws RejectedExecutionException if the pool is saturated
+     */
+    @Override
+    public void execute(Runnable task) {
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWaitNanos.add(System.nanoTime() - submitted);
+                try {
+                    task.run();
+                } finally {
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the pool's size, how much work is running and queued, how much was completed or rejected, and how
+     *         much was run inline on virtual threads
+     */
+    public Map<String, Object> getStats() {
+        long count = completed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("completed", count);
+        stats.put("averageQueueWaitMillis", count == 0 ? 0.0 : queueWaitNanos.sum() / 1_000_000.0 / count);
+        stats.put("rejected", rejected.sum());
+        stats.put("inline", inline.sum());
+        return stats;
+    }
+
+    /** Stops the pool once queued work is done. */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static <T> void run(Work<T> work, CompletableFuture<T> result) {
+        try {
+            result.complete(work.run());
+        } catch (SQLException e) {
+            result.completeExceptionally(new CompletionException(e));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
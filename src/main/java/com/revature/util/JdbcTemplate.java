@@ -0,0 +1,352 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The JdbcTemplate class runs SQL on behalf of the DAOs and owns every JDBC resource it opens. Connections,
+ * statements and result sets are always closed with try-with-resources, so a DAO method written against
+ * this class cannot leak a connection back into the pool half-used or leave a cursor open on the database.
+ *
+ * Each call borrows its own connection from ConnectionUtil. When several statements must share a
+ * connection, for example a page query and its count, use {@link #execute(ConnectionCallback)} and the
+ * connection-scoped overloads.
+ */
+public class JdbcTemplate {
+
+    /** The largest number of values bound into a single IN list. */
+    public static final int MAX_IN_LIST_SIZE = 500;
+
+    /** The utility connections are borrowed from. */
+    private final ConnectionUtil connectionUtil;
+
+    /**
+     * Work to run on a single borrowed connection.
+     *
+     * @param <T> the type of result the work produces
+     */
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T doInConnection(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Constructs a JdbcTemplate that borrows connections from the given utility.
+     *
+     * @param connectionUtil the utility used to connect to the database
+     */
+    public JdbcTemplate(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+    }
+
+    /**
+     * Runs work on one borrowed connection and returns the connection afterwards.
+     *
+     * @param callback the work to run
+     * @return whatever the callback returns
+     * @throws SQLException if the callback fails
+     */
+    public <T> T execute(ConnectionCallback<T> callback) throws SQLException {
+        try (Connection connection = connectionUtil.getConnection()) {
+            return callback.doInConnection(connection);
+        }
+    }
+
+    /**
+     * Runs work on one borrowed connection inside a transaction. The transaction is committed when the callback
+     * returns and rolled back when it throws; either way the connection goes back to the pool in auto-commit
+     * mode.
+     *
+     * @param callback the work to run
+     * @return whatever the callback returns
+     * @throws SQLException if the callback or the commit fails, after the transaction was rolled back
+     */
+    public <T> T inTransaction(ConnectionCallback<T> callback) throws SQLException {
+        return execute(connection -> {
+            connection.setAutoCommit(false);
+            try {
+                T result = callback.doInConnection(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    /**
+     * Runs a query and maps every row.
+     *
+     * @param sql the query, with ? placeholders
+     * @param mapper maps each row
+     * @param params values bound to the placeholders in order
+     * @return the mapped rows, in the order the database returned them
+     */
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        return execute(connection -> query(connection, sql, mapper, params));
+    }
+
+    /**
+     * Runs a query on a connection the caller already holds and maps every row.
+     */
+    public <T> List<T> query(Connection connection, String sql, RowMapper<T> mapper, Object... params)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<T> rows = new ArrayList<>();
+                while (resultSet.next()) {
+                    rows.add(mapper.mapRow(resultSet));
+                }
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Runs a query expected to return at most one row.
+     *
+     * @return the first mapped row, or null if the query returned no rows
+     */
+    public <T> T queryForObject(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        return execute(connection -> queryForObject(connection, sql, mapper, params));
+    }
+
+    /**
+     * Runs a query expected to return at most one row on a connection the caller already holds.
+     */
+    public <T> T queryForObject(Connection connection, String sql, RowMapper<T> mapper, Object... params)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? mapper.mapRow(resultSet) : null;
+            }
+        }
+    }
+
+    /**
+     * Runs a query returning a single integer, such as a COUNT(*).
+     *
+     * @return the integer in the first column of the first row, or 0 if there are no rows
+     */
+    public int queryForInt(String sql, Object... params) throws SQLException {
+        return execute(connection -> queryForInt(connection, sql, params));
+    }
+
+    /**
+     * Runs a query returning a single integer on a connection the caller already holds.
+     */
+    public int queryForInt(Connection connection, String sql, Object... params) throws SQLException {
+        Integer value = queryForObject(connection, sql, resultSet -> resultSet.getInt(1), params);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Runs an INSERT, UPDATE or DELETE.
+     *
+     * @return the number of rows affected
+     */
+    public int update(String sql, Object... params) throws SQLException {
+        return execute(connection -> update(connection, sql, params));
+    }
+
+    /**
+     * Runs an INSERT, UPDATE or DELETE on a connection the caller already holds.
+     */
+    public int update(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Runs an INSERT into a table with a generated key.
+     *
+     * @return the generated key of the inserted row
+     * @throws SQLException if no row was inserted or no key was generated
+     */
+    public int insert(String sql, Object... params) throws SQLException {
+        return execute(connection -> insert(connection, sql, params));
+    }
+
+    /**
+     * Runs an INSERT into a table with a generated key on a connection the caller already holds.
+     */
+    public int insert(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bind(statement, params);
+            if (statement.executeUpdate() == 0) {
+                throw new SQLException("Insert failed, no rows affected");
+            }
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
+                }
+                throw new SQLException("Insert failed, no key was generated");
+            }
+        }
+    }
+
+    /**
+     * Runs the same INSERT once for every row of parameters as a single JDBC batch, on a connection the caller
+     * already holds, so many rows cost one round trip. Run it inside {@link #inTransaction(ConnectionCallback)}
+     * to write the rows all or nothing.
+     *
+     * @param sql the INSERT, with ? placeholders
+     * @param rows the values bound for each row, in placeholder order
+     * @return the generated key of each row, in the order of rows
+     * @throws SQLException if a row fails to insert or a key was not generated for every row
+     */
+    public int[] batchInsert(Connection connection, String sql, List<Object[]> rows) throws SQLException {
+        int[] keys = new int[rows.size()];
+        if (rows.isEmpty()) {
+            return keys;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Object[] row : rows) {
+                bind(statement, row);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                int count = 0;
+                while (generatedKeys.next() && count < keys.length) {
+                    keys[count++] = generatedKeys.getInt(1);
+                }
+                if (count != keys.length) {
+                    throw new SQLException("Batch insert generated " + count + " keys for " + keys.length + " rows");
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Runs the same INSERT, UPDATE or DELETE once for every row of parameters as a single JDBC batch, on a
+     * connection the caller already holds. Unlike {@link #batchInsert(Connection, String, List)} no keys are
+     * read back, for rows whose ids nobody needs.
+     *
+     * @param sql the statement, with ? placeholders
+     * @param rows the values bound for each row, in placeholder order
+     * @return the number of rows the batch ran for
+     * @throws SQLException if a row fails
+     */
+    public int batchUpdate(Connection connection, String sql, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Object[] row : rows) {
+                bind(statement, row);
+                statement.addBatch();
+            }
+            return statement.executeBatch().length;
+        }
+    }
+
+    /**
+     * Finds which of the given values a unique column already holds, sending the values in IN lists of at most
+     * MAX_IN_LIST_SIZE.
+     *
+     * @param table the table to look in
+     * @param column the column to match, which should be indexed
+     * @param values the values to look for
+     * @return the values that are already taken
+     */
+    public Set<String> findExisting(Connection connection, String table, String column, List<String> values)
+            throws SQLException {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < values.size(); from += MAX_IN_LIST_SIZE) {
+            Object[] params = padInList(values.subList(from, Math.min(from + MAX_IN_LIST_SIZE, values.size())));
+            existing.addAll(query(connection, "SELECT " + column + " FROM " + table + " WHERE " + column + " IN ("
+                    + placeholders(params.length) + ")", resultSet -> resultSet.getString(1), params));
+        }
+        return existing;
+    }
+
+    /**
+     * @return true if the failure, or the statement failure inside a failed batch, is a unique key violation
+     */
+    public static boolean isDuplicateKey(SQLException e) {
+        for (SQLException cause = e; cause != null; cause = cause.getNextException()) {
+            if ("23505".equals(cause.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Binds parameters by their runtime type so each value uses the matching typed setter.
+     *
+     * @param statement the statement to bind
+     * @param params the values to bind, in placeholder order; null binds SQL NULL
+     * @throws SQLException if a value cannot be bound
+     */
+    public static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            int index = i + 1;
+            Object param = params[i];
+            if (param == null) {
+                statement.setNull(index, Types.NULL);
+            } else if (param instanceof Integer value) {
+                statement.setInt(index, value);
+            } else if (param instanceof String value) {
+                statement.setString(index, value);
+            } else if (param instanceof Boolean value) {
+                statement.setBoolean(index, value);
+            } else if (param instanceof Long value) {
+                statement.setLong(index, value);
+            } else if (param instanceof Double value) {
+                statement.setDouble(index, value);
+            } else {
+                statement.setObject(index, param);
+            }
+        }
+    }
+
+    /**
+     * Pads the values of an IN list to the next power of two, capped at MAX_IN_LIST_SIZE, by repeating the
+     * last value. Repeated values do not change the result of an IN list, and padding keeps the number of
+     * distinct SQL strings small enough to stay in the connection's statement cache.
+     *
+     * @param values the values to bind, never empty and at most MAX_IN_LIST_SIZE long
+     * @return the values followed by copies of the last value
+     */
+    public static Object[] padInList(List<?> values) {
+        int size = Math.min(MAX_IN_LIST_SIZE, Math.max(1, Integer.highestOneBit(values.size() - 1) << 1));
+        size = Math.max(size, values.size());
+        Object[] params = new Object[size];
+        for (int i = 0; i < size; i++) {
+            params[i] = values.get(Math.min(i, values.size() - 1));
+        }
+        return params;
+    }
+
+    /**
+     * Builds a comma separated list of JDBC parameter placeholders.
+     *
+     * @param count the number of placeholders
+     * @return a string such as "?, ?, ?"
+     */
+    public static String placeholders(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(i == 0 ? "?" : ", ?");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.revature.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The JsonItemReader class reads the items of a bulk request body one at a time as they arrive, so an import of
+ * any size is parsed in constant memory: only the item being read is held.
+ *
+ * The body is either a JSON array of items or newline delimited JSON (NDJSON), one item per line. Both are read
+ * the same way; a root level array is unwrapped and its elements are returned as items. Properties an item's
+ * class does not have are ignored.
+ *
+ * @param <T> the type items are read as
+ */
+public class JsonItemReader<T> implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final MappingIterator<T> items;
+    /** The number of items read so far. */
+    private int count;
+
+    /**
+     * Constructs a reader over a request body.
+     *
+     * @param body the JSON array or NDJSON body; it is closed with the reader
+     * @param type the class items are read as
+     * @throws IllegalArgumentException if the body does not start with valid JSON
+     */
+    public JsonItemReader(InputStream body, Class<T> type) throws IOException {
+        try {
+            this.items = MAPPER.readerFor(type).readValues(body);
+        } catch (JsonProcessingException e) {
+            throw malformed(e);
+        }
+    }
+
+    /**
+     * @return true if there is another item
+     * @throws IllegalArgumentException if the next item is not valid JSON
+     */
+    public boolean hasNext() throws IOException {
+        try {
+            return items.hasNextValue();
+        } catch (JsonProcessingException e) {
+            throw malformed(e);
+        }
+    }
+
+    /**
+     * Reads the next item. Call {@link #hasNext()} first.
+     *
+     * @return the next item
+     * @throws IllegalArgumentException if the item is not valid JSON, is null or cannot be read as the item class
+     */
+    public T next() throws IOException {
+        try {
+            T item = items.nextValue();
+            count++;
+            return item;
+        } catch (JsonProcessingException e) {
+            throw malformed(e);
+        }
+    }
+
+    /**
+     * @return the number of items read so far, which is also the index of the next item
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        items.close();
+    }
+
+    private IllegalArgumentException malformed(JsonProcessingException e) {
+        JsonLocation location = e.getLocation();
+        return new IllegalArgumentException("Malformed item " + count
+                + (location != null ? " on line " + location.getLineNr() : "") + ": " + e.getOriginalMessage(), e);
+    }
+}
@@ -0,0 +1,113 @@
+package com.revature.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class records durations into a fixed set of exponentially sized buckets. It is
+ * cheap enough to sit on hot paths (one LongAdder increment per sample) and is safe to update from many
+ * threads at once. Its getters are read by Jackson when metrics are rendered as JSON.
+ */
+public class LatencyHistogram {
+
+    /** The inclusive upper bounds of each bucket, in microseconds. The final bucket is unbounded. */
+    private static final long[] BUCKET_BOUNDS_MICROS = {
+            50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 5_000_000 };
+
+    /** The number of samples recorded into each bucket. */
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MICROS.length + 1];
+    /** The number of samples recorded. */
+    private final LongAdder count = new LongAdder();
+    /** The sum of all samples, in nanoseconds. */
+    private final LongAdder totalNanos = new LongAdder();
+    /** The largest sample recorded, in nanoseconds. */
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = nanos / 1_000;
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMicros() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / 1_000.0 / samples;
+    }
+
+    public long getMaxMicros() {
+        return maxNanos.get() / 1_000;
+    }
+
+    public long getP50Micros() {
+        return percentileMicros(0.50);
+    }
+
+    public long getP95Micros() {
+        return percentileMicros(0.95);
+    }
+
+    public long getP99Micros() {
+        return percentileMicros(0.99);
+    }
+
+    /**
+     * Returns the bucket counts keyed by a readable upper bound, e.g. "<=500us" or ">5000000us".
+     *
+     * @return an ordered map of bucket label to sample count
+     */
+    public Map<String, Long> getBuckets() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            snapshot.put("<=" + BUCKET_BOUNDS_MICROS[i] + "us", buckets[i].sum());
+        }
+        snapshot.put(">" + BUCKET_BOUNDS_MICROS[BUCKET_BOUNDS_MICROS.length - 1] + "us",
+                buckets[BUCKET_BOUNDS_MICROS.length].sum());
+        return snapshot;
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket that contains it.
+     *
+     * @param quantile the quantile to estimate, between 0 and 1
+     * @return the estimated value in microseconds, or 0 if nothing has been recorded
+     */
+    private long percentileMicros(double quantile) {
+        long samples = count.sum();
+        if (samples == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(samples * quantile);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= target) {
+                return BUCKET_BOUNDS_MICROS[i];
+            }
+        }
+        return getMaxMicros();
+    }
+}
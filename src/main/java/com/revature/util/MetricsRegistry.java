@@ -0,0 +1,41 @@
+package com.revature.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * The MetricsRegistry class is a process-wide list of named metric sources. Components register a supplier
+ * once at startup, and the {@code GET /metrics} route renders every supplier's current value as JSON so the
+ * pool, caches and other components can be sized against real traffic.
+ */
+public class MetricsRegistry {
+
+    /** Registered metric sources, ordered by name so the rendered output is stable. */
+    private static final Map<String, Supplier<?>> SOURCES = new ConcurrentSkipListMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Registers a metric source, replacing any source previously registered under the same name.
+     *
+     * @param name the key the metrics are rendered under
+     * @param source a supplier returning the current metrics; it is called on every snapshot
+     */
+    public static void register(String name, Supplier<?> source) {
+        SOURCES.put(name, source);
+    }
+
+    /**
+     * Reads every registered source.
+     *
+     * @return the current value of each source keyed by name
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        SOURCES.forEach((name, source) -> snapshot.put(name, source.get()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,271 @@
+package com.revature.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.zip.CRC32;
+
+/**
+ * The MigrationRunner class brings the database schema up to date by applying versioned SQL scripts, recording
+ * each applied version in the SCHEMA_VERSION table. Startup runs it instead of resetting the database, so data
+ * survives restarts and a database that is already current costs a single query.
+ *
+ * Version 1 is sqlScript.sql, which creates the schema and the sample data; later versions are the scripts in
+ * db/migration, listed in {@link #MIGRATIONS}. Each pending script is run by the {@link SqlScriptRunner}, in
+ * its own transaction together with the row recording it, and a failure rolls the transaction back and stops
+ * the run. H2 commits DDL statements as it runs them, so schema changes made before a failing statement stay;
+ * scripts are written so they can be run again.
+ *
+ * The checksum of every applied script is recorded too. A script that changed after it was applied is
+ * reported with an IllegalStateException rather than silently ignored: applied scripts must not be edited, a
+ * new version must be added instead.
+ *
+ * A database created before versions were tracked already has the version 1 schema; it is recorded as applied
+ * without running the script, so its data is kept.
+ */
+public class MigrationRunner {
+
+    /** Every migration, in version order. */
+    public static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "schema and sample data", "/sqlScript.sql"),
+            new Migration(2, "lookup indexes", "/db/migration/V2__lookup_indexes.sql"),
+            new Migration(3, "sort indexes", "/db/migration/V3__sort_indexes.sql"));
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS SCHEMA_VERSION ("
+            + "version INT PRIMARY KEY, description VARCHAR(255) NOT NULL, checksum BIGINT NOT NULL, "
+            + "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, execution_millis BIGINT NOT NULL)";
+
+    private final List<Migration> migrations;
+    private final SqlScriptRunner scriptRunner = new SqlScriptRunner();
+    /** The report of every script applied by the last run. */
+    private final List<SqlScriptRunner.Report> reports = new ArrayList<>();
+
+    /**
+     * Constructs a runner for the application's migrations.
+     */
+    public MigrationRunner() {
+        this(MIGRATIONS);
+    }
+
+    /**
+     * Constructs a runner for the given migrations.
+     *
+     * @param migrations the migrations, in version order
+     */
+    public MigrationRunner(List<Migration> migrations) {
+        this.migrations = migrations;
+    }
+
+    /**
+     * Applies every pending migration on a connection from the pool.
+     *
+     * @return the versions applied, empty if the database was already current
+     */
+    public List<Integer> migrate() throws SQLException {
+        try (Connection connection = new ConnectionUtil().getConnection()) {
+            return migrate(connection);
+        }
+    }
+
+    /**
+     * Applies every pending migration.
+     *
+     * @param connection the connection to migrate through; it is left in auto-commit mode
+     * @return the versions applied, empty if the database was already current
+     * @throws IllegalStateException if an applied script has changed since it was applied
+     * @throws SQLException if a migration fails, after its transaction was rolled back
+     */
+    public synchronized List<Integer> migrate(Connection connection) throws SQLException {
+        try (PreparedStatement create = connection.prepareStatement(CREATE_VERSION_TABLE)) {
+            create.executeUpdate();
+        }
+        reports.clear();
+        Map<Integer, Long> applied = appliedVersions(connection);
+        if (applied.isEmpty() && tableExists(connection, "CHEF")) {
+            record(connection, migrations.get(0), 0);
+            applied.put(migrations.get(0).getVersion(), migrations.get(0).getChecksum());
+        }
+
+        List<Integer> versions = new ArrayList<>();
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.getVersion());
+            if (checksum == null) {
+                apply(connection, migration);
+                versions.add(migration.getVersion());
+            } else if (checksum != migration.getChecksum()) {
+                throw new IllegalStateException("Migration " + migration + " was changed after it was applied");
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * @return the statements and timings of every script applied by the last run, in version order
+     */
+    public synchronized List<SqlScriptRunner.Report> getReports() {
+        return new ArrayList<>(reports);
+    }
+
+    /**
+     * @return the version of the database, 0 if no migration was applied
+     */
+    public static int currentVersion(Connection connection) throws SQLException {
+        if (!tableExists(connection, "SCHEMA_VERSION")) {
+            return 0;
+        }
+        try (PreparedStatement select = connection.prepareStatement("SELECT MAX(version) FROM SCHEMA_VERSION");
+                ResultSet rs = select.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        try {
+            try (Reader script = migration.open()) {
+                reports.add(scriptRunner.run(connection, script, migration.toString()));
+            }
+            record(connection, migration, (System.nanoTime() - start) / 1_000_000);
+            connection.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            if (e instanceof SQLException) {
+                // the script runner's message already names the migration and the failing line
+                throw (SQLException) e;
+            }
+            throw new SQLException("Migration " + migration + " failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static Map<Integer, Long> appliedVersions(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new LinkedHashMap<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT version, checksum FROM SCHEMA_VERSION ORDER BY version");
+                ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static void record(Connection connection, Migration migration, long executionMillis)
+            throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO SCHEMA_VERSION(version, description, checksum, execution_millis) VALUES (?, ?, ?, ?)")) {
+            insert.setInt(1, migration.getVersion());
+            insert.setString(2, migration.getDescription());
+            insert.setLong(3, migration.getChecksum());
+            insert.setLong(4, executionMillis);
+            insert.executeUpdate();
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ?")) {
+            select.setString(1, table);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    /**
+     * A versioned SQL script on the classpath. The script is read, and its checksum computed, the first time
+     * either is needed.
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final String resource;
+        private String script;
+        private long checksum;
+
+        /**
+         * @param version the version the script brings the schema to
+         * @param description what the script changes
+         * @param resource the classpath location of the script
+         */
+        public Migration(int version, String description, String resource) {
+            this.version = version;
+            this.description = description;
+            this.resource = resource;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * @return a reader over the script
+         */
+        public Reader open() {
+            InputStream inputStream = MigrationRunner.class.getResourceAsStream(resource);
+            if (inputStream == null) {
+                throw new IllegalStateException("SQL script not found: " + resource);
+            }
+            return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @return the script's statements on a single line, without its comment lines
+         */
+        public synchronized String getScript() {
+            if (script == null) {
+                load();
+            }
+            return script;
+        }
+
+        /**
+         * @return the CRC32 of the script's statements, which ignores comments and line endings
+         */
+        public synchronized long getChecksum() {
+            if (script == null) {
+                load();
+            }
+            return checksum;
+        }
+
+        private void load() {
+            StringBuilder statements = new StringBuilder();
+            try (Scanner sc = new Scanner(open())) {
+                while (sc.hasNextLine()) {
+                    String nextLine = sc.nextLine();
+                    if (!nextLine.startsWith("--")) {
+                        statements.append(nextLine).append(' ');
+                    }
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(statements.toString().getBytes(StandardCharsets.UTF_8));
+            this.script = statements.toString();
+            this.checksum = crc.getValue();
+        }
+
+        @Override
+        public String toString() {
+            return "V" + version + " (" + description + ")";
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.revature.util;
 import java.util.List;
 import java.util.Objects;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * The Page class represents a paginated collection of items, along with 
  * metadata that facilitates a fluid paging experience for users. This 
@@ -32,6 +34,15 @@ public class Page<E> {
     private int totalElements;
     /** The total number of elements across all pages. */
     private List<E> items;
+    /** The cursor for the next keyset page; only set on keyset pages that have a next page. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    /**
+     * Whether another page follows; only set when it was learned by fetching one row past the page, as for
+     * keyset pages and pages requested without totals. Totals are -1 when they were not requested.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasNext;
 
     // constructors
     public Page() {
@@ -87,6 +98,22 @@ public class Page<E> {
         this.items = items;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
     /**
      * Returns a hash code value for the Page object.
      *
@@ -94,7 +121,7 @@ public class Page<E> {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(pageNumber, pageSize, totalPages, totalElements, items);
+        return Objects.hash(pageNumber, pageSize, totalPages, totalElements, items, nextCursor, hasNext);
     }
 
     /**
@@ -117,7 +144,9 @@ public class Page<E> {
                pageSize == page.pageSize &&
                totalPages == page.totalPages &&
                totalElements == page.totalElements &&
-               Objects.equals(items, page.items);
+               Objects.equals(items, page.items) &&
+               Objects.equals(nextCursor, page.nextCursor) &&
+               Objects.equals(hasNext, page.hasNext);
     }
 
     public static Object empty() {
@@ -0,0 +1,83 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The PageCursor class is the position a keyset page ended at: the sort key and direction the page was
+ * ordered by, plus the sort value and id of its last row. Clients only ever see it encoded as an opaque
+ * URL-safe string, which they pass back as the "after" option to fetch the next page.
+ */
+public class PageCursor {
+
+    // fields
+
+    /** The sort key the page was ordered by, such as "id" or "name". */
+    private final String sortKey;
+    /** Whether the page was ordered in descending order. */
+    private final boolean descending;
+    /** The id of the last row on the page. */
+    private final int lastId;
+    /** The sort value of the last row on the page, or null when sorting by id. */
+    private final String lastValue;
+
+    // constructors
+    public PageCursor(String sortKey, boolean descending, int lastId, String lastValue) {
+        this.sortKey = sortKey;
+        this.descending = descending;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = sortKey + "|" + (descending ? "desc" : "asc") + "|" + lastId
+                + (lastValue == null ? "" : "|" + lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @param encoded the encoded cursor; null or blank means "start from the first row"
+     * @return the decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the string is not a valid cursor
+     */
+    public static PageCursor decode(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length < 3 || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            return new PageCursor(parts[0], parts[1].equals("desc"), Integer.parseInt(parts[2]),
+                    parts.length == 4 ? parts[3] : null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    // getters
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getLastId() {
+        return lastId;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+}
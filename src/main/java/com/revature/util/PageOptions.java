@@ -18,6 +18,13 @@ public class PageOptions {
     private String sortBy;
     /** The direction of sorting (e.g., ascending or descending). */
     private String sortDirection;
+    /**
+     * The encoded PageCursor to continue after. When set, even to an empty string for the first page, rows are
+     * fetched by keyset instead of by offset and the page number is ignored.
+     */
+    private String after;
+    /** Whether totalElements and totalPages should be computed; when false the page reports only hasNext. */
+    private boolean withTotals = true;
 
     // constructors
     public PageOptions() {
@@ -67,4 +74,20 @@ public class PageOptions {
     public void setSortDirection(String sortDirection) {
         this.sortDirection = sortDirection;
     }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    public boolean isWithTotals() {
+        return withTotals;
+    }
+
+    public void setWithTotals(boolean withTotals) {
+        this.withTotals = withTotals;
+    }
 }
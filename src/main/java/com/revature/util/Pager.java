@@ -0,0 +1,207 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * The Pager class fetches one page of a table for a DAO, by offset or by keyset, and fills in the page's
+ * totals. Each DAO declares one pager describing its table, the {@link SortSpec} of the keys its rows can be
+ * sorted by, and which of those keys it can seek on.
+ *
+ * Keyset pages seek past the last row of the previous page instead of skipping rows with OFFSET. Rows are
+ * ordered by a sort column with the id as tie breaker, and the next page starts with
+ * {@code sortColumn >= ? AND (sortColumn > ? OR id > ?)}, which the database answers from an index no matter
+ * how deep the page is.
+ *
+ * Totals come from the {@link CountCache}, so the COUNT(*) behind them runs once per table and filter until
+ * the next write. When PageOptions.isWithTotals() is false no count runs at all; one extra row is fetched
+ * instead and the page reports only whether there is a next page, with -1 for totalPages and totalElements.
+ *
+ * @param <T> the type of rows being paged
+ */
+public class Pager<T> {
+
+    /** The table being paged, as used for count cache invalidation. */
+    private final String table;
+    /** The SELECT COUNT(*) FROM part of the count query, using the same alias as the row queries. */
+    private final String countSql;
+    /** The keys rows can be sorted by. */
+    private final SortSpec sortSpec;
+    /** The SQL expression of the unique id column used as tie breaker. */
+    private final String idColumn;
+    /** Reads the id of a mapped row, for the next cursor. */
+    private final ToIntFunction<T> idOf;
+    /** Reads the sort value of a mapped row for each sort key other than "id" that can be sought on. */
+    private final Map<String, Function<T, String>> values = new HashMap<>();
+
+    /**
+     * Constructs a Pager that can always seek by id.
+     *
+     * @param table the table being paged, such as "RECIPE"
+     * @param countSql the SELECT COUNT(*) FROM part of the count query, such as "SELECT COUNT(*) FROM RECIPE r"
+     * @param sortSpec the keys rows can be sorted by
+     * @param idOf reads the id of a mapped row
+     */
+    public Pager(String table, String countSql, SortSpec sortSpec, ToIntFunction<T> idOf) {
+        this.table = table;
+        this.countSql = countSql;
+        this.sortSpec = sortSpec;
+        this.idColumn = sortSpec.getIdColumn();
+        this.idOf = idOf;
+    }
+
+    /**
+     * Allows seeking on another sort key, whose column must not be null.
+     *
+     * @param sortKey a sort key of the sort spec, in lower case
+     * @param valueOf reads the column's value from a mapped row
+     * @return this pager
+     */
+    public Pager<T> seekable(String sortKey, Function<T, String> valueOf) {
+        sortSpec.keyOf(sortKey);
+        values.put(sortKey, valueOf);
+        return this;
+    }
+
+    /**
+     * @return the keys rows can be sorted by
+     */
+    public SortSpec getSortSpec() {
+        return sortSpec;
+    }
+
+    /**
+     * Fetches one page, by keyset if pageOptions.getAfter() is set and by offset otherwise. Either way rows are
+     * ordered by pageOptions' sortBy and sortDirection, checked against the sort spec.
+     *
+     * @param jdbc the template to run the queries with
+     * @param connection the connection to run the row and count queries on
+     * @param selectSql the SELECT ... FROM part of the row query
+     * @param where a filter condition shared by the row and count queries, or null
+     * @param mapper maps each row
+     * @param pageOptions the page, sort, cursor and totals options
+     * @param whereParams values for the placeholders in the filter condition
+     * @return the page
+     * @throws IllegalArgumentException if the cursor is invalid, or the sort key or direction is not allowed or
+     *         cannot be sought on
+     */
+    public Page<T> page(JdbcTemplate jdbc, Connection connection, String selectSql, String where,
+            RowMapper<T> mapper, PageOptions pageOptions, Object... whereParams) throws SQLException {
+        if (pageOptions.getAfter() != null) {
+            return keysetPage(jdbc, connection, selectSql, where, mapper, pageOptions, whereParams);
+        }
+        int pageNumber = Math.max(1, pageOptions.getPageNumber());
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        boolean withTotals = pageOptions.isWithTotals();
+
+        StringBuilder sql = new StringBuilder(selectSql);
+        if (where != null) {
+            sql.append(" WHERE ").append(where);
+        }
+        sql.append(" ORDER BY ").append(sortSpec.orderBy(pageOptions.getSortBy(), pageOptions.getSortDirection()));
+        sql.append(" LIMIT ? OFFSET ?");
+        List<Object> params = new ArrayList<>(Arrays.asList(whereParams));
+        params.add(withTotals ? pageSize : pageSize + 1);
+        params.add((pageNumber - 1) * pageSize);
+
+        List<T> rows = jdbc.query(connection, sql.toString(), mapper, params.toArray());
+        Boolean hasNext = null;
+        if (!withTotals) {
+            hasNext = rows.size() > pageSize;
+            rows = trim(rows, pageSize);
+        }
+        return assemble(jdbc, connection, where, whereParams, pageNumber, pageSize, rows, hasNext, null,
+                withTotals);
+    }
+
+    /**
+     * Fetches one keyset page. The sort order comes from the cursor when there is one, so every page of a walk
+     * is ordered the same way, and from sortBy and sortDirection otherwise. One extra row is read to decide
+     * whether there is a next page.
+     */
+    private Page<T> keysetPage(JdbcTemplate jdbc, Connection connection, String selectSql, String where,
+            RowMapper<T> mapper, PageOptions pageOptions, Object... whereParams) throws SQLException {
+        PageCursor cursor = PageCursor.decode(pageOptions.getAfter());
+        String sortKey = sortSpec.keyOf(cursor != null ? cursor.getSortKey() : pageOptions.getSortBy());
+        boolean descending = cursor != null ? cursor.isDescending()
+                : SortSpec.isDescending(pageOptions.getSortDirection());
+        String column = sortSpec.columnOf(sortKey);
+        if (!column.equals(idColumn) && !values.containsKey(sortKey)) {
+            throw new IllegalArgumentException("Cannot page by cursor when sorting by " + sortKey);
+        }
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        String direction = descending ? " DESC" : " ASC";
+
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>(Arrays.asList(whereParams));
+        if (where != null) {
+            conditions.add(where);
+        }
+        if (cursor != null) {
+            String after = descending ? " < ?" : " > ?";
+            if (column.equals(idColumn)) {
+                conditions.add(idColumn + after);
+                params.add(cursor.getLastId());
+            } else {
+                conditions.add(column + (descending ? " <= ?" : " >= ?") + " AND (" + column + after + " OR "
+                        + idColumn + after + ")");
+                params.add(cursor.getLastValue());
+                params.add(cursor.getLastValue());
+                params.add(cursor.getLastId());
+            }
+        }
+        StringBuilder sql = new StringBuilder(selectSql);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ").append(column).append(direction);
+        if (!column.equals(idColumn)) {
+            sql.append(", ").append(idColumn).append(direction);
+        }
+        sql.append(" LIMIT ?");
+        params.add(pageSize + 1);
+
+        List<T> rows = jdbc.query(connection, sql.toString(), mapper, params.toArray());
+        boolean hasNext = rows.size() > pageSize;
+        rows = trim(rows, pageSize);
+        String nextCursor = null;
+        if (hasNext) {
+            T last = rows.get(pageSize - 1);
+            String lastValue = column.equals(idColumn) ? null : values.get(sortKey).apply(last);
+            nextCursor = new PageCursor(sortKey, descending, idOf.applyAsInt(last), lastValue).encode();
+        }
+        return assemble(jdbc, connection, where, whereParams, pageOptions.getPageNumber(), pageSize, rows, hasNext,
+                nextCursor, pageOptions.isWithTotals());
+    }
+
+    /**
+     * Builds the page, looking up its totals in the count cache unless totals were not requested.
+     */
+    private Page<T> assemble(JdbcTemplate jdbc, Connection connection, String where, Object[] whereParams,
+            int pageNumber, int pageSize, List<T> rows, Boolean hasNext, String nextCursor, boolean withTotals)
+            throws SQLException {
+        int totalCount = -1;
+        int totalPages = -1;
+        if (withTotals) {
+            String filter = where == null ? null : where + Arrays.toString(whereParams);
+            totalCount = CountCache.get(table, filter, () -> jdbc.queryForInt(connection,
+                    where == null ? countSql : countSql + " WHERE " + where, whereParams));
+            totalPages = (int) Math.ceil((double) totalCount / pageSize);
+        }
+        Page<T> page = new Page<>(pageNumber, pageSize, totalPages, totalCount, rows);
+        page.setHasNext(hasNext);
+        page.setNextCursor(nextCursor);
+        return page;
+    }
+
+    private static <T> List<T> trim(List<T> rows, int pageSize) {
+        return rows.size() > pageSize ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+    }
+}
@@ -0,0 +1,231 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * The PasswordHasher class hashes and verifies passwords with PBKDF2 (HMAC-SHA256) from the JDK.
+ *
+ * Hashing is deliberately slow, so the asynchronous methods run it on a small dedicated pool instead of the
+ * Javalin request threads. The pool's queue is bounded: when it is full, new work is rejected at once with a
+ * {@link RejectedExecutionException}, which the controllers turn into a 503, rather than piling up behind a
+ * login flood. Hash latency and queue wait are recorded, so the iteration count can be tuned against login
+ * throughput.
+ *
+ * Hashes are stored as {@code pbkdf2$<iterations>$<salt>$<hash>} with Base64 salt and hash, so the iteration
+ * count can be raised without invalidating existing hashes. Stored passwords without that prefix are legacy
+ * plain text and are compared as such, in constant time.
+ */
+public class PasswordHasher {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructs a hasher and starts its pool.
+     *
+     * @param iterations the PBKDF2 iteration count for new hashes
+     * @param threads the number of hashing threads
+     * @param queueSize the largest number of hashes waiting for a thread
+     */
+    public PasswordHasher(int iterations, int threads, int queueSize) {
+        this.iterations = iterations;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), task -> {
+                    Thread thread = new Thread(task, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Builds a hasher from system properties, falling back to defaults for any that are missing:
+     * {@code auth.password.iterations} (210000), {@code auth.password.threads} (the number of processors) and
+     * {@code auth.password.queueSize} (64).
+     *
+     * @return the hasher
+     */
+    public static PasswordHasher fromSystemProperties() {
+        return new PasswordHasher(
+                Integer.getInteger("auth.password.iterations", 210_000),
+                Integer.getInteger("auth.password.threads", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("auth.password.queueSize", 64));
+    }
+
+    /**
+     * Hashes a password on the hashing pool.
+     *
+     * @param password the password to hash
+     * @return the encoded hash; fails with a RejectedExecutionException if the pool is saturated
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        return submit(() -> hash(password));
+    }
+
+    /**
+     * Verifies a password against a stored hash on the hashing pool.
+     *
+     * @param password the password given
+     * @param stored the stored hash, or legacy plain text password
+     * @return whether they match; fails with a RejectedExecutionException if the pool is saturated
+     */
+    public CompletableFuture<Boolean> verifyAsync(String password, String stored) {
+        return submit(() -> verify(password, stored));
+    }
+
+    /**
+     * Hashes a password on the calling thread.
+     *
+     * @param password the password to hash
+     * @return the encoded hash
+     * @throws IllegalArgumentException if the password is null
+     */
+    public String hash(String password) {
+        if (password == null) {
+            throw new IllegalArgumentException("Password is required");
+        }
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return PREFIX + iterations + "$" + base64.encodeToString(salt) + "$"
+                + base64.encodeToString(pbkdf2(password, salt, iterations));
+    }
+
+    /**
+     * Verifies a password against a stored hash on the calling thread, in time that does not depend on where
+     * they differ.
+     *
+     * @param password the password given
+     * @param stored the stored hash, or legacy plain text password
+     * @return true if both are present and match
+     */
+    public boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHash(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        Base64.Decoder base64 = Base64.getDecoder();
+        byte[] expected = base64.decode(parts[3]);
+        return MessageDigest.isEqual(expected, pbkdf2(password, base64.decode(parts[2]), Integer.parseInt(parts[1])));
+    }
+
+    /**
+     * @return whether a stored password is a hash made by this class rather than legacy plain text
+     */
+    public static boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * @return hash counts and latency, queue wait, queue depth and rejections
+     */
+    public Map<String, Object> getStats() {
+        long count = hashes.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("iterations", iterations);
+        stats.put("threads", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stats.put("hashes", count);
+        stats.put("averageHashMillis", count == 0 ? 0.0 : hashNanos.sum() / 1_000_000.0 / count);
+        stats.put("maxHashMillis", maxHashNanos.get() / 1_000_000.0);
+        stats.put("averageQueueWaitMillis", count == 0 ? 0.0 : queueWaitNanos.sum() / 1_000_000.0 / count);
+        stats.put("maxQueueWaitMillis", maxQueueWaitNanos.get() / 1_000_000.0);
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+
+    /** Stops the pool once queued work is done. */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs a task on the pool, timing its wait in the queue and its run.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long started = System.nanoTime();
+                record(queueWaitNanos, maxQueueWaitNanos, started - submitted);
+                T value = null;
+                RuntimeException failure = null;
+                try {
+                    value = task.get();
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                // record before completing, so callers that waited on the result see it in the stats
+                hashes.increment();
+                record(hashNanos, maxHashNanos, System.nanoTime() - started);
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static void record(LongAdder total, AtomicLong max, long nanos) {
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.revature.util;
+
+/**
+ * The PoolConfig class is a Plain Old Java Object (POJO) that holds the sizing and housekeeping options for
+ * the ConnectionPool behind ConnectionUtil. Defaults suit the embedded H2 database; each option can be
+ * overridden at startup with a system property such as {@code -Ddb.pool.maxSize=20}.
+ */
+public class PoolConfig {
+
+    // fields
+
+    /** The number of connections kept open even when the pool is idle. */
+    private int minIdle = 2;
+    /** The maximum number of physical connections the pool will open. */
+    private int maxSize = 10;
+    /** How long a caller waits for a free connection before giving up, in milliseconds. */
+    private long acquireTimeoutMillis = 5_000;
+    /** How long a connection may sit idle before it is closed, in milliseconds. */
+    private long idleTimeoutMillis = 600_000;
+    /** How often the housekeeper evicts idle connections and checks for leaks, in milliseconds. */
+    private long housekeepingIntervalMillis = 30_000;
+    /** How long a connection may be borrowed before it is reported as a leak, in milliseconds. 0 disables. */
+    private long leakDetectionThresholdMillis = 60_000;
+    /** Whether a connection is validated before it is handed out. */
+    private boolean validateOnBorrow = true;
+    /** How long validation may take before the connection is considered broken, in seconds. */
+    private int validationTimeoutSeconds = 1;
+    /**
+     * Whether statements and result sets are tracked per borrowed connection. When enabled, any left open
+     * when the connection is returned are closed and counted as resource leaks. Meant for tests.
+     */
+    private boolean trackResources = false;
+    /** How many prepared statements are cached per connection, keyed by SQL text. 0 disables the cache. */
+    private int statementCacheSize = 64;
+
+    // constructors
+    public PoolConfig() {
+    }
+
+    public PoolConfig(int minIdle, int maxSize, long acquireTimeoutMillis) {
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * Builds a PoolConfig from {@code db.pool.*} system properties, falling back to the defaults for any
+     * property that is not set.
+     *
+     * @return the configuration to use for the application's pool
+     */
+    public static PoolConfig fromSystemProperties() {
+        PoolConfig config = new PoolConfig();
+        config.setMinIdle(Integer.getInteger("db.pool.minIdle", config.getMinIdle()));
+        config.setMaxSize(Integer.getInteger("db.pool.maxSize", config.getMaxSize()));
+        config.setAcquireTimeoutMillis(Long.getLong("db.pool.acquireTimeoutMillis", config.getAcquireTimeoutMillis()));
+        config.setIdleTimeoutMillis(Long.getLong("db.pool.idleTimeoutMillis", config.getIdleTimeoutMillis()));
+        config.setHousekeepingIntervalMillis(
+                Long.getLong("db.pool.housekeepingIntervalMillis", config.getHousekeepingIntervalMillis()));
+        config.setLeakDetectionThresholdMillis(
+                Long.getLong("db.pool.leakDetectionThresholdMillis", config.getLeakDetectionThresholdMillis()));
+        config.setValidateOnBorrow(Boolean.parseBoolean(
+                System.getProperty("db.pool.validateOnBorrow", String.valueOf(config.isValidateOnBorrow()))));
+        config.setValidationTimeoutSeconds(
+                Integer.getInteger("db.pool.validationTimeoutSeconds", config.getValidationTimeoutSeconds()));
+        config.setTrackResources(Boolean.parseBoolean(
+                System.getProperty("db.pool.trackResources", String.valueOf(config.isTrackResources()))));
+        config.setStatementCacheSize(Integer.getInteger("db.pool.statementCacheSize", config.getStatementCacheSize()));
+        return config;
+    }
+
+    // getters and setters
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getAcquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+
+    public void setAcquireTimeoutMillis(long acquireTimeoutMillis) {
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getHousekeepingIntervalMillis() {
+        return housekeepingIntervalMillis;
+    }
+
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) {
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+    }
+
+    public long getLeakDetectionThresholdMillis() {
+        return leakDetectionThresholdMillis;
+    }
+
+    public void setLeakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+    }
+
+    public boolean isValidateOnBorrow() {
+        return validateOnBorrow;
+    }
+
+    public void setValidateOnBorrow(boolean validateOnBorrow) {
+        this.validateOnBorrow = validateOnBorrow;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public boolean isTrackResources() {
+        return trackResources;
+    }
+
+    public void setTrackResources(boolean trackResources) {
+        this.trackResources = trackResources;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+}
@@ -0,0 +1,125 @@
+package com.revature.util;
+
+/**
+ * The PoolStats class is a point-in-time snapshot of a ConnectionPool. Counts such as active and idle
+ * connections are read at the moment the snapshot is taken, while the acquire latency histogram is the live
+ * histogram of the pool so that it keeps accumulating between snapshots.
+ */
+public class PoolStats {
+
+    // fields
+
+    /** The number of connections currently borrowed by callers. */
+    private final int active;
+    /** The number of open connections waiting in the pool. */
+    private final int idle;
+    /** The number of callers currently blocked waiting for a connection. */
+    private final int waiting;
+    /** The maximum number of connections the pool may open. */
+    private final int maxSize;
+    /** The number of physical connections opened since the pool started. */
+    private final long created;
+    /** The number of physical connections closed since the pool started. */
+    private final long destroyed;
+    /** The number of acquire attempts that timed out. */
+    private final long timeouts;
+    /** The number of connections reported as leaked. */
+    private final long leaks;
+    /** The number of statements and result sets found open when their connection was returned. */
+    private final long resourceLeaks;
+    /** The number of prepareStatement calls served from a connection's statement cache. */
+    private final long statementCacheHits;
+    /** The number of prepareStatement calls that had to prepare a new statement. */
+    private final long statementCacheMisses;
+    /** The time callers spent waiting for a connection. */
+    private final LatencyHistogram acquireLatency;
+
+    // constructors
+    public PoolStats(int active, int idle, int waiting, int maxSize, long created, long destroyed, long timeouts,
+            long leaks, long resourceLeaks, long statementCacheHits, long statementCacheMisses,
+            LatencyHistogram acquireLatency) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.maxSize = maxSize;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.timeouts = timeouts;
+        this.leaks = leaks;
+        this.resourceLeaks = resourceLeaks;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.acquireLatency = acquireLatency;
+    }
+
+    // getters
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public int getTotal() {
+        return active + idle;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getDestroyed() {
+        return destroyed;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getLeaks() {
+        return leaks;
+    }
+
+    public long getResourceLeaks() {
+        return resourceLeaks;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public LatencyHistogram getAcquireLatency() {
+        return acquireLatency;
+    }
+
+    /**
+     * Returns a string representation of the PoolStats object.
+     *
+     * @return a short summary of the pool's occupancy
+     */
+    @Override
+    public String toString() {
+        return "PoolStats{active=" + active +
+                ", idle=" + idle +
+                ", waiting=" + waiting +
+                ", maxSize=" + maxSize +
+                ", timeouts=" + timeouts +
+                ", leaks=" + leaks +
+                ", resourceLeaks=" + resourceLeaks +
+                ", statementCacheHits=" + statementCacheHits +
+                ", statementCacheMisses=" + statementCacheMisses + '}';
+    }
+}
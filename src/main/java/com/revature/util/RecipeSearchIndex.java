@@ -0,0 +1,353 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import com.revature.model.Recipe;
+
+/**
+ * The RecipeSearchIndex class is an in-memory inverted index over recipe names and instructions, so a recipe
+ * search looks words up in a dictionary instead of running LIKE '%term%' over every row.
+ *
+ * Text is split into lower-case words. A search term matches a word exactly, as a prefix or anywhere inside
+ * it, so "ato" still finds "potato" the way the LIKE query did. Exact and prefix matches are a range of the
+ * sorted dictionary of distinct words; matches inside a word are a range of a sorted map of the words' inner
+ * suffixes, since a term inside a word is a prefix of one of its suffixes. Neither lookup scans the whole
+ * dictionary or any recipe. Every word of a multi-word search must match. Results are ranked by
+ * relevance: exact matches beat prefix matches, which beat matches inside a word, and a match in the name
+ * counts more than one in the instructions. Ties are broken by recipe id.
+ *
+ * RecipeDAO keeps its index up to date on every write and rebuilds it from the database when it is first used
+ * or after {@link #invalidateAll()}, which DBUtil calls when it resets the database. As in the
+ * {@link CountCache}, a rebuild that raced a write is not trusted and is redone on next use.
+ */
+public class RecipeSearchIndex {
+
+    /** How much a match in the name counts, relative to a match in the instructions. */
+    private static final int NAME_WEIGHT = 3;
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int INFIX_SCORE = 1;
+
+    /** Bumped by {@link #invalidateAll()}; an index built under an older generation is stale. */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** For each word, the weight of the word in each recipe containing it. Sorted for prefix lookups. */
+    private TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    /**
+     * For each suffix of an indexed word that starts after its first letter, the words ending with it. Sorted
+     * for prefix lookups, which find the words containing a term other than at their start.
+     */
+    private TreeMap<String, Set<String>> suffixes = new TreeMap<>();
+    /** The indexed text of each recipe, so its postings can be removed when it changes. */
+    private Map<Integer, Document> documents = new HashMap<>();
+
+    /** The generation this index was built under, or -1 if it has never been built or must be rebuilt. */
+    private volatile long builtGeneration = -1;
+    /** Counts writes, so a rebuild can tell whether one happened while it was loading. */
+    private final AtomicLong modifications = new AtomicLong();
+    private volatile long lastBuildMillis;
+    private volatile long lastBuiltAt;
+
+    /** Marks every index as stale, for when the recipe table has been changed outside RecipeDAO. */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * @return whether the index was built under the current generation and has not missed any write since
+     */
+    public boolean isCurrent() {
+        return builtGeneration == GENERATION.get();
+    }
+
+    /**
+     * Replaces the whole index with the recipes returned by the loader. The loader runs without holding the
+     * index lock, so searches keep being served from the old index while the database is read.
+     *
+     * @param loader reads every recipe from the database
+     */
+    public void rebuild(Supplier<List<Recipe>> loader) {
+        long generation = GENERATION.get();
+        long writes = modifications.get();
+        long start = System.nanoTime();
+
+        TreeMap<String, Map<Integer, Integer>> newPostings = new TreeMap<>();
+        TreeMap<String, Set<String>> newSuffixes = new TreeMap<>();
+        Map<Integer, Document> newDocuments = new HashMap<>();
+        for (Recipe recipe : loader.get()) {
+            Document document = new Document(recipe.getName(), recipe.getInstructions());
+            newDocuments.put(recipe.getId(), document);
+            addPostings(newPostings, newSuffixes, recipe.getId(), document);
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            suffixes = newSuffixes;
+            documents = newDocuments;
+            builtGeneration = modifications.get() == writes ? generation : -1;
+            lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+            lastBuiltAt = System.currentTimeMillis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a recipe to the index, replacing whatever was indexed for its id before.
+     *
+     * @param id the recipe's id
+     * @param name the recipe's name
+     * @param instructions the recipe's instructions
+     */
+    public void put(int id, String name, String instructions) {
+        lock.writeLock().lock();
+        try {
+            putLocked(id, new Document(name, instructions));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the indexed instructions of a recipe, keeping its indexed name. Used for updates, which only
+     * ever change a recipe's instructions and author.
+     *
+     * @param id the recipe's id
+     * @param instructions the recipe's new instructions
+     */
+    public void updateInstructions(int id, String instructions) {
+        lock.writeLock().lock();
+        try {
+            Document old = documents.get(id);
+            if (old != null) {
+                putLocked(id, new Document(old.name, instructions));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe from the index.
+     *
+     * @param id the id of the deleted recipe
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            modifications.incrementAndGet();
+            Document old = documents.remove(id);
+            if (old != null) {
+                removePostings(id, old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the recipes matching every word of a search.
+     *
+     * @param query the search text
+     * @return the ids of the matching recipes, most relevant first; empty if the query has no words
+     */
+    public List<Integer> search(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String word : words) {
+                Map<Integer, Integer> wordScores = scoreWord(word);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Integer> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Integer, Integer> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    /**
+     * @return the number of indexed recipes, distinct words and postings, and how long the last build took
+     */
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            int postingCount = 0;
+            for (Map<Integer, Integer> recipes : postings.values()) {
+                postingCount += recipes.size();
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("recipes", documents.size());
+            stats.put("terms", postings.size());
+            stats.put("suffixes", suffixes.size());
+            stats.put("postings", postingCount);
+            stats.put("current", isCurrent());
+            stats.put("lastBuildMillis", lastBuildMillis);
+            stats.put("lastBuiltAt", lastBuiltAt);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits.
+     *
+     * @param text the text to split; may be null
+     * @return the words, in order, including duplicates
+     */
+    public static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private void putLocked(int id, Document document) {
+        modifications.incrementAndGet();
+        Document old = documents.put(id, document);
+        if (old != null) {
+            removePostings(id, old);
+        }
+        addPostings(postings, suffixes, id, document);
+    }
+
+    /**
+     * Scores every recipe containing a word that matches the search word. Must hold the read lock.
+     */
+    private Map<Integer, Integer> scoreWord(String word) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        // words starting with the search word sort directly after it
+        for (Map.Entry<String, Map<Integer, Integer>> entry : postings.tailMap(word, true).entrySet()) {
+            if (!entry.getKey().startsWith(word)) {
+                break;
+            }
+            addScores(scores, entry.getValue(), entry.getKey().equals(word) ? EXACT_SCORE : PREFIX_SCORE);
+        }
+        // words containing the search word after their first letter have an inner suffix starting with it
+        Set<String> infixMatches = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : suffixes.tailMap(word, true).entrySet()) {
+            if (!entry.getKey().startsWith(word)) {
+                break;
+            }
+            for (String term : entry.getValue()) {
+                if (!term.startsWith(word) && infixMatches.add(term)) {
+                    addScores(scores, postings.get(term), INFIX_SCORE);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void addScores(Map<Integer, Integer> scores, Map<Integer, Integer> weights, int matchScore) {
+        for (Map.Entry<Integer, Integer> weight : weights.entrySet()) {
+            scores.merge(weight.getKey(), weight.getValue() * matchScore, Integer::sum);
+        }
+    }
+
+    private static void addPostings(Map<String, Map<Integer, Integer>> postings,
+            Map<String, Set<String>> suffixes, int id, Document document) {
+        for (Map.Entry<String, Integer> weight : document.weights().entrySet()) {
+            String word = weight.getKey();
+            Map<Integer, Integer> recipes = postings.get(word);
+            if (recipes == null) {
+                recipes = new HashMap<>();
+                postings.put(word, recipes);
+                for (int start = 1; start < word.length(); start++) {
+                    suffixes.computeIfAbsent(word.substring(start), suffix -> new HashSet<>()).add(word);
+                }
+            }
+            recipes.put(id, weight.getValue());
+        }
+    }
+
+    private void removePostings(int id, Document document) {
+        for (String word : document.weights().keySet()) {
+            Map<Integer, Integer> recipes = postings.get(word);
+            if (recipes != null) {
+                recipes.remove(id);
+                if (recipes.isEmpty()) {
+                    postings.remove(word);
+                    removeSuffixes(word);
+                }
+            }
+        }
+    }
+
+    private void removeSuffixes(String word) {
+        for (int start = 1; start < word.length(); start++) {
+            String suffix = word.substring(start);
+            Set<String> words = suffixes.get(suffix);
+            if (words != null) {
+                words.remove(word);
+                if (words.isEmpty()) {
+                    suffixes.remove(suffix);
+                }
+            }
+        }
+    }
+
+    /** The indexed text of one recipe. */
+    private static final class Document {
+        private final String name;
+        private final String instructions;
+
+        private Document(String name, String instructions) {
+            this.name = name;
+            this.instructions = instructions;
+        }
+
+        /**
+         * @return each word of the recipe with its weight: occurrences in the instructions plus weighted
+         *         occurrences in the name
+         */
+        private Map<String, Integer> weights() {
+            Map<String, Integer> weights = new HashMap<>();
+            for (String word : tokenize(name)) {
+                weights.merge(word, NAME_WEIGHT, Integer::sum);
+            }
+            for (String word : tokenize(instructions)) {
+                weights.merge(word, 1, Integer::sum);
+            }
+            return weights;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.revature.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The RowMapper interface converts the current row of a ResultSet into an object. Implementations should
+ * only read the current row; JdbcTemplate advances the ResultSet and closes it.
+ *
+ * @param <T> the type each row is mapped to
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row of the ResultSet.
+     *
+     * @param resultSet the ResultSet positioned on the row to map
+     * @return the mapped object
+     * @throws SQLException if an error occurs while accessing the ResultSet
+     */
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
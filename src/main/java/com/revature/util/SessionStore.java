@@ -0,0 +1,99 @@
+package com.revature.util;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.revature.model.Chef;
+
+/**
+ * The SessionStore interface holds the logged in chefs, indexed by session token. Implementations are safe to
+ * use from every Javalin worker thread at once, expire idle and old sessions, and hold a bounded number of
+ * sessions.
+ *
+ * {@link InMemorySessionStore} keeps sessions in memory only. {@link FileSessionStore} also writes them to a
+ * file so they survive a restart. {@link #fromSystemProperties()} picks one.
+ */
+public interface SessionStore {
+
+    /**
+     * Starts a session.
+     *
+     * @param token the new session token
+     * @param chef the logged in chef
+     */
+    void put(String token, Chef chef);
+
+    /**
+     * Looks up a session and marks it as used.
+     *
+     * @param token the session token
+     * @return the logged in chef, or null if there is no such session or it has expired
+     */
+    Chef get(String token);
+
+    /**
+     * Checks whether a session belongs to an admin and marks it as used. The flag is taken when the session
+     * starts, so the check needs neither the chef nor the database.
+     *
+     * @param token the session token
+     * @return true if the session exists, has not expired and belongs to an admin
+     */
+    boolean isAdmin(String token);
+
+    /**
+     * Ends a session.
+     *
+     * @param token the session token
+     * @return true if the session existed
+     */
+    boolean remove(String token);
+
+    /**
+     * Removes every expired session.
+     *
+     * @return the number of sessions removed
+     */
+    int sweep();
+
+    /**
+     * @return the number of sessions currently held, including expired sessions not yet swept
+     */
+    int size();
+
+    /**
+     * @return statistics about the store, for the metrics endpoint
+     */
+    Map<String, Object> getStats();
+
+    /** Stops the store's background work and releases its resources. */
+    void close();
+
+    /**
+     * Builds a store from system properties, falling back to defaults for any that are missing:
+     * {@code auth.session.idleTimeoutMillis} (30 minutes), {@code auth.session.maxLifetimeMillis} (12 hours),
+     * {@code auth.session.maxSessions} (10000) and {@code auth.session.sweepIntervalMillis} (1 minute).
+     * Setting {@code auth.session.store} to {@code file} keeps sessions across restarts in the file named by
+     * {@code auth.session.file} (sessions.log); otherwise they are only kept in memory.
+     *
+     * @return the store
+     */
+    static SessionStore fromSystemProperties() {
+        InMemorySessionStore memory = new InMemorySessionStore(
+                Long.getLong("auth.session.idleTimeoutMillis", TimeUnit.MINUTES.toMillis(30)),
+                Long.getLong("auth.session.maxLifetimeMillis", TimeUnit.HOURS.toMillis(12)),
+                Integer.getInteger("auth.session.maxSessions", 10_000),
+                Long.getLong("auth.session.sweepIntervalMillis", TimeUnit.MINUTES.toMillis(1))).start();
+        if (!"file".equalsIgnoreCase(System.getProperty("auth.session.store", "memory"))) {
+            return memory;
+        }
+        String file = System.getProperty("auth.session.file", "sessions.log");
+        try {
+            return FileSessionStore.open(Paths.get(file), memory);
+        } catch (IOException e) {
+            memory.close();
+            throw new RuntimeException("Could not open the session file " + file, e);
+        }
+    }
+}
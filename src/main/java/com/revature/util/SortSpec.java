@@ -0,0 +1,123 @@
+package com.revature.util;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The SortSpec class is the list of sort keys an entity can be ordered by. Each key clients may pass as sortBy
+ * maps to the SQL expression of a column, and only those expressions ever reach an ORDER BY clause: sortBy and
+ * sortDirection are never concatenated into SQL. Keys and directions are matched ignoring case, and anything
+ * else is rejected with an IllegalArgumentException, which the controllers answer with 400 Bad Request.
+ *
+ * The id is always a key, and it is appended to every other key as tie breaker so each ordering is total and
+ * stable from page to page. The V3 migration declares an index on (column, id) for every key, so an ordered
+ * page is read from the index instead of sorting the matching rows.
+ */
+public class SortSpec {
+
+    /** The sort key of the id column, which is also the default. */
+    public static final String ID = "id";
+
+    /** The SQL expression of the unique id column. */
+    private final String idColumn;
+    /** The SQL expression of each sort key, in the order they were allowed. */
+    private final Map<String, String> columns = new LinkedHashMap<>();
+
+    /**
+     * Constructs a SortSpec that can always sort by id.
+     *
+     * @param idColumn the SQL expression of the id column, such as "r.id"
+     */
+    public SortSpec(String idColumn) {
+        this.idColumn = idColumn;
+        columns.put(ID, idColumn);
+    }
+
+    /**
+     * Allows sorting by another column.
+     *
+     * @param sortKey the sort key clients pass as sortBy
+     * @param column the SQL expression of the column
+     * @return this sort spec
+     */
+    public SortSpec allow(String sortKey, String column) {
+        columns.put(sortKey.toLowerCase(Locale.ROOT), column);
+        return this;
+    }
+
+    /**
+     * @return the SQL expression of the id column
+     */
+    public String getIdColumn() {
+        return idColumn;
+    }
+
+    /**
+     * @return the allowed sort keys
+     */
+    public Set<String> getKeys() {
+        return columns.keySet();
+    }
+
+    /**
+     * @param sortBy a sortBy option, in any case, or null
+     * @return the lower-case sort key, "id" when none is given
+     * @throws IllegalArgumentException if the key is not allowed
+     */
+    public String keyOf(String sortBy) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return ID;
+        }
+        String key = sortBy.trim().toLowerCase(Locale.ROOT);
+        if (!columns.containsKey(key)) {
+            throw new IllegalArgumentException("Cannot sort by " + sortBy + "; expected one of " + getKeys());
+        }
+        return key;
+    }
+
+    /**
+     * @param sortBy a sortBy option, in any case, or null
+     * @return the SQL expression of the column to sort by
+     * @throws IllegalArgumentException if the key is not allowed
+     */
+    public String columnOf(String sortBy) {
+        return columns.get(keyOf(sortBy));
+    }
+
+    /**
+     * @param sortDirection "asc" or "desc", in any case, or null for ascending
+     * @return true for a descending sort
+     * @throws IllegalArgumentException for any other direction
+     */
+    public static boolean isDescending(String sortDirection) {
+        if (sortDirection == null || sortDirection.isBlank()) {
+            return false;
+        }
+        switch (sortDirection.trim().toLowerCase(Locale.ROOT)) {
+            case "asc":
+                return false;
+            case "desc":
+                return true;
+            default:
+                throw new IllegalArgumentException(
+                        "Cannot sort in direction " + sortDirection + "; expected asc or desc");
+        }
+    }
+
+    /**
+     * Builds the ORDER BY expression for a sort, with the id as tie breaker.
+     *
+     * @param sortBy a sortBy option, or null to sort by id
+     * @param sortDirection a sortDirection option, or null for ascending
+     * @return an expression such as "r.name DESC, r.id DESC"
+     * @throws IllegalArgumentException if the key or direction is not allowed
+     */
+    public String orderBy(String sortBy, String sortDirection) {
+        String column = columnOf(sortBy);
+        String direction = isDescending(sortDirection) ? " DESC" : " ASC";
+        return column.equals(idColumn) ? idColumn + direction
+                : column + direction + ", " + idColumn + direction;
+    }
+}
@@ -0,0 +1,192 @@
+package com.revature.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The SqlScriptParser class splits a SQL script into statements as it reads it, so a fixture file of any size
+ * is parsed in constant memory: only the statement being read is held.
+ *
+ * Statements end at a semicolon that is not inside a 'string', a "quoted identifier", a $$dollar quoted$$
+ * block, a -- line comment or a block comment. Comments are dropped from the statements, and each statement
+ * remembers the line it starts on so errors can point at it.
+ */
+public class SqlScriptParser implements Closeable {
+
+    private final Reader reader;
+    /** The line of the next character read. */
+    private int line = 1;
+    /** A character read ahead and not consumed yet, or -2 for none. */
+    private int peeked = -2;
+
+    /**
+     * A statement of the script.
+     */
+    public static final class ParsedStatement {
+        private final String sql;
+        private final int line;
+
+        public ParsedStatement(String sql, int line) {
+            this.sql = sql;
+            this.line = line;
+        }
+
+        /**
+         * @return the statement, without its terminating semicolon or comments
+         */
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * @return the line of the script the statement starts on, counting from 1
+         */
+        public int getLine() {
+            return line;
+        }
+
+        /**
+         * @return the line number and the start of the statement, on one line
+         */
+        @Override
+        public String toString() {
+            String text = sql.replaceAll("\\s+", " ");
+            return "line " + line + ": " + (text.length() > 80 ? text.substring(0, 77) + "..." : text);
+        }
+    }
+
+    /**
+     * Constructs a parser reading the given script.
+     *
+     * @param reader the script; it is closed with the parser
+     */
+    public SqlScriptParser(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Reads the next statement.
+     *
+     * @return the next non-empty statement, or null at the end of the script
+     * @throws IOException if the script cannot be read
+     * @throws IllegalArgumentException if the script ends inside a string, identifier or comment
+     */
+    public ParsedStatement next() throws IOException {
+        StringBuilder sql = new StringBuilder();
+        int startLine = -1;
+        int c;
+        while ((c = read()) != -1) {
+            if (c == ';') {
+                if (startLine != -1) {
+                    return new ParsedStatement(sql.toString().trim(), startLine);
+                }
+                continue;
+            }
+            if (c == '-' && peek() == '-') {
+                skipLineComment();
+                sql.append(' ');
+                continue;
+            }
+            if (c == '/' && peek() == '*') {
+                read();
+                skipBlockComment();
+                sql.append(' ');
+                continue;
+            }
+            if (startLine == -1) {
+                if (Character.isWhitespace(c)) {
+                    continue;
+                }
+                startLine = line;
+            }
+            sql.append((char) c);
+            if (c == '\'' || c == '"') {
+                copyQuoted(sql, c);
+            } else if (c == '$' && peek() == '$') {
+                sql.append((char) read());
+                copyDollarQuoted(sql);
+            }
+        }
+        return startLine == -1 ? null : new ParsedStatement(sql.toString().trim(), startLine);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Copies a quoted string or identifier up to and including its closing quote. A doubled quote is an
+     * escaped quote, not the end.
+     */
+    private void copyQuoted(StringBuilder sql, int quote) throws IOException {
+        int startLine = line;
+        int c;
+        while ((c = read()) != -1) {
+            sql.append((char) c);
+            if (c == quote) {
+                if (peek() != quote) {
+                    return;
+                }
+                sql.append((char) read());
+            }
+        }
+        throw new IllegalArgumentException("Unterminated " + (quote == '\'' ? "string" : "quoted identifier")
+                + " starting on line " + startLine);
+    }
+
+    private void copyDollarQuoted(StringBuilder sql) throws IOException {
+        int startLine = line;
+        int c;
+        while ((c = read()) != -1) {
+            sql.append((char) c);
+            if (c == '$' && peek() == '$') {
+                sql.append((char) read());
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated $$ block starting on line " + startLine);
+    }
+
+    private void skipLineComment() throws IOException {
+        int c;
+        while ((c = peek()) != -1 && c != '\n') {
+            read();
+        }
+    }
+
+    private void skipBlockComment() throws IOException {
+        int startLine = line;
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '*' && peek() == '/') {
+                read();
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated comment starting on line " + startLine);
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (peeked != -2) {
+            c = peeked;
+            peeked = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+}
@@ -0,0 +1,248 @@
+package com.revature.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import com.revature.util.SqlScriptParser.ParsedStatement;
+
+/**
+ * The SqlScriptRunner class runs a SQL script statement by statement as {@link SqlScriptParser} reads it.
+ *
+ * Consecutive INSERT, UPDATE, DELETE and MERGE statements are sent as JDBC batches of up to batchSize
+ * statements, so seeding a fixture of hundreds of thousands of rows costs a few hundred round trips instead of
+ * one per row. Any other statement, such as DDL, first sends the pending batch and then runs alone, so it sees
+ * every row written before it.
+ *
+ * Every batch and every statement run alone is timed, and the run is returned as a {@link Report}. A failing
+ * statement is reported with an SQLException naming the script and the line the statement starts on; the
+ * runner does not commit or roll back, that is left to the caller.
+ */
+public class SqlScriptRunner {
+
+    /** The default number of statements sent in one batch. */
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    private final int batchSize;
+
+    /**
+     * Constructs a runner with batches of {@value #DEFAULT_BATCH_SIZE} statements.
+     */
+    public SqlScriptRunner() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize the largest number of statements sent in one batch
+     */
+    public SqlScriptRunner(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Runs a script.
+     *
+     * @param connection the connection to run the statements on
+     * @param script the script; it is read to the end but not closed
+     * @param scriptName the name used in errors and in the report
+     * @return the statements run and how long they took
+     * @throws SQLException if a statement fails, naming the line it starts on
+     * @throws IOException if the script cannot be read
+     */
+    public Report run(Connection connection, Reader script, String scriptName) throws SQLException, IOException {
+        Report report = new Report(scriptName);
+        SqlScriptParser parser = new SqlScriptParser(script);
+        List<ParsedStatement> batch = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            ParsedStatement next;
+            while ((next = parse(parser, scriptName)) != null) {
+                if (isBatchable(next.getSql())) {
+                    statement.addBatch(next.getSql());
+                    batch.add(next);
+                    if (batch.size() >= batchSize) {
+                        executeBatch(statement, batch, report);
+                    }
+                } else {
+                    executeBatch(statement, batch, report);
+                    long start = System.nanoTime();
+                    try {
+                        statement.execute(next.getSql());
+                    } catch (SQLException e) {
+                        throw failure(scriptName, next, e);
+                    }
+                    report.add(new Timing(next, 1, System.nanoTime() - start));
+                }
+            }
+            executeBatch(statement, batch, report);
+        }
+        return report;
+    }
+
+    private void executeBatch(Statement statement, List<ParsedStatement> batch, Report report)
+            throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            statement.executeBatch();
+        } catch (BatchUpdateException e) {
+            throw failure(report.getScriptName(), batch.get(failedIndex(e, batch.size())), e);
+        } finally {
+            statement.clearBatch();
+        }
+        report.add(new Timing(batch.get(0), batch.size(), System.nanoTime() - start));
+        batch.clear();
+    }
+
+    /**
+     * @return the index of the first statement of a batch that failed; drivers either report a count for every
+     *         statement, marking failures, or only for the statements before the first failure
+     */
+    private static int failedIndex(BatchUpdateException e, int batchSize) {
+        int[] counts = e.getUpdateCounts();
+        if (counts == null) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return Math.min(counts.length, batchSize - 1);
+    }
+
+    private static ParsedStatement parse(SqlScriptParser parser, String scriptName) throws IOException {
+        try {
+            return parser.next();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(scriptName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static SQLException failure(String scriptName, ParsedStatement statement, SQLException cause) {
+        SQLException reported = cause;
+        if (cause instanceof BatchUpdateException && cause.getNextException() != null) {
+            reported = cause.getNextException();
+        }
+        return new SQLException(scriptName + " failed at " + statement + "\n" + reported.getMessage(),
+                reported.getSQLState(), reported.getErrorCode(), cause);
+    }
+
+    private static boolean isBatchable(String sql) {
+        int end = 0;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        switch (sql.substring(0, end).toUpperCase(Locale.ROOT)) {
+            case "INSERT":
+            case "UPDATE":
+            case "DELETE":
+            case "MERGE":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * How long a statement, or a batch of statements starting with it, took to run.
+     */
+    public static final class Timing {
+        private final ParsedStatement first;
+        private final int statements;
+        private final long nanos;
+
+        private Timing(ParsedStatement first, int statements, long nanos) {
+            this.first = first;
+            this.statements = statements;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the line the statement, or the first statement of the batch, starts on
+         */
+        public int getLine() {
+            return first.getLine();
+        }
+
+        /**
+         * @return the number of statements run, more than 1 for a batch
+         */
+        public int getStatements() {
+            return statements;
+        }
+
+        public double getMillis() {
+            return nanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%.1f ms %s%s", getMillis(), first,
+                    statements > 1 ? " (batch of " + statements + ")" : "");
+        }
+    }
+
+    /**
+     * The statements a script ran and how long each took.
+     */
+    public static final class Report {
+        private final String scriptName;
+        private final List<Timing> timings = new ArrayList<>();
+        private int statements;
+        private long nanos;
+
+        private Report(String scriptName) {
+            this.scriptName = scriptName;
+        }
+
+        private void add(Timing timing) {
+            timings.add(timing);
+            statements += timing.statements;
+            nanos += timing.nanos;
+        }
+
+        public String getScriptName() {
+            return scriptName;
+        }
+
+        /**
+         * @return a timing for every statement run alone and every batch, in script order
+         */
+        public List<Timing> getTimings() {
+            return timings;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public double getMillis() {
+            return nanos / 1_000_000.0;
+        }
+
+        /**
+         * @param count the number of timings to return
+         * @return the slowest timings, slowest first
+         */
+        public List<Timing> slowest(int count) {
+            List<Timing> sorted = new ArrayList<>(timings);
+            sorted.sort(Comparator.comparingLong((Timing timing) -> timing.nanos).reversed());
+            return sorted.subList(0, Math.min(count, sorted.size()));
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: %d statements in %.1f ms, slowest %s", scriptName, statements,
+                    getMillis(), slowest(1).isEmpty() ? "none" : slowest(1).get(0));
+        }
+    }
+}
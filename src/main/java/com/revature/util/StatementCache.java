@@ -0,0 +1,82 @@
+package com.revature.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The StatementCache class holds the prepared statements of one physical connection that are not currently
+ * in use, keyed by SQL text. A statement is taken out of the cache while a borrower uses it and put back when
+ * the borrower closes it, so two open handles never share one statement. When the cache is full the least
+ * recently used statement is closed to make room.
+ */
+final class StatementCache {
+
+    /** The largest number of idle statements kept for the connection. */
+    private final int capacity;
+    /** Idle statements in access order, least recently used first. */
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Removes and returns the idle statement prepared for the given key.
+     *
+     * @param key the SQL text, plus any prepare options, the statement was prepared with
+     * @return the cached statement, or null if none is idle or the cached one has been closed
+     */
+    synchronized PreparedStatement take(String key) {
+        PreparedStatement statement = statements.remove(key);
+        try {
+            if (statement != null && statement.isClosed()) {
+                return null;
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+        return statement;
+    }
+
+    /**
+     * Returns a statement to the cache, evicting the least recently used statement if the cache is full.
+     * If a statement for the same key is already cached, the returned statement is closed instead.
+     *
+     * @param key the key the statement was prepared with
+     * @param statement the statement, with its parameters already cleared
+     */
+    synchronized void put(String key, PreparedStatement statement) {
+        if (statements.containsKey(key)) {
+            closeQuietly(statement);
+            return;
+        }
+        if (statements.size() >= capacity) {
+            Iterator<Map.Entry<String, PreparedStatement>> eldest = statements.entrySet().iterator();
+            closeQuietly(eldest.next().getValue());
+            eldest.remove();
+        }
+        statements.put(key, statement);
+    }
+
+    /** @return the number of idle statements currently cached */
+    synchronized int size() {
+        return statements.size();
+    }
+
+    /** Closes every cached statement. */
+    synchronized void clear() {
+        statements.values().forEach(StatementCache::closeQuietly);
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // the statement is being thrown away; there is nothing left to do with it
+        }
+    }
+}
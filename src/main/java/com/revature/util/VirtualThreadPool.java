@@ -0,0 +1,103 @@
+package com.revature.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+/**
+ * The VirtualThreadPool class is a Jetty thread pool that runs every task on a new virtual thread (JDK 21).
+ *
+ * Handlers block on JDBC, and on a platform thread pool every blocked request holds a thread, so slow requests
+ * are capped by the size of the pool. A virtual thread that blocks only parks, so thousands of slow requests
+ * can be in flight on a handful of carrier threads. Nothing here limits concurrency: the database connection
+ * pool does, as requests beyond its size wait for a connection. The pool is never low on threads, so Jetty
+ * never sheds work because of it.
+ *
+ * {@link JavalinAppUtil} uses this pool when the server.threads system property is set to virtual.
+ */
+public class VirtualThreadPool implements ThreadPool {
+
+    private final ExecutorService executor;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final LongAdder executed = new LongAdder();
+
+    /**
+     * Constructs a pool whose threads are named after the given prefix.
+     *
+     * @param name the prefix of the virtual threads' names
+     */
+    public VirtualThreadPool(String name) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executed.increment();
+        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            running.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until the pool has been shut down and its last task has finished.
+     */
+    @Override
+    public void join() throws InterruptedException {
+        while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            // keep waiting, like a server join
+        }
+    }
+
+    /**
+     * @return the number of tasks currently running, each on its own virtual thread
+     */
+    @Override
+    public int getThreads() {
+        return running.get();
+    }
+
+    /** Virtual threads are never kept idle. */
+    @Override
+    public int getIdleThreads() {
+        return 0;
+    }
+
+    /** A new virtual thread can always be started. */
+    @Override
+    public boolean isLowOnThreads() {
+        return false;
+    }
+
+    /** Stops accepting tasks; running tasks finish normally. */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * @return the number of running tasks, the most that ran at once and the number executed so far
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running.get());
+        stats.put("peakRunning", peak.get());
+        stats.put("executed", executed.sum());
+        return stats;
+    }
+}
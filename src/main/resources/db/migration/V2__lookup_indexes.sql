@@ -0,0 +1,23 @@
+-- V2: Lookup Indexes
+-- Adds an index for every access pattern of the DAOs that no other index covers, and widens
+-- recipe instructions. Each index is listed with the queries it serves. Every statement can be run again, so
+-- databases created before migrations were tracked can apply it safely.
+--
+-- Recipe by chef: RECIPE_CHEF_SORT_IDX (chef_id, id), created by V3, serves it, and the cascade when a chef
+-- is deleted.
+
+
+-- Ingredients by recipe: IngredientDAO.getRecipeIngredients reads recipe_id, id, ingredient_id, vol and unit
+-- for a list of recipe ids, ordered by recipe_id and id. The index holds all of them, so the rows are read
+-- from the index alone and already in order.
+CREATE INDEX IF NOT EXISTS RECIPE_INGREDIENT_RECIPE_IDX ON RECIPE_INGREDIENT(recipe_id, id, ingredient_id, vol, unit);
+
+-- Recipes by ingredient: finds the recipes that use an ingredient, including the cascade when an ingredient
+-- is deleted.
+CREATE INDEX IF NOT EXISTS RECIPE_INGREDIENT_INGREDIENT_IDX ON RECIPE_INGREDIENT(ingredient_id, recipe_id);
+
+-- Recipe instructions longer than 255 characters were rejected.
+ALTER TABLE RECIPE ALTER COLUMN instructions SET DATA TYPE VARCHAR(4000);
+
+-- Refresh the statistics the optimizer chooses indexes with.
+ANALYZE;
@@ -0,0 +1,15 @@
+-- V3: Sort Indexes
+-- Every sort key a page can be ordered by (see SortSpec) has an index on (column, id), matching the
+-- ORDER BY column, id that pages use, so a sorted page is an index scan instead of a sort of every row.
+-- Sorting by id uses the primary key. Every statement can be run again, so databases that already have
+-- these indexes can apply it safely.
+
+
+CREATE INDEX IF NOT EXISTS CHEF_USERNAME_SORT_IDX ON CHEF(username, id);
+CREATE INDEX IF NOT EXISTS CHEF_EMAIL_SORT_IDX ON CHEF(email, id);
+CREATE INDEX IF NOT EXISTS RECIPE_NAME_SORT_IDX ON RECIPE(name, id);
+CREATE INDEX IF NOT EXISTS RECIPE_CHEF_SORT_IDX ON RECIPE(chef_id, id);
+CREATE INDEX IF NOT EXISTS INGREDIENT_NAME_SORT_IDX ON INGREDIENT(name, id);
+
+-- Refresh the statistics the optimizer chooses indexes with.
+ANALYZE;
@@ -0,0 +1,114 @@
+package com.revature.test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.controller.AuthenticationController;
+import com.revature.controller.IngredientController;
+import com.revature.controller.RecipeController;
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.JavalinAppUtil;
+
+import io.javalin.Javalin;
+
+/**
+ * Measures the bulk import endpoints against the embedded database. Not a JUnit test: run its main method.
+ *
+ * Logs in as an admin, imports a catalog of ingredients through POST /ingredients/bulk, then recipes naming a
+ * few of them each through POST /recipes/bulk as one NDJSON stream, and reports how many recipes were written
+ * per second. A smaller import is run first to warm up the JIT and the connection pool.
+ *
+ * Arguments, all optional: recipes (50000), ingredients per recipe (5), chunk size (1000).
+ */
+public class BulkImportBenchmark {
+
+    private static final int PORT = 8090;
+    private static final String BASE_URL = "http://localhost:" + PORT;
+    private static final int CATALOG_SIZE = 500;
+
+    public static void main(String[] args) throws Exception {
+        int recipes = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int ingredientsPerRecipe = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int chunkSize = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        ChefDAO chefDAO = new ChefDAO(connectionUtil);
+        IngredientDAO ingredientDAO = new IngredientDAO(connectionUtil);
+        RecipeDAO recipeDAO = new RecipeDAO(chefDAO, ingredientDAO, connectionUtil);
+        ChefService chefService = new ChefService(chefDAO);
+        AuthenticationService authService = new AuthenticationService(chefService);
+        Javalin app = new JavalinAppUtil(new RecipeController(new RecipeService(recipeDAO), authService),
+                new AuthenticationController(chefService, authService),
+                new IngredientController(new IngredientService(ingredientDAO))).getApp();
+        app.start(PORT);
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            String token = client.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/login"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"ChefTrevin\",\"password\":\"trevature\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString()).body();
+
+            StringBuilder catalog = new StringBuilder("[");
+            for (int i = 0; i < CATALOG_SIZE; i++) {
+                catalog.append(i == 0 ? "" : ",").append("\"ingredient-").append(i).append('"');
+            }
+            JsonNode imported = post(client, "/ingredients/bulk", token, catalog.append(']').toString());
+            System.out.printf("%d ingredients imported%n", imported.get("created").asInt());
+
+            run(client, token, "warm-up", Math.min(recipes, 5_000), ingredientsPerRecipe, chunkSize);
+            long start = System.nanoTime();
+            int created = run(client, token, "recipe", recipes, ingredientsPerRecipe, chunkSize);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d recipes with %d ingredients each in chunks of %d: %.2f s, %.0f recipes/s%n",
+                    created, ingredientsPerRecipe, chunkSize, seconds, created / seconds);
+        } finally {
+            app.stop();
+        }
+    }
+
+    private static int run(HttpClient client, String token, String prefix, int recipes, int ingredientsPerRecipe,
+            int chunkSize) throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < recipes; i++) {
+            ndjson.append("{\"name\":\"").append(prefix).append(' ').append(i)
+                    .append("\",\"instructions\":\"Mix everything and bake for ").append(i % 60)
+                    .append(" minutes.\",\"ingredients\":[");
+            for (int j = 0; j < ingredientsPerRecipe; j++) {
+                ndjson.append(j == 0 ? "" : ",").append("{\"name\":\"ingredient-")
+                        .append((i * 7 + j * 13) % CATALOG_SIZE).append("\",\"volume\":").append(j + 1)
+                        .append(",\"unit\":\"g\"}");
+            }
+            ndjson.append("]}\n");
+        }
+        JsonNode result = post(client, "/recipes/bulk?chunkSize=" + chunkSize, token, ndjson.toString());
+        if (result.has("error") || result.get("created").asInt() != recipes) {
+            throw new IllegalStateException("Import did not create every recipe: " + result.get("created")
+                    + " created, " + result.get("conflicts") + " conflicts, " + result.get("invalid") + " invalid");
+        }
+        return result.get("created").asInt();
+    }
+
+    private static JsonNode post(HttpClient client, String path, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .header("Content-Type", "application/x-ndjson")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " responded " + response.statusCode() + ": " + response.body());
+        }
+        return new ObjectMapper().readTree(response.body());
+    }
+}
@@ -3,6 +3,7 @@ package com.revature.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.util.List;
 
@@ -93,7 +94,10 @@ public class ChefDaoTest {
         assertEquals("chef1", chefs.get(0).getUsername());
         assertEquals("chef2", chefs.get(1).getUsername());
 
-        verify(statement).executeQuery("SELECT * FROM CHEF ORDER BY id");
+        verify(connection).prepareStatement("SELECT * FROM CHEF ORDER BY id");
+        verify(resultSet).close();
+        verify(preparedStatement).close();
+        verify(connection).close();
     }
 
     @Test
@@ -116,6 +120,7 @@ public class ChefDaoTest {
         assertEquals("test@chef.com", chef.getEmail());
 
         verify(preparedStatement).setInt(1, 1);
+        verify(connection).close();
     }
 
     @Test
@@ -165,4 +170,65 @@ public class ChefDaoTest {
         verify(preparedStatement).setInt(1, testChef.getId());
         verify(preparedStatement).executeUpdate();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetChefByIdIsCachedUntilUpdated() throws Exception {
+        // Arrange
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getInt("id")).thenReturn(1);
+        when(resultSet.getString("username")).thenReturn("testChef");
+        when(resultSet.getString("email")).thenReturn("test@chef.com");
+        when(resultSet.getString("password")).thenReturn("password123");
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+
+        // Act
+        Chef first = chefDAO.getChefById(1);
+        first.setUsername("changedByCaller");
+        Chef second = chefDAO.getChefById(1);
+
+        // Assert
+        assertNull(first.getPassword(), "Looked up chefs should not carry a password");
+        assertEquals("testChef", second.getUsername(), "Callers should get copies of the cached chef");
+        verify(connection, times(1)).prepareStatement("SELECT * FROM CHEF WHERE id = ?");
+
+        chefDAO.updateChef(testChef);
+        chefDAO.getChefById(1);
+        verify(connection, times(2)).prepareStatement("SELECT * FROM CHEF WHERE id = ?");
+    }
+
+    @Test
+    public void testGetChefByUsername() throws Exception {
+        // Arrange
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getInt("id")).thenReturn(1);
+        when(resultSet.getString("username")).thenReturn("testChef");
+        when(resultSet.getString("password")).thenReturn("password123");
+
+        // Act
+        Chef chef = chefDAO.getChefByUsername("testChef");
+
+        // Assert
+        assertEquals("password123", chef.getPassword(), "The login lookup needs the stored password");
+        verify(connection).prepareStatement("SELECT * FROM CHEF WHERE username = ?");
+        verify(preparedStatement).setString(1, "testChef");
+    }
+
+    @Test
+    public void testUnknownUsernamesAreCachedUntilCreated() throws Exception {
+        // Arrange: the lookup finds no row, then the insert returns its generated key
+        when(resultSet.next()).thenReturn(false, true);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        when(preparedStatement.getGeneratedKeys()).thenReturn(resultSet);
+
+        // Act
+        assertNull(chefDAO.getChefByUsername("nobody"));
+        assertNull(chefDAO.getChefByUsername("nobody"));
+
+        // Assert
+        verify(connection, times(1)).prepareStatement("SELECT * FROM CHEF WHERE username = ?");
+
+        chefDAO.createChef(new Chef("nobody", "nobody@chef.com", "secret", false));
+        chefDAO.getChefByUsername("nobody");
+        verify(connection, times(2)).prepareStatement("SELECT * FROM CHEF WHERE username = ?");
+    }
+}
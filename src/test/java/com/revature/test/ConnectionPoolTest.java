@@ -0,0 +1,130 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.ConnectionPool;
+import com.revature.util.PoolConfig;
+import com.revature.util.PoolStats;
+
+class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        pool = new ConnectionPool(dataSource, new PoolConfig(0, 2, 200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void returnedConnectionsAreReused() throws SQLException {
+        for (int i = 0; i < 5; i++) {
+            try (Connection connection = pool.acquire()) {
+                connection.createStatement().execute("SELECT 1");
+            }
+        }
+        PoolStats stats = pool.getStats();
+        assertEquals(1, stats.getCreated(), () -> "Sequential borrowers should share one physical connection");
+        assertEquals(0, stats.getActive());
+        assertEquals(1, stats.getIdle());
+        assertEquals(5, stats.getAcquireLatency().getCount());
+    }
+
+    @Test
+    void acquireTimesOutWhenPoolIsExhausted() throws SQLException {
+        try (Connection first = pool.acquire(); Connection second = pool.acquire()) {
+            assertFalse(first.isClosed() || second.isClosed());
+            assertEquals(2, pool.getStats().getActive());
+            assertThrows(SQLTransientConnectionException.class, () -> pool.acquire());
+            assertEquals(1, pool.getStats().getTimeouts());
+        }
+    }
+
+    @Test
+    void waiterIsHandedReturnedConnection() throws Exception {
+        Connection first = pool.acquire();
+        Connection second = pool.acquire();
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.acquire();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        first.close();
+        try (Connection third = waiter.get(1, TimeUnit.SECONDS)) {
+            assertFalse(third.isClosed());
+            assertEquals(2, pool.getStats().getCreated(), () -> "The waiter should reuse the returned connection");
+        }
+        second.close();
+    }
+
+    @Test
+    void closedHandleCannotBeUsed() throws SQLException {
+        Connection connection = pool.acquire();
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.createStatement());
+    }
+
+    @Test
+    void repeatedSqlIsServedFromStatementCache() throws SQLException {
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = pool.acquire();
+                    PreparedStatement statement = connection.prepareStatement("SELECT ? + 1")) {
+                statement.setInt(1, i);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    assertEquals(i + 1, resultSet.getInt(1));
+                }
+            }
+        }
+        PoolStats stats = pool.getStats();
+        assertEquals(1, stats.getStatementCacheMisses());
+        assertEquals(2, stats.getStatementCacheHits());
+    }
+
+    @Test
+    void openStatementIsNotSharedWithinConnection() throws SQLException {
+        try (Connection connection = pool.acquire();
+                PreparedStatement first = connection.prepareStatement("SELECT 1");
+                PreparedStatement second = connection.prepareStatement("SELECT 1")) {
+            assertFalse(first.equals(second));
+            assertEquals(2, pool.getStats().getStatementCacheMisses(),
+                    () -> "A statement still in use must not be handed out again");
+        }
+    }
+
+    @Test
+    void closedStatementHandleCannotBeUsed() throws SQLException {
+        try (Connection connection = pool.acquire()) {
+            PreparedStatement statement = connection.prepareStatement("SELECT 1");
+            statement.close();
+            assertTrue(statement.isClosed());
+            assertThrows(SQLException.class, () -> statement.executeQuery());
+        }
+    }
+}
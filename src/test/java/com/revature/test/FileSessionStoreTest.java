@@ -0,0 +1,165 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.revature.model.Chef;
+import com.revature.util.FileSessionStore;
+import com.revature.util.InMemorySessionStore;
+
+public class FileSessionStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private FileSessionStore open(Path file, int maxSessions) throws IOException {
+        return FileSessionStore.open(file, new InMemorySessionStore(60_000, 60_000, maxSessions, 60_000));
+    }
+
+    @Test
+    void sessionsSurviveARestart() throws IOException {
+        Path file = dir.resolve("sessions.log");
+        FileSessionStore store = open(file, 100);
+        store.put("admin", new Chef(1, "ChefTrevin", "trevin@revature.com", "trevature", true));
+        store.put("chef", new Chef(2, "MasterChef", "mc@revature.com", "cooking", false));
+        store.put("gone", new Chef(3, "ChefGone", "gone@revature.com", "bye", false));
+        assertTrue(store.remove("gone"));
+        store.close();
+
+        FileSessionStore reopened = open(file, 100);
+        try {
+            assertEquals(2, reopened.size());
+            assertEquals(new Chef(2, "MasterChef", "mc@revature.com", null, false), reopened.get("chef"),
+                    "Restored sessions should hold the chef without their password");
+            assertTrue(reopened.isAdmin("admin"));
+            assertNull(reopened.get("gone"), "Logged out sessions should stay logged out");
+            assertEquals(2, reopened.getStats().get("loadedSessions"));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void tornRecordAtTheEndIsIgnored() throws IOException {
+        Path file = dir.resolve("sessions.log");
+        FileSessionStore store = open(file, 100);
+        store.put("kept", new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false));
+        store.close();
+
+        // overwrite the end of the log with the start of a record whose payload never made it to disk
+        byte[] log = Files.readAllBytes(file);
+        int end = 8;
+        while (end + 4 <= log.length && readInt(log, end) != 0) {
+            end += 8 + readInt(log, end);
+        }
+        log[end + 3] = 40;
+        log[end + 7] = 1;
+        Files.write(file, log, StandardOpenOption.TRUNCATE_EXISTING);
+
+        FileSessionStore reopened = open(file, 100);
+        reopened.put("next", new Chef(2, "MasterChef", "mc@revature.com", "cooking", false));
+        reopened.close();
+
+        FileSessionStore again = open(file, 100);
+        try {
+            assertTrue(again.get("kept") != null && again.get("next") != null,
+                    "Appends after a torn record should replace it");
+        } finally {
+            again.close();
+        }
+    }
+
+    @Test
+    void logIsCompactedToTheLiveSessions() throws IOException {
+        Path file = dir.resolve("sessions.log");
+        FileSessionStore store = open(file, 100);
+        for (int i = 0; i < 3_000; i++) {
+            store.put("token" + i, new Chef(i, "chef" + i, "", "", false));
+            if (i % 10 != 0) {
+                store.remove("token" + i);
+            }
+        }
+        assertTrue((long) store.getStats().get("compactions") > 0);
+        assertTrue((int) store.getStats().get("logRecords") < 3_000);
+        int live = store.size();
+        store.close();
+
+        FileSessionStore reopened = open(file, 100);
+        try {
+            assertEquals(live, reopened.size(), "Only the most recent sessions within the cap should be kept");
+            assertTrue(reopened.get("token2990") != null);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void replacedMappingsAreReleased() throws IOException {
+        Path maps = Path.of("/proc/self/maps");
+        assumeTrue(Files.isReadable(maps), "Listing the mappings of the process needs /proc");
+        Path file = dir.resolve("sessions.log");
+        FileSessionStore store = open(file, 50_000);
+        try {
+            // grow the log past its first mapping, then log nearly everyone out so that it is compacted
+            for (int i = 0; i < 20_000; i++) {
+                store.put("token" + i, new Chef(i, "chef" + i, "chef@revature.com", "", false));
+            }
+            for (int i = 0; i < 20_000; i++) {
+                if (i % 100 != 0) {
+                    store.remove("token" + i);
+                }
+            }
+            assertTrue((long) store.getStats().get("compactions") > 0);
+            String name = file.toRealPath().toString();
+            long mappings = Files.readAllLines(maps).stream().filter(line -> line.contains(name)).count();
+            assertEquals(1, mappings, "Only the current log should still be mapped");
+            assertEquals(200, store.size());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void manySessionsLoadQuickly() throws IOException {
+        Path file = dir.resolve("sessions.log");
+        FileSessionStore store = open(file, 50_000);
+        for (int i = 0; i < 30_000; i++) {
+            store.put(UUID.randomUUID().toString(), new Chef(i, "chef" + i, "chef@revature.com", "", false));
+        }
+        store.close();
+
+        FileSessionStore reopened = open(file, 50_000);
+        try {
+            assertEquals(30_000, reopened.size());
+            assertTrue((long) reopened.getStats().get("loadMillis") < 1_000,
+                    "Loading tens of thousands of sessions should take well under a second");
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Path file = dir.resolve("notes.txt");
+        Files.writeString(file, "not a session file");
+        assertThrows(IOException.class, () -> open(file, 100));
+        assertEquals("not a session file", Files.readString(file), "Rejected files should be left untouched");
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xff) << 24) | ((bytes[offset + 1] & 0xff) << 16)
+                | ((bytes[offset + 2] & 0xff) << 8) | (bytes[offset + 3] & 0xff);
+    }
+}
@@ -4,11 +4,13 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.revature.model.Ingredient;
+import com.revature.model.RecipeIngredient;
 import com.revature.dao.IngredientDAO;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.DBUtil;
@@ -16,7 +18,12 @@ import com.revature.util.Page;
 import com.revature.util.PageOptions;
 import static com.revature.test.utils.TestingUtils.assertCountDifference;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class IngredientDaoTest {
     private List<Ingredient> ingredientList = new ArrayList<>();
@@ -78,6 +85,13 @@ public class IngredientDaoTest {
                         + " Actual: " + updatedIngredient.getName());
     }
 
+    @Test
+    void updateMissingIngredientIsNotSuggestedTest() {
+        ingredientDao.updateIngredient(new Ingredient(99, "phantom"));
+        assertTrue(ingredientDao.getPrefixIndex().suggest("phan", 10).isEmpty(),
+                () -> "An update that matched no row should not add a suggestion");
+    }
+
     @Test
     void getAllIngredientsTest() {
         List<Ingredient> ingredients = ingredientDao.getAllIngredients();
@@ -115,6 +129,18 @@ public class IngredientDaoTest {
                         + " Actual: " + ingredients);
     }
 
+    @Test
+    void getRecipeIngredientsTest() {
+        Map<Integer, List<RecipeIngredient>> ingredients = ingredientDao.getRecipeIngredients(Arrays.asList(1, 4, 5));
+        assertEquals(1, ingredients.get(1).size(), "Recipe 1 should have one ingredient");
+        assertEquals("carrot", ingredients.get(1).get(0).getName());
+        assertEquals(Arrays.asList("lemon", "rice"),
+                Arrays.asList(ingredients.get(4).get(0).getName(), ingredients.get(4).get(1).getName()));
+        assertEquals(2.0, ingredients.get(4).get(1).getVolume());
+        assertEquals("cups", ingredients.get(4).get(1).getUnit());
+        assertNull(ingredients.get(5), "Recipes without ingredients should be absent from the result");
+    }
+
     @Test
     void searchAndPageIngredientsTest() {
         // Use a search term and specify page and sort options
@@ -132,4 +158,78 @@ public class IngredientDaoTest {
                 "The returned ingredients don't match the expected ingredients.");
     }
 
+    @Test
+    void keysetPagesWalkWholeTableTest() {
+        List<Ingredient> walked = new ArrayList<>();
+        PageOptions pageOptions = new PageOptions(1, 4, "name", "desc");
+        pageOptions.setAfter("");
+        Page<Ingredient> page = ingredientDao.getAllIngredients(pageOptions);
+        walked.addAll(page.getItems());
+        assertEquals(4, page.getItems().size());
+        assertNotNull(page.getNextCursor(), "A full page with more rows should carry a next cursor");
+
+        pageOptions.setAfter(page.getNextCursor());
+        page = ingredientDao.getAllIngredients(pageOptions);
+        walked.addAll(page.getItems());
+        assertNull(page.getNextCursor(), "The last page should not carry a next cursor");
+        assertEquals(6, page.getTotalElements());
+
+        List<Ingredient> expected = Arrays.asList(ingredientList.get(2), ingredientList.get(5), ingredientList.get(4),
+                ingredientList.get(1), ingredientList.get(3), ingredientList.get(0));
+        assertIterableEquals(expected, walked, () -> "Keyset pages should cover every ingredient once, in order");
+    }
+
+    @Test
+    void keysetPageRejectsInvalidCursorTest() {
+        PageOptions pageOptions = new PageOptions(1, 2, "id", "asc");
+        pageOptions.setAfter("not a cursor");
+        assertThrows(IllegalArgumentException.class, () -> ingredientDao.getAllIngredients(pageOptions));
+    }
+
+    @Test
+    void pageWithoutTotalsTest() {
+        PageOptions pageOptions = new PageOptions(2, 2, "ID", "ASC");
+        pageOptions.setWithTotals(false);
+        Page<Ingredient> page = ingredientDao.getAllIngredients(pageOptions);
+        assertIterableEquals(Arrays.asList(ingredientList.get(2), ingredientList.get(3)), page.getItems());
+        assertTrue(page.getHasNext(), "A middle page should report a next page");
+        assertEquals(-1, page.getTotalElements(), "Totals should not be counted when they are not requested");
+        assertEquals(-1, page.getTotalPages(), "Totals should not be counted when they are not requested");
+
+        pageOptions.setPageNumber(3);
+        page = ingredientDao.getAllIngredients(pageOptions);
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.getHasNext(), "The last page should not report a next page");
+    }
+
+    @Test
+    void cachedTotalsFollowWritesTest() {
+        PageOptions pageOptions = new PageOptions(1, 2, "ID", "ASC");
+        assertEquals(6, ingredientDao.getAllIngredients(pageOptions).getTotalElements());
+        assertEquals(3, ingredientDao.searchIngredients("to", pageOptions).getTotalElements());
+
+        ingredientDao.createIngredient(new Ingredient("tofu"));
+        assertEquals(7, ingredientDao.getAllIngredients(pageOptions).getTotalElements(),
+                "Creating an ingredient should refresh the cached total");
+        assertEquals(4, ingredientDao.searchIngredients("to", pageOptions).getTotalElements(),
+                "Creating an ingredient should refresh cached search totals");
+
+        ingredientDao.deleteIngredientById(7);
+        assertEquals(6, ingredientDao.getAllIngredients(pageOptions).getTotalElements(),
+                "Deleting an ingredient should refresh the cached total");
+    }
+
+    @Test
+    void createIngredientsSkipsTakenNamesTest() {
+        assertCountDifference(2, "Expected only the two new names to be inserted", countSelStatement, () -> {
+            Map<String, Integer> created = ingredientDao.createIngredients(
+                    Arrays.asList("basil", "carrot", "thyme", "basil"));
+            assertEquals(Map.of("basil", 7, "thyme", 8), created);
+        });
+        assertEquals(new Ingredient(8, "thyme"), ingredientDao.getIngredientById(8));
+        assertEquals(8, ingredientDao.getAllIngredients(new PageOptions(1, 2, "id", "asc")).getTotalElements(),
+                "Creating ingredients should refresh the cached total");
+        assertIterableEquals(Arrays.asList(new Ingredient(7, "basil")),
+                ingredientDao.getPrefixIndex().suggest("bas", 10));
+    }
 }
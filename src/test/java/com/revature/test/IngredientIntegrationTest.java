@@ -108,5 +108,19 @@ public class IngredientIntegrationTest {
             assertEquals("{\"pageNumber\":1,\"pageSize\":3,\"totalPages\":1,\"totalElements\":3,\"items\":[{\"id\":3,\"name\":\"tomato\"},{\"id\":6,\"name\":\"stone\"},{\"id\":2,\"name\":\"potato\"}]}", client.get("/ingredients?term=to&sortBy=name&sortDirection=desc&page=1&pageSize=3").body().string());
         });
     }
-    
-}
\ No newline at end of file
+
+    @Test
+    void testSuggestIngredients() {
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(200, client.get("/ingredients/suggest?prefix=Po").code());
+            assertEquals("[{\"id\":2,\"name\":\"potato\"}]", client.get("/ingredients/suggest?prefix=Po").body().string());
+            assertEquals(201, client.post("/ingredients", "{\"name\": \"parsnips\"}").code());
+            assertEquals("[{\"id\":7,\"name\":\"parsnips\"}]", client.get("/ingredients/suggest?prefix=p&limit=1").body().string());
+            assertEquals(204, client.delete("/ingredients/7").code());
+            assertEquals("[{\"id\":2,\"name\":\"potato\"}]", client.get("/ingredients/suggest?prefix=p").body().string());
+            assertEquals("[]", client.get("/ingredients/suggest?prefix=").body().string());
+            assertEquals(400, client.get("/ingredients/suggest?prefix=p&limit=0").code());
+        });
+    }
+
+}
@@ -10,10 +10,15 @@ import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +29,8 @@ import com.revature.model.Ingredient;
 import com.revature.model.Recipe;
 import com.revature.dao.IngredientDAO;
 import com.revature.service.IngredientService;
+import com.revature.util.BulkResult;
+import com.revature.util.JsonItemReader;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 
@@ -142,4 +149,33 @@ public class IngredientServiceTest {
         verify(ingredientDao).searchIngredients(termCaptor.capture(), optionsCaptor.capture());
         assertEquals(new Page<Recipe>(0, 0, 0, 0, Collections.emptyList()), ingredients, () -> "Service shouldn't change the page returned from the dao");
     }
+
+    @Test
+    void importIngredientsReportsEveryItem() throws IOException {
+        when(ingredientDao.createIngredients(Arrays.asList("Salt", "carrot"))).thenReturn(new HashMap<>(Map.of("Salt", 7)));
+        when(ingredientDao.createIngredients(Arrays.asList("Salt"))).thenReturn(new HashMap<>());
+        BulkResult result = ingredientService.importIngredients(
+                reader("[\"Salt\", {\"name\":\"carrot\"}, {\"name\":\"\"}, \"Salt\", \"Much too long for a name\"]"), 2);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getConflicts());
+        assertEquals(2, result.getInvalid());
+        assertEquals(2, result.getChunks(), "Every chunk should be written in its own transaction");
+        assertEquals(Integer.valueOf(7), result.getItems().get(0).getId());
+        assertIterableEquals(Arrays.asList(BulkResult.CREATED, BulkResult.CONFLICT, BulkResult.INVALID, BulkResult.CONFLICT,
+                BulkResult.INVALID), result.getItems().stream().map(BulkResult.Item::getStatus).toList());
+    }
+
+    @Test
+    void importIngredientsKeepsItemsBeforeMalformedJson() throws IOException {
+        when(ingredientDao.createIngredients(Arrays.asList("Salt"))).thenReturn(new HashMap<>(Map.of("Salt", 7)));
+        BulkResult result = ingredientService.importIngredients(reader("{\"name\":\"Salt\"}\n{\"name\":"), 10);
+
+        assertEquals(1, result.getCreated(), "Items read before the malformed one should still be written");
+        assertTrue(result.getError().startsWith("Malformed item 1"), result.getError());
+    }
+
+    private static JsonItemReader<Ingredient> reader(String body) throws IOException {
+        return new JsonItemReader<>(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), Ingredient.class);
+    }
 }
\ No newline at end of file
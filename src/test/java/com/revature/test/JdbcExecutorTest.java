@@ -0,0 +1,102 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.JdbcExecutor;
+
+public class JdbcExecutorTest {
+
+    private JdbcExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new JdbcExecutor(1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void workIsRejectedOnceThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> running = executor.supply(() -> {
+            started.countDown();
+            await(release);
+            return 1;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> queued = executor.supply(() -> 2);
+
+        CompletableFuture<Integer> rejected = executor.supply(() -> 3);
+        CompletionException failure = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(failure.getCause() instanceof RejectedExecutionException);
+        assertEquals(1L, executor.getStats().get("rejected"));
+
+        release.countDown();
+        assertEquals(1, running.get(5, TimeUnit.SECONDS));
+        assertEquals(2, queued.get(5, TimeUnit.SECONDS), "Queued work should still run once a thread is free");
+        assertEquals(2L, executor.getStats().get("completed"));
+    }
+
+    @Test
+    void sqlExceptionsFailTheFutureWrapped() {
+        SQLException error = new SQLException("connection lost");
+        CompletableFuture<Integer> result = executor.supply(() -> {
+            throw error;
+        });
+        CompletionException failure = assertThrows(CompletionException.class, result::join);
+        assertSame(error, failure.getCause());
+    }
+
+    @Test
+    void workFromAVirtualThreadRunsOnThatThread() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.supply(() -> {
+            await(release);
+            return 0;
+        });
+        executor.supply(() -> 0);
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        AtomicReference<CompletableFuture<Integer>> result = new AtomicReference<>();
+        Thread caller = Thread.ofVirtual().start(() -> result.set(executor.supply(() -> {
+            ranOn.set(Thread.currentThread());
+            return 42;
+        })));
+        caller.join(5_000);
+
+        assertEquals(42, result.get().getNow(null), "Work from a virtual thread should not wait for the pool");
+        assertSame(caller, ranOn.get());
+        assertFalse(result.get().isCompletedExceptionally());
+        assertEquals(1L, executor.getStats().get("inline"));
+        assertEquals(0L, executor.getStats().get("rejected"), "A full pool should not turn virtual threads away");
+        release.countDown();
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
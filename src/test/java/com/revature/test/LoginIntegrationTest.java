@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Map;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -28,6 +29,8 @@ import com.revature.util.AdminMiddleware;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.DBUtil;
 import com.revature.util.JavalinAppUtil;
+import com.revature.util.MetricsRegistry;
+import com.revature.util.PasswordHasher;
 
 import io.javalin.Javalin;
 import io.javalin.json.JavalinJackson;
@@ -87,7 +90,9 @@ class LoginIntegrationTest {
 	@Test
 	void testSuccessfulLogin() throws IOException {
 		Chef chef = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
-		Recipe newRecipe = new Recipe(6, "fried fish", "fish, oil, stove", chef);
+		// recipes render their author without a password
+		Recipe newRecipe = new Recipe(6, "fried fish", "fish, oil, stove",
+				new Chef(1, "JoeCool", "snoopy@null.com", null, false));
 
 		// Prepare login request body
 		RequestBody chefBody = RequestBody.create(
@@ -161,6 +166,36 @@ class LoginIntegrationTest {
 
 	}
 
+	@Test
+	void testLoginHashesLegacyPassword() throws IOException, SQLException {
+		RequestBody chefBody = RequestBody.create("{\"username\":\"JoeCool\", \"password\":\"redbarron\"}",
+				MediaType.get("application/json; charset=utf-8"));
+		Response firstLogin = client.newCall(new Request.Builder().url(BASE_URL + "/login").post(chefBody).build())
+				.execute();
+		assertEquals(200, firstLogin.code());
+		String stored = chefDAO.getChefByUsername("JoeCool").getPassword();
+		assertThat(PasswordHasher.isHash(stored)).as("The plain text password should be replaced by its hash").isTrue();
+
+		Response secondLogin = client.newCall(new Request.Builder().url(BASE_URL + "/login").post(chefBody).build())
+				.execute();
+		assertEquals(200, secondLogin.code(), () -> "The hashed password should still log in");
+	}
+
+	@Test
+	void testUnknownUsernameIsHashedLikeAWrongPassword() throws IOException {
+		long before = hashes();
+		RequestBody chefBody = RequestBody.create("{\"username\":\"NoSuchChef\", \"password\":\"redbarron\"}",
+				MediaType.get("application/json; charset=utf-8"));
+		Response loginResponse = client.newCall(new Request.Builder().url(BASE_URL + "/login").post(chefBody).build())
+				.execute();
+		assertEquals(401, loginResponse.code());
+		assertEquals(before + 1, hashes(), () -> "An unknown username should be verified against a dummy hash");
+	}
+
+	private static long hashes() {
+		return (Long) ((Map<?, ?>) MetricsRegistry.snapshot().get("passwordHasher")).get("hashes");
+	}
+
 	@Test
 	void testLogout() throws IOException {
 		Chef chef = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
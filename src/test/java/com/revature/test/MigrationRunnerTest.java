@@ -0,0 +1,100 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.MigrationRunner;
+import com.revature.util.MigrationRunner.Migration;
+
+class MigrationRunnerTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = new ConnectionUtil().getConnection();
+        execute("DROP ALL OBJECTS");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+        DBUtil.RUN_SQL();
+    }
+
+    @Test
+    void appliesEveryVersionOnceAndSkipsAWarmDatabase() throws SQLException {
+        MigrationRunner runner = new MigrationRunner();
+        assertEquals(List.of(1, 2, 3), runner.migrate(connection));
+        assertEquals(3, MigrationRunner.currentVersion(connection));
+        execute("INSERT INTO INGREDIENT(name) VALUES ('saffron')");
+
+        assertEquals(List.of(), runner.migrate(connection), "A current database should need no work");
+        assertEquals(7, count("SELECT COUNT(*) FROM INGREDIENT"), "Data should survive a restart");
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    void adoptsADatabaseCreatedBeforeVersionsWereTracked() throws SQLException {
+        execute(MigrationRunner.MIGRATIONS.get(0).getScript());
+        execute("INSERT INTO INGREDIENT(name) VALUES ('saffron')");
+
+        assertEquals(List.of(2, 3), new MigrationRunner().migrate(connection));
+        assertEquals(7, count("SELECT COUNT(*) FROM INGREDIENT"));
+        assertEquals(3, count("SELECT COUNT(*) FROM SCHEMA_VERSION"));
+        for (String index : List.of("CHEF_USERNAME_SORT_IDX", "CHEF_EMAIL_SORT_IDX", "RECIPE_NAME_SORT_IDX",
+                "RECIPE_CHEF_SORT_IDX", "INGREDIENT_NAME_SORT_IDX", "RECIPE_INGREDIENT_RECIPE_IDX",
+                "RECIPE_INGREDIENT_INGREDIENT_IDX")) {
+            assertEquals(1, count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC' "
+                    + "AND INDEX_NAME = '" + index + "'"), index + " should exist on an adopted database");
+        }
+    }
+
+    @Test
+    void rejectsAScriptChangedAfterItWasApplied() throws SQLException {
+        new MigrationRunner().migrate(connection);
+        execute("UPDATE SCHEMA_VERSION SET checksum = 0 WHERE version = 2");
+
+        assertThrows(IllegalStateException.class, () -> new MigrationRunner().migrate(connection));
+    }
+
+    @Test
+    void failedMigrationIsNotRecorded() throws SQLException {
+        new MigrationRunner().migrate(connection);
+        List<Migration> migrations = new ArrayList<>(MigrationRunner.MIGRATIONS);
+        // replaying version 1 fails on its first CREATE TABLE
+        migrations.add(new Migration(4, "broken", "/sqlScript.sql"));
+
+        assertThrows(SQLException.class, () -> new MigrationRunner(migrations).migrate(connection));
+        assertEquals(3, MigrationRunner.currentVersion(connection));
+        assertEquals(6, count("SELECT COUNT(*) FROM INGREDIENT"));
+        assertTrue(connection.getAutoCommit());
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeUpdate();
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql); ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.PasswordHasher;
+
+public class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void hashesAreSaltedAndVerify() throws Exception {
+        hasher = new PasswordHasher(1_000, 2, 8);
+        String first = hasher.hashAsync("redbarron").get();
+        String second = hasher.hash("redbarron");
+
+        assertTrue(PasswordHasher.isHash(first));
+        assertNotEquals(first, second, "Every hash should have its own salt");
+        assertTrue(hasher.verifyAsync("redbarron", first).get());
+        assertTrue(hasher.verify("redbarron", second));
+        assertFalse(hasher.verify("redbaron", first));
+        assertEquals(2L, hasher.getStats().get("hashes"), "Only work run on the pool should be counted");
+    }
+
+    @Test
+    void legacyPlainTextPasswordsStillVerify() {
+        hasher = new PasswordHasher(1_000, 1, 1);
+        assertTrue(hasher.verify("redbarron", "redbarron"));
+        assertFalse(hasher.verify("redbarron", "Redbarron"));
+        assertFalse(hasher.verify(null, "redbarron"));
+        assertFalse(hasher.verify("redbarron", null));
+    }
+
+    @Test
+    void saturatedPoolRejectsWork() throws InterruptedException {
+        hasher = new PasswordHasher(200_000, 1, 1);
+        List<CompletableFuture<String>> hashes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            hashes.add(hasher.hashAsync("password" + i));
+        }
+
+        int rejected = 0;
+        for (CompletableFuture<String> hash : hashes) {
+            try {
+                hash.get();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 0, "Work beyond the pool and its queue should be rejected");
+        assertEquals((long) rejected, hasher.getStats().get("rejected"));
+    }
+}
@@ -0,0 +1,280 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Recipe;
+import com.revature.util.BoundedCache;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * Seeds tens of thousands of rows, runs the DAO lookups against them, and fails if the plan H2 chooses for any
+ * statement they prepare reads a whole table. Statements are captured as the DAOs prepare them and explained
+ * with the parameters they were run with.
+ *
+ * Substring searches (LIKE '%term%') and full listings read every row by design and are not checked here.
+ */
+class QueryPlanTest {
+
+    private static final int CHEFS = 2_000;
+    private static final int RECIPES = 20_000;
+    private static final int INGREDIENTS = 500;
+    private static final int INGREDIENTS_PER_RECIPE = 3;
+
+    /** The statements prepared since the last check. */
+    private static final List<Captured> captured = new ArrayList<>();
+
+    private ChefDAO chefDao;
+    private IngredientDAO ingredientDao;
+    private RecipeDAO recipeDao;
+
+    @BeforeAll
+    static void seedLargeDataset() throws SQLException {
+        DBUtil.RUN_SQL();
+        try (Connection connection = new ConnectionUtil().getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                insert(connection, "INSERT INTO CHEF(username, email, password) VALUES (?, ?, ?)", CHEFS,
+                        (statement, i) -> {
+                            statement.setString(1, "chef-" + i);
+                            statement.setString(2, "chef-" + i + "@example.com");
+                            statement.setString(3, "password-" + i);
+                        });
+                insert(connection, "INSERT INTO RECIPE(name, instructions, chef_id) VALUES (?, ?, ?)", RECIPES,
+                        (statement, i) -> {
+                            statement.setString(1, "recipe-" + i);
+                            statement.setString(2, "Step " + i + ".  Boil.  Maybe salt.");
+                            statement.setInt(3, 1 + i % CHEFS);
+                        });
+                insert(connection, "INSERT INTO INGREDIENT(name) VALUES (?)", INGREDIENTS,
+                        (statement, i) -> statement.setString(1, "Ingredient-" + i));
+                insert(connection, "INSERT INTO RECIPE_INGREDIENT(recipe_id, ingredient_id, vol, unit) "
+                        + "VALUES (?, ?, ?, ?)", RECIPES * INGREDIENTS_PER_RECIPE, (statement, i) -> {
+                            statement.setInt(1, 1 + i / INGREDIENTS_PER_RECIPE);
+                            statement.setInt(2, 1 + (i * 7) % INGREDIENTS);
+                            statement.setDouble(3, 1);
+                            statement.setString(4, "cups");
+                        });
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            try (PreparedStatement analyze = connection.prepareStatement("ANALYZE")) {
+                analyze.executeUpdate();
+            }
+        }
+        BoundedCache.clearAll();
+    }
+
+    @AfterAll
+    static void resetDatabase() {
+        DBUtil.RUN_SQL();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ConnectionUtil connectionUtil = new CapturingConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+    }
+
+    @Test
+    void recipeLookupsUseIndexes() throws Throwable {
+        assertIndexed("getRecipeById", () -> assertNotNull(recipeDao.getRecipeById(1234)));
+        assertIndexed("getRecipesByIds",
+                () -> assertEquals(3, recipeDao.getRecipesByIds(List.of(7, 7_000, 17_000)).size()));
+    }
+
+    @Test
+    void sortedRecipePagesUseIndexes() throws Throwable {
+        PageOptions offset = withoutTotals(new PageOptions(50, 10, "name", "asc"));
+        assertIndexed("getAllRecipes(name)",
+                () -> assertEquals(10, recipeDao.getAllRecipes(offset).getItems().size()));
+
+        PageOptions first = withoutTotals(new PageOptions(1, 10, "name", "asc"));
+        first.setAfter("");
+        Page<Recipe> firstPage = recipeDao.getAllRecipes(first);
+        PageOptions next = withoutTotals(new PageOptions(2, 10, "name", "asc"));
+        next.setAfter(firstPage.getNextCursor());
+        assertIndexed("getAllRecipes(after)",
+                () -> assertEquals(10, recipeDao.getAllRecipes(next).getItems().size()));
+    }
+
+    @Test
+    void ingredientLookupsUseIndexes() throws Throwable {
+        assertIndexed("getRecipeIngredients", () -> assertEquals(3,
+                ingredientDao.getRecipeIngredients(List.of(10, 11, 12)).get(11).size()));
+        assertIndexed("getIngredientById", () -> assertNotNull(ingredientDao.getIngredientById(42)));
+        PageOptions byName = withoutTotals(new PageOptions(5, 10, "name", "asc"));
+        assertIndexed("getAllIngredients(name)",
+                () -> assertEquals(10, ingredientDao.getAllIngredients(byName).getItems().size()));
+    }
+
+    @Test
+    void recipesByChefAndByIngredientUseIndexes() throws Throwable {
+        PageOptions byChef = withoutTotals(new PageOptions(40, 10, "chef", "asc"));
+        assertIndexed("getAllRecipes(chef)",
+                () -> assertEquals(10, recipeDao.getAllRecipes(byChef).getItems().size()));
+        // deleting a chef or an ingredient cascades to the rows these find
+        assertIndexed("recipes by chef", "SELECT id FROM RECIPE WHERE chef_id = ?", 321);
+        assertIndexed("recipes by ingredient", "SELECT recipe_id FROM RECIPE_INGREDIENT WHERE ingredient_id = ?",
+                42);
+    }
+
+    @Test
+    void chefLookupsUseIndexes() throws Throwable {
+        assertIndexed("getChefById", () -> assertNotNull(chefDao.getChefById(321)));
+        assertIndexed("getChefByUsername", () -> assertNotNull(chefDao.getChefByUsername("chef-321")));
+        PageOptions byEmail = withoutTotals(new PageOptions(3, 10, "email", "asc"));
+        assertIndexed("getAllChefs(email)", () -> assertEquals(10, chefDao.getAllChefs(byEmail).getItems().size()));
+    }
+
+    private static PageOptions withoutTotals(PageOptions pageOptions) {
+        pageOptions.setWithTotals(false);
+        return pageOptions;
+    }
+
+    /**
+     * Runs a DAO call, then explains every statement it prepared and fails if a plan scans a table.
+     */
+    private static void assertIndexed(String name, Executable call) throws Throwable {
+        synchronized (captured) {
+            captured.clear();
+        }
+        call.execute();
+        List<Captured> statements;
+        synchronized (captured) {
+            statements = new ArrayList<>(captured);
+        }
+        assertFalse(statements.isEmpty(), name + " should have queried the database");
+        try (Connection connection = new ConnectionUtil().getConnection()) {
+            for (Captured statement : statements) {
+                String plan = explain(connection, statement);
+                assertFalse(plan.contains(".tableScan */"),
+                        () -> name + " scans a table:\n" + statement.sql + "\n" + plan);
+            }
+        }
+    }
+
+    /**
+     * Explains a query that no DAO prepares, such as the lookups behind a cascading delete, and fails if its
+     * plan scans a table.
+     */
+    private static void assertIndexed(String name, String sql, Object... params) throws SQLException {
+        Captured statement = new Captured(sql);
+        for (int i = 0; i < params.length; i++) {
+            statement.params.put(i + 1, params[i]);
+        }
+        try (Connection connection = new ConnectionUtil().getConnection()) {
+            String plan = explain(connection, statement);
+            assertFalse(plan.contains(".tableScan */"), () -> name + " scans a table:\n" + sql + "\n" + plan);
+        }
+    }
+
+    private static String explain(Connection connection, Captured statement) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql)) {
+            for (Map.Entry<Integer, Object> param : statement.params.entrySet()) {
+                explain.setObject(param.getKey(), param.getValue());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                if (!plan.next()) {
+                    fail("No plan for " + statement.sql);
+                }
+                return plan.getString(1);
+            }
+        }
+    }
+
+    private interface Row {
+        void bind(PreparedStatement statement, int i) throws SQLException;
+    }
+
+    private static void insert(Connection connection, String sql, int rows, Row row) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                row.bind(statement, i);
+                statement.addBatch();
+                if (i % 1_000 == 999) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /** A statement prepared by a DAO, with the parameters bound to it. */
+    private static final class Captured {
+        private final String sql;
+        private final Map<Integer, Object> params = new TreeMap<>();
+
+        private Captured(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    /** Lends out connections that record the SELECT statements prepared on them. */
+    private static final class CapturingConnectionUtil extends ConnectionUtil {
+        @Override
+        public Connection getConnection() {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement")
+                                && ((String) args[0]).trim().toUpperCase().startsWith("SELECT")) {
+                            return capture((PreparedStatement) result, new Captured((String) args[0]));
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement capture(PreparedStatement statement, Captured captured) {
+            synchronized (QueryPlanTest.captured) {
+                QueryPlanTest.captured.add(captured);
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2
+                                && method.getParameterTypes()[0] == int.class) {
+                            captured.params.put((Integer) args[0], args[1]);
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+
+/**
+ * Runs RecipeDAO.createRecipes against the real database while another connection commits a recipe with one
+ * of the same names between the check for taken names and the insert, as a concurrent import would.
+ */
+class RecipeBulkInsertTest {
+
+    private static final String INSERT_RECIPE = "INSERT INTO RECIPE (";
+
+    /** The names committed by the competing connection, one before each insert of a chunk, in order. */
+    private List<String> racingNames;
+    private final AtomicInteger races = new AtomicInteger();
+    private RecipeDAO recipeDao;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        races.set(0);
+        ConnectionUtil racing = new ConnectionUtil() {
+            @Override
+            public Connection getConnection() {
+                return racingConnection(super.getConnection());
+            }
+        };
+        recipeDao = new RecipeDAO(new ChefDAO(racing), new IngredientDAO(racing), racing);
+    }
+
+    @Test
+    void chunkIsRetriedWhenAConcurrentInsertTakesOneOfItsNames() {
+        racingNames = Arrays.asList("race soup");
+        Map<String, Integer> created = recipeDao.createRecipes(Arrays.asList(
+                new Recipe("calm soup", "Stir slowly."), new Recipe("race soup", "Stir quickly.")));
+
+        assertEquals(2, races.get(), () -> "The chunk should have been inserted a second time");
+        assertEquals(List.of("calm soup"), List.copyOf(created.keySet()),
+                "Only the recipe whose name is still free should be reported as created");
+        assertEquals("calm soup", recipeDao.getRecipeById(created.get("calm soup")).getName());
+        assertEquals(1, recipeDao.searchRecipesByTerm("race soup").size());
+        assertEquals("Committed first.", recipeDao.searchRecipesByTerm("race soup").get(0).getInstructions(),
+                "The concurrently committed recipe should be kept");
+    }
+
+    @Test
+    void chunkFailsAfterThreeConflictingAttempts() {
+        racingNames = Arrays.asList("first soup", "second soup", "third soup");
+        List<Recipe> recipes = Arrays.asList(new Recipe("first soup", "One."), new Recipe("second soup", "Two."),
+                new Recipe("third soup", "Three."), new Recipe("fourth soup", "Four."));
+
+        assertThrows(RuntimeException.class, () -> recipeDao.createRecipes(recipes));
+        assertEquals(3, races.get(), () -> "The chunk should have been attempted three times");
+        assertEquals(0, recipeDao.searchRecipesByTerm("fourth soup").size(),
+                "Nothing of a failed chunk should be committed");
+    }
+
+    /**
+     * @return the connection, except that preparing the recipe insert first commits the next racing name on a
+     *         connection of its own
+     */
+    private Connection racingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement") && ((String) args[0]).startsWith(INSERT_RECIPE)) {
+                        int race = races.getAndIncrement();
+                        if (race < racingNames.size()) {
+                            commitRecipe(racingNames.get(race));
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void commitRecipe(String name) throws SQLException {
+        try (Connection other = new ConnectionUtil().getConnection();
+                PreparedStatement statement = other.prepareStatement(
+                        "INSERT INTO RECIPE (name, instructions) VALUES (?, 'Committed first.')")) {
+            statement.setString(1, name);
+            statement.executeUpdate();
+        }
+    }
+}
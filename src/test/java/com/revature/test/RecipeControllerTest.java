@@ -1,5 +1,9 @@
 package com.revature.test;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import io.javalin.http.Context;
@@ -10,13 +14,33 @@ import com.revature.controller.RecipeController;
 import com.revature.model.Recipe;
 import com.revature.service.AuthenticationService;
 import com.revature.service.RecipeService;
+import com.revature.util.JdbcExecutor;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
 
 public class RecipeControllerTest {
 
+    /**
+     * Creates a mock context whose ctx.future() runs the future to completion, as Javalin would before
+     * sending the response.
+     */
+    @SuppressWarnings("unchecked")
+    private static Context mockContext() {
+        Context ctx = mock(Context.class);
+        doAnswer(invocation -> {
+            ((Supplier<? extends CompletableFuture<?>>) invocation.getArgument(0)).get().join();
+            return null;
+        }).when(ctx).future(any());
+        return ctx;
+    }
+
     @Test
     public void testGetRecipesWithRecipeName() throws Exception {
         RecipeService recipeService = mock(RecipeService.class);
@@ -24,7 +48,7 @@ public class RecipeControllerTest {
         List<Recipe> mockResults = Collections.singletonList(new Recipe("Grilled Cheese", "Grill bread and cheese"));
         when(recipeService.searchRecipes("Cheese")).thenReturn(mockResults);
 
-        Context ctx = mock(Context.class);
+        Context ctx = mockContext();
         when(ctx.queryParam("name")).thenReturn("Cheese");
 
         Handler getRecipes = new RecipeController(recipeService, authService).fetchAllRecipes;
@@ -32,6 +56,7 @@ public class RecipeControllerTest {
 
         verify(ctx).status(200);
         verify(ctx).json(mockResults);
+        verify(recipeService, never()).searchRecipes(anyString(), any(PageOptions.class));
     }
 
     @Test
@@ -39,9 +64,10 @@ public class RecipeControllerTest {
         RecipeService recipeService = mock(RecipeService.class);
         AuthenticationService authService = mock(AuthenticationService.class);
         List<Recipe> allRecipes = Arrays.asList(new Recipe("Apple Pie"), new Recipe("Grilled Cheese"), new Recipe("Steak"));
-        when(recipeService.searchRecipes(null)).thenReturn(allRecipes);
+        Page<Recipe> firstPage = new Page<>(1, 10, 1, 3, allRecipes);
+        when(recipeService.searchRecipes(eq(""), any(PageOptions.class))).thenReturn(firstPage);
 
-        Context ctx = mock(Context.class);
+        Context ctx = mockContext();
         when(ctx.queryParam("name")).thenReturn(null);
         when(ctx.queryParam("ingredient")).thenReturn(null);
     
@@ -49,7 +75,44 @@ public class RecipeControllerTest {
         getRecipesHandler.handle(ctx);
     
         verify(ctx).status(200);  // Set the response status code
-        verify(ctx).json(allRecipes);
+        verify(ctx).json(firstPage);
+        verify(recipeService, never()).searchRecipes(any());
+    }
+
+    @Test
+    public void testGetRecipesPageWithNoResults() throws Exception {
+        RecipeService recipeService = mock(RecipeService.class);
+        AuthenticationService authService = mock(AuthenticationService.class);
+        when(recipeService.searchRecipes(eq("Nonexistent"), any(PageOptions.class)))
+                .thenReturn(new Page<>(1, 10, 0, 0, Collections.emptyList()));
+
+        Context ctx = mockContext();
+        when(ctx.queryParam("term")).thenReturn("Nonexistent");
+
+        Handler getRecipes = new RecipeController(recipeService, authService).fetchAllRecipes;
+        getRecipes.handle(ctx);
+
+        verify(ctx).status(404);
+        verify(ctx).result("No recipes found");
+    }
+
+    @Test
+    public void testGetRecipesPagePastTheEndWithAndWithoutTotals() throws Exception {
+        for (Page<Recipe> pastTheEnd : Arrays.asList(new Page<Recipe>(3, 10, 1, 3, Collections.emptyList()),
+                new Page<Recipe>(3, 10, -1, -1, Collections.emptyList()))) {
+            RecipeService recipeService = mock(RecipeService.class);
+            AuthenticationService authService = mock(AuthenticationService.class);
+            when(recipeService.searchRecipes(eq(""), any(PageOptions.class))).thenReturn(pastTheEnd);
+
+            Context ctx = mockContext();
+            when(ctx.queryParam("page")).thenReturn("3");
+
+            Handler getRecipes = new RecipeController(recipeService, authService).fetchAllRecipes;
+            getRecipes.handle(ctx);
+
+            verify(ctx).status(404);
+            verify(ctx).result("No recipes found");
+        }
     }
 
      
@@ -60,7 +123,7 @@ public class RecipeControllerTest {
         AuthenticationService authService = mock(AuthenticationService.class);
         when(recipeService.searchRecipes("Nonexistent Recipe")).thenReturn(Collections.emptyList());
 
-        Context ctx = mock(Context.class);
+        Context ctx = mockContext();
         when(ctx.queryParam("name")).thenReturn("Nonexistent Recipe");
 
         Handler getRecipes = new RecipeController(recipeService, authService).fetchAllRecipes;
@@ -69,4 +132,50 @@ public class RecipeControllerTest {
         verify(ctx).status(404);
         verify(ctx).result("No recipes found");
     }
+
+    @Test
+    public void testGetRecipeWhenExecutorIsSaturated() throws Exception {
+        RecipeService recipeService = mock(RecipeService.class);
+        AuthenticationService authService = mock(AuthenticationService.class);
+        JdbcExecutor executor = new JdbcExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.supply(() -> {
+                JdbcExecutorTest.await(release);
+                return null;
+            });
+            executor.supply(() -> null);
+
+            Context ctx = mockContext();
+            when(ctx.pathParam("id")).thenReturn("1");
+
+            Handler getRecipe = new RecipeController(recipeService, authService, executor).fetchRecipeById;
+            getRecipe.handle(ctx);
+
+            verify(ctx).status(503);
+            verify(ctx).header("Retry-After", "1");
+            verify(ctx).result("Server busy, please try again");
+            verify(recipeService, never()).findRecipe(anyInt());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetRecipesWithInvalidSort() throws Exception {
+        RecipeService recipeService = mock(RecipeService.class);
+        AuthenticationService authService = mock(AuthenticationService.class);
+        when(recipeService.searchRecipes(eq(""), any(PageOptions.class)))
+                .thenThrow(new IllegalArgumentException("Unknown sort key: color"));
+
+        Context ctx = mockContext();
+        when(ctx.queryParam("sortBy")).thenReturn("color");
+
+        Handler getRecipes = new RecipeController(recipeService, authService).fetchAllRecipes;
+        getRecipes.handle(ctx);
+
+        verify(ctx).status(400);
+        verify(ctx).result("Unknown sort key: color");
+    }
 }
\ No newline at end of file
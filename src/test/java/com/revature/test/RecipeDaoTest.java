@@ -3,6 +3,7 @@ package com.revature.test;
 
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -95,10 +96,12 @@ class RecipeDaoTest {
     @Test
     void getAllRecipes_Success() throws SQLException {
         // Arrange
-        String expectedSQL = "SELECT * FROM RECIPE ORDER BY id";
+        String expectedSQL = "SELECT r.id, r.name, r.instructions, r.chef_id, "
+                + "c.username AS chef_username, c.email AS chef_email, c.is_admin AS chef_is_admin "
+                + "FROM RECIPE r LEFT JOIN CHEF c ON c.id = r.chef_id ORDER BY r.id";
         when(connectionUtil.getConnection()).thenReturn(connection); // Mock the connection
-        when(connection.createStatement()).thenReturn(preparedStatement); // Mock the statement
-        when(preparedStatement.executeQuery(expectedSQL)).thenReturn(resultSet); // Mock the query execution
+        when(connection.prepareStatement(expectedSQL)).thenReturn(preparedStatement); // Mock the statement
+        when(preparedStatement.executeQuery()).thenReturn(resultSet); // Mock the query execution
 
         when(resultSet.next())
                 .thenReturn(true)
@@ -120,9 +123,13 @@ class RecipeDaoTest {
 
         // Assert
         assertEquals(recipeList, actualRecipes);
-        verify(connection).createStatement(); // Verify the statement creation
-        verify(preparedStatement).executeQuery(expectedSQL); // Verify the query execution
+        verify(connection).prepareStatement(expectedSQL); // Verify the statement creation
+        verify(preparedStatement).executeQuery(); // Verify the query execution
         verify(resultSet, times(3)).next(); // Verify result set navigation
+        verify(resultSet).close(); // Verify the result set is not leaked
+        verify(preparedStatement).close(); // Verify the statement is not leaked
+        verify(connection).close(); // Verify the connection goes back to the pool
+        verify(chefDao, never()).getChefById(anyInt()); // Authors come from the join, not one lookup per row
     }
 
     @Test
@@ -152,9 +159,10 @@ class RecipeDaoTest {
         when(preparedStatement.executeUpdate()).thenReturn(1);
 
         // Act
-        recipeDao.updateRecipe(recipeToUpdate);
+        int updated = recipeDao.updateRecipe(recipeToUpdate);
 
         // Assert
+        assertEquals(1, updated, "The updated row count should be returned");
         verify(preparedStatement).setString(1, recipeToUpdate.getInstructions());
         verify(preparedStatement).setInt(2, recipeToUpdate.getAuthor().getId());
         verify(preparedStatement).setInt(3, recipeToUpdate.getId());
@@ -170,8 +178,10 @@ class RecipeDaoTest {
         recipeDao.deleteRecipe(recipeToDelete);
 
         // Assert
-        verify(preparedStatement, times(2)).setInt(1, recipeToDelete.getId()); // Verify setInt was called twice
-        verify(preparedStatement, times(2)).executeUpdate(); // Verify executeUpdate was called twice
+        verify(preparedStatement).setInt(1, recipeToDelete.getId()); // Verify the id is bound once
+        verify(preparedStatement).executeUpdate(); // Verify the delete runs exactly once
+        verify(preparedStatement).close();
+        verify(connection).close();
     }
 
     @Test
@@ -215,8 +225,7 @@ class RecipeDaoTest {
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
         when(resultSet.getInt("chef_id")).thenReturn(1, 2);
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
+        when(resultSet.getString("chef_username")).thenReturn("JoeCool", "CharlieBrown");
 
         // Act
         Page<Recipe> recipePage = recipeDao.getAllRecipes(pageable);
@@ -224,5 +233,26 @@ class RecipeDaoTest {
         // Assert
         assertEquals(2, recipePage.getItems().size());
         assertEquals(2, recipePage.getPageSize());
+        assertEquals("JoeCool", recipePage.getItems().get(0).getAuthor().getUsername());
+        verify(chefDao, never()).getChefById(anyInt());
+    }
+
+    @Test
+    void getAllRecipesPaged_HonorsSortKey() throws SQLException {
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+
+        recipeDao.getAllRecipes(new PageOptions(1, 2, "Name", "DESC"));
+
+        verify(connection).prepareStatement(contains(" ORDER BY r.name DESC, r.id DESC LIMIT ? OFFSET ?"));
+    }
+
+    @Test
+    void getAllRecipesPaged_RejectsUnknownSortKey() throws SQLException {
+        assertThrows(IllegalArgumentException.class,
+                () -> recipeDao.getAllRecipes(new PageOptions(1, 2, "name; DROP TABLE RECIPE", "asc")));
+        assertThrows(IllegalArgumentException.class,
+                () -> recipeDao.getAllRecipes(new PageOptions(1, 2, "name", "sideways")));
+        verify(connection, never()).prepareStatement(contains("ORDER BY"));
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.revature.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.sql.SQLException;
@@ -18,6 +19,7 @@ import com.revature.controller.IngredientController;
 import com.revature.controller.RecipeController;
 import com.revature.model.Chef;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
 import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
@@ -31,6 +33,9 @@ import com.revature.util.DBUtil;
 import com.revature.util.JavalinAppUtil;
 import com.revature.util.Page;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.javalin.Javalin;
 import io.javalin.json.JavalinJackson;
 import okhttp3.MediaType;
@@ -72,23 +77,23 @@ class RecipeIntegrationTest {
 				new Chef(3, "RevaBuddy", "revature@revature.com", "codelikeaboss", false),
 				new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", true)));
 		recipeList.addAll(
-				Arrays.asList(new Recipe(1, "carrot soup", "Put carrot in water.  Boil.  Maybe salt.", chefList.get(0)),
-						new Recipe(2, "potato soup", "Put potato in water.  Boil.  Maybe salt.", chefList.get(1)),
-						new Recipe(3, "tomato soup", "Put tomato in water.  Boil.  Maybe salt.", chefList.get(1)),
+				Arrays.asList(new Recipe(1, "carrot soup", "Put carrot in water.  Boil.  Maybe salt.", author(0)),
+						new Recipe(2, "potato soup", "Put potato in water.  Boil.  Maybe salt.", author(1)),
+						new Recipe(3, "tomato soup", "Put tomato in water.  Boil.  Maybe salt.", author(1)),
 						new Recipe(4, "lemon rice soup", "Put lemon and rice in water.  Boil.  Maybe salt.",
-								chefList.get(3)),
-						new Recipe(5, "stone soup", "Put stone in water.  Boil.  Maybe salt.", chefList.get(3))));
+								author(3)),
+						new Recipe(5, "stone soup", "Put stone in water.  Boil.  Maybe salt.", author(3))));
 
 		jsonRecipeList = new JavalinJackson().toJsonString(recipeList.toArray(), Recipe[].class);
 
 		chefDao = new ChefDAO(new ConnectionUtil());
+		ingredientDao = new IngredientDAO(new ConnectionUtil());
 		recipeDao = new RecipeDAO(chefDao, ingredientDao, new ConnectionUtil());
 		recipeService = new RecipeService(recipeDao);
 		chefService = new ChefService(chefDao);
 		authService = new AuthenticationService(chefService);
 		recipeController = new RecipeController(recipeService, authService);
 		authController = new AuthenticationController(chefService, authService);
-		ingredientDao = new IngredientDAO(new ConnectionUtil());
 		ingredientService = new IngredientService(ingredientDao);
 		ingredientController = new IngredientController(ingredientService);
 		appUtil = new JavalinAppUtil(recipeController, authController, ingredientController);
@@ -112,6 +117,14 @@ class RecipeIntegrationTest {
 		app.close();
 	}
 
+	/**
+	 * @return a chef from the list as recipes render their author: without a password
+	 */
+	private Chef author(int index) {
+		Chef chef = chefList.get(index);
+		return new Chef(chef.getId(), chef.getUsername(), chef.getEmail(), null, chef.isAdmin());
+	}
+
 	@Test
 	void testGetRecipe() throws IOException {
 		Request request = new Request.Builder().url(BASE_URL + "/recipes/2").addHeader("Authorization", token).get()
@@ -134,7 +147,7 @@ class RecipeIntegrationTest {
 	@Test
 	void testPostRecipe() throws Exception {
 
-		Recipe newRecipe = new Recipe(6, "fried fish", "fish, oil, stove", chefList.get(3));
+		Recipe newRecipe = new Recipe(6, "fried fish", "fish, oil, stove", author(3));
 		RequestBody recipeBody = RequestBody.create(new JavalinJackson().toJsonString(newRecipe, Recipe.class),
 				MediaType.get("application/json; charset=utf-8"));
 		Request recipeRequest = new Request.Builder().url(BASE_URL + "/recipes").addHeader("Authorization", "Bearer " + token)
@@ -165,7 +178,7 @@ class RecipeIntegrationTest {
 	@Test
 	void testDeleteRecipe() throws IOException {
 
-		Request request = new Request.Builder().url(BASE_URL + "/recipes/2").addHeader("Authorization", "Bearer" + token).delete()
+		Request request = new Request.Builder().url(BASE_URL + "/recipes/2").addHeader("Authorization", "Bearer " + token).delete()
 				.build();
 		Response response = client.newCall(request).execute();
 		assertEquals(200, response.code(), () -> "Recipe should delete successfully");
@@ -176,6 +189,15 @@ class RecipeIntegrationTest {
 
 	}
 
+	@Test
+	void testDeleteRecipeNeedsASpaceAfterBearer() throws Exception {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes/2").addHeader("Authorization", "Bearer" + token)
+				.delete().build();
+		assertEquals(401, client.newCall(request).execute().code(),
+				() -> "A token run together with Bearer is not a session token");
+		assertTrue(recipeService.findRecipe(2).isPresent());
+	}
+
 	@Test
 	void testFilteredPageOfRecipes() throws IOException {
 
@@ -191,4 +213,84 @@ class RecipeIntegrationTest {
 				"The single result should be returned");
 	}
 
+	@Test
+	void testRankedSearchRejectsUnknownSort() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes?term=soup&sortBy=bogus").get()
+				.addHeader("Authorization", token).build();
+		Response response = client.newCall(request).execute();
+		assertEquals(400, response.code(), () -> "An unknown sortBy should be rejected even when results are ranked");
+	}
+
+	@Test
+	void testTermSearchHonorsAnExplicitSort() throws IOException {
+		Request request = new Request.Builder()
+				.url(BASE_URL + "/recipes?term=soup&page=1&pageSize=3&sortBy=name&sortDirection=desc").get()
+				.addHeader("Authorization", token).build();
+		JsonNode page = new ObjectMapper().readTree(client.newCall(request).execute().body().string());
+		List<String> names = new ArrayList<>();
+		page.get("items").forEach(item -> names.add(item.get("name").asText()));
+		assertEquals(List.of("tomato soup", "stone soup", "potato soup"), names,
+				"An explicit sort should replace the relevance order");
+		assertEquals(5, page.get("totalElements").asInt());
+	}
+
+	@Test
+	void testBulkPostRecipes() throws Exception {
+		String ndjson = "{\"name\":\"veggie stew\",\"instructions\":\"Simmer.\",\"ingredients\":["
+				+ "{\"name\":\"Carrot\",\"volume\":2,\"unit\":\"cups\"},{\"name\":\"potato\",\"volume\":1,\"unit\":\"lb\"}]}\n"
+				+ "{\"name\":\"carrot soup\",\"instructions\":\"Put carrot in water again.\"}\n"
+				+ "{\"name\":\"moon soup\",\"instructions\":\"Boil.\",\"ingredients\":["
+				+ "{\"name\":\"moon rock\",\"volume\":1,\"unit\":\"kg\"}]}\n";
+		Request request = new Request.Builder().url(BASE_URL + "/recipes/bulk?chunkSize=2")
+				.addHeader("Authorization", "Bearer " + token)
+				.post(RequestBody.create(ndjson, MediaType.get("application/x-ndjson"))).build();
+		Response response = client.newCall(request).execute();
+		String json = response.body().string();
+		assertEquals(200, response.code(), json);
+
+		JsonNode result = new ObjectMapper().readTree(json);
+		assertEquals(1, result.get("created").asInt(), json);
+		assertEquals(1, result.get("conflicts").asInt(), json);
+		assertEquals(1, result.get("invalid").asInt(), json);
+		JsonNode items = result.get("items");
+		assertEquals(6, items.get(0).get("id").asInt());
+		assertEquals("conflict", items.get(1).get("status").asText());
+		assertEquals("Unknown ingredient moon rock", items.get(2).get("message").asText());
+
+		Recipe created = recipeService.findRecipe(6).get();
+		assertEquals(chefList.get(3).getId(), created.getAuthor().getId(), "Imported recipes belong to the caller");
+		List<Recipe> recipes = List.of(created);
+		recipeService.loadIngredients(recipes);
+		List<RecipeIngredient> ingredients = created.getIngredients();
+		assertEquals(2, ingredients.size());
+		assertEquals("carrot", ingredients.get(0).getName());
+		assertEquals(2.0, ingredients.get(0).getVolume());
+		assertEquals("cups", ingredients.get(0).getUnit());
+		assertEquals("potato", ingredients.get(1).getName());
+	}
+
+	@Test
+	void testBulkPostRecipesRequiresLogin() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes/bulk")
+				.post(RequestBody.create("{\"name\":\"a\",\"instructions\":\"b\"}\n",
+						MediaType.get("application/x-ndjson")))
+				.build();
+		Response response = client.newCall(request).execute();
+		assertEquals(401, response.code());
+	}
+
+	@Test
+	void testBulkPostIngredientsRequiresAdmin() throws IOException {
+		Request anonymous = new Request.Builder().url(BASE_URL + "/ingredients/bulk")
+				.post(RequestBody.create("[\"saffron\"]", MediaType.get("application/json"))).build();
+		assertEquals(401, client.newCall(anonymous).execute().code());
+		assertEquals(0, ingredientService.searchIngredients("saffron").size(), "Nothing should be imported");
+
+		Request admin = new Request.Builder().url(BASE_URL + "/ingredients/bulk")
+				.addHeader("Authorization", "Bearer " + token)
+				.post(RequestBody.create("[\"saffron\"]", MediaType.get("application/json"))).build();
+		assertEquals(200, client.newCall(admin).execute().code());
+		assertEquals(1, ingredientService.searchIngredients("saffron").size());
+	}
+
 }
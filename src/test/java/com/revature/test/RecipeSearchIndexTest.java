@@ -0,0 +1,135 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+import com.revature.util.RecipeSearchIndex;
+
+public class RecipeSearchIndexTest {
+
+    private RecipeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RecipeSearchIndex();
+        index.rebuild(() -> Arrays.asList(
+                new Recipe(1, "carrot soup", "Put carrot in water. Boil.", null),
+                new Recipe(2, "potato soup", "Put potato in water. Boil.", null),
+                new Recipe(3, "tomato salad", "Slice tomato. Add potatoes.", null),
+                new Recipe(4, "stone soup", "Put stone in water. Boil. Serve with potato.", null)));
+    }
+
+    @Test
+    void rankingFavoursExactMatchesInTheName() {
+        assertEquals(List.of(2, 4, 3), index.search("potato"),
+                "An exact name match should rank first, then exact instruction matches, then prefix matches");
+    }
+
+    @Test
+    void matchesInsideWordsLikeTheSqlSearch() {
+        assertEquals(List.of(3, 2, 4), index.search("ato"), "Matches inside words should add up across words");
+        assertEquals(List.of(1), index.search("CARR"), "Searches should be case insensitive");
+    }
+
+    @Test
+    void everyWordOfTheSearchMustMatch() {
+        assertEquals(List.of(2, 4), index.search("potato soup"));
+        assertTrue(index.search("potato pie").isEmpty());
+        assertTrue(index.search("  ").isEmpty());
+    }
+
+    @Test
+    void writesUpdateTheIndex() {
+        index.put(5, "pumpkin pie", "Bake the pumpkin.");
+        assertEquals(List.of(5), index.search("pumpkin"));
+
+        index.updateInstructions(1, "Grate the carrot. Bake.");
+        assertEquals(List.of(1, 5), index.search("bake"), "Equally relevant recipes should be ordered by id");
+        assertFalse(index.search("water").contains(1), "Old instructions should no longer match");
+        assertEquals(List.of(1), index.search("carrot soup"), "Updating instructions should keep the name");
+
+        index.remove(2);
+        assertEquals(List.of(4, 3), index.search("potato"));
+    }
+
+    @Test
+    void infixMatchesFollowWritesAndRemovals() {
+        index.put(5, "banana bread", "Mash the bananas.");
+        assertEquals(List.of(5), index.search("nan"), "A term repeated inside a word should count once per word");
+        index.remove(5);
+        assertTrue(index.search("nan").isEmpty(), "Words no longer indexed should not match inside either");
+        assertEquals(List.of(3, 2, 4), index.search("ato"));
+    }
+
+    @Test
+    void keysetSearchMatchesTheSameRecipesAsTheIndex() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        RecipeDAO recipeDao = new RecipeDAO(new ChefDAO(connectionUtil), new IngredientDAO(connectionUtil),
+                connectionUtil);
+        for (String term : List.of("boil", "ato", "RICE lemon", "soup salt", "stone pie", "!!")) {
+            PageOptions keyset = new PageOptions(1, 10);
+            keyset.setAfter("");
+            List<Integer> found = recipeDao.searchRecipesByTerm(term, keyset).getItems().stream()
+                    .map(Recipe::getId).sorted().toList();
+            assertEquals(recipeDao.getSearchIndex().search(term).stream().sorted().toList(), found, term);
+        }
+    }
+
+    @Test
+    void keysetSearchTotalsFollowUpdatedInstructions() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        RecipeDAO recipeDao = new RecipeDAO(new ChefDAO(connectionUtil), new IngredientDAO(connectionUtil),
+                connectionUtil);
+        PageOptions keyset = new PageOptions(1, 10);
+        keyset.setAfter("");
+        assertEquals(0, recipeDao.searchRecipesByTerm("pumpkin", keyset).getTotalElements());
+
+        Recipe recipe = recipeDao.getRecipeById(1);
+        recipe.setInstructions("Roast pumpkin. Blend.");
+        assertEquals(1, recipeDao.updateRecipe(recipe));
+        assertEquals(1, recipeDao.searchRecipesByTerm("pumpkin", keyset).getTotalElements(),
+                "Updating a recipe's instructions should refresh cached search totals");
+    }
+
+    @Test
+    void daoKeepsIndexInStepWithTheDatabase() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        RecipeDAO recipeDao = new RecipeDAO(new ChefDAO(connectionUtil), new IngredientDAO(connectionUtil),
+                connectionUtil);
+        RecipeService recipeService = new RecipeService(recipeDao);
+        assertEquals(5, recipeDao.getSearchIndex().getStats().get("recipes"));
+
+        Recipe created = new Recipe(0, "pumpkin soup", "Roast pumpkin. Blend.", new Chef(1, "", "", "", false));
+        created.setId(recipeDao.createRecipe(created));
+        Page<Recipe> page = recipeService.searchRecipes("soup", new PageOptions(2, 4));
+        assertEquals(6, page.getTotalElements());
+        assertEquals(List.of(created), page.getItems().subList(1, 2));
+
+        recipeDao.deleteRecipe(created);
+        assertEquals(5, recipeService.searchRecipes("soup", new PageOptions(1, 10)).getTotalElements());
+
+        DBUtil.RUN_SQL();
+        assertFalse(recipeDao.getSearchIndex().search("stone").isEmpty(),
+                "Resetting the database should rebuild the index on next use");
+    }
+}
@@ -1,28 +1,38 @@
 package com.revature.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import com.revature.model.Chef;
 import com.revature.model.Ingredient;
 import com.revature.model.Recipe;
 import com.revature.dao.RecipeDAO;
 import com.revature.service.RecipeService;
+import com.revature.util.BulkResult;
+import com.revature.util.JsonItemReader;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.RecipeSearchIndex;
 
 public class RecipeServiceTest {
     private RecipeService recipeService;
@@ -72,22 +82,36 @@ public class RecipeServiceTest {
     void updateRecipe() throws SQLException{
         Recipe existingRecipe = new Recipe(42, "Existing Recipe", "Existing Recipe Instructions", null);
         ArgumentCaptor<Recipe> recipeCaptor = ArgumentCaptor.forClass(Recipe.class);
-        doNothing().when(recipeDao).updateRecipe(any(Recipe.class));
-        when(recipeDao.getRecipeById(anyInt())).thenReturn(existingRecipe);
+        when(recipeDao.updateRecipe(any(Recipe.class))).thenReturn(1);
         recipeService.saveRecipe(existingRecipe);
         verify(recipeDao).updateRecipe(recipeCaptor.capture());
         Recipe captureRecipe = recipeCaptor.getValue();
         assertEquals(42, captureRecipe.getId(), () -> "Services should not change the id of existing recipes");
+        verify(recipeDao, never()).getRecipeById(anyInt());
+        verify(recipeDao, never()).createRecipe(any(Recipe.class));
+    }
+
+    @Test
+    void saveRecipeWithUnknownIdCreatesIt() throws SQLException{
+        Recipe recipe = new Recipe(42, "Unknown Recipe", "Unknown Recipe Instructions", null);
+        when(recipeDao.updateRecipe(any(Recipe.class))).thenReturn(0);
+        when(recipeDao.createRecipe(any(Recipe.class))).thenReturn(7);
+        recipeService.saveRecipe(recipe);
+        assertEquals(7, recipe.getId(), () -> "Services should create recipes that did not exist");
     }
 
     @Test
     void deleteRecipe() throws SQLException{
-        when(recipeDao.getRecipeById(1)).thenReturn(MOCKS.get(0));
-        doNothing().when(recipeDao).deleteRecipe(any(Recipe.class));
-        ArgumentCaptor<Recipe> recipeCaptor = ArgumentCaptor.forClass(Recipe.class);
-        recipeService.deleteRecipe(1);
-        verify(recipeDao).deleteRecipe(recipeCaptor.capture());
-        verify(recipeDao).getRecipeById(1);
+        when(recipeDao.deleteRecipeById(1)).thenReturn(1);
+        assertTrue(recipeService.deleteRecipe(1), () -> "Deleting an existing recipe should succeed");
+        verify(recipeDao).deleteRecipeById(1);
+        verify(recipeDao, never()).getRecipeById(anyInt());
+    }
+
+    @Test
+    void deleteMissingRecipe() throws SQLException{
+        when(recipeDao.deleteRecipeById(1)).thenReturn(0);
+        assertFalse(recipeService.deleteRecipe(1), () -> "Deleting a missing recipe should report it");
     }
 
     @Test
@@ -97,16 +121,27 @@ public class RecipeServiceTest {
         assertIterableEquals(MOCKS, recipes, () -> "Recipes should match");
     }
 
+    /**
+     * Stubs the search index to find the given recipes for a term, and the DAO to read them by id.
+     */
+    private void indexFinds(String term, List<Recipe> recipes) {
+        RecipeSearchIndex index = mock(RecipeSearchIndex.class);
+        List<Integer> ids = recipes.stream().map(Recipe::getId).toList();
+        when(index.search(term)).thenReturn(ids);
+        when(recipeDao.getSearchIndex()).thenReturn(index);
+        when(recipeDao.getRecipesByIds(ids)).thenReturn(recipes);
+    }
+
     @Test
     void searchForFilteredListOfRecipes() throws SQLException{
-        when(recipeDao.searchRecipesByTerm("a")).thenReturn(Arrays.asList(MOCKS.get(0), MOCKS.get(2), MOCKS.get(3), MOCKS.get(4)));
+        indexFinds("a", Arrays.asList(MOCKS.get(0), MOCKS.get(2), MOCKS.get(3), MOCKS.get(4)));
         List<Recipe> recipes = recipeService.searchRecipes("a");
         assertIterableEquals(Arrays.asList(MOCKS.get(0), MOCKS.get(2), MOCKS.get(3), MOCKS.get(4)), recipes, () -> "Recipes should match");
     }
 
     @Test
     void searchReturnsEmptyList() throws SQLException{
-        when(recipeDao.searchRecipesByTerm("Bal")).thenReturn(Collections.emptyList());
+        indexFinds("Bal", Collections.emptyList());
         List<Recipe> recipes = recipeService.searchRecipes("Bal");
         assertTrue(recipes.isEmpty(), () -> "Recipes should be empty");
     }
@@ -122,21 +157,57 @@ public class RecipeServiceTest {
 
     @Test
     void serchForFilteredPageOfRecipes() throws SQLException{
-        when(recipeDao.searchRecipesByTerm(anyString(), any(PageOptions.class))).thenReturn(new Page<Recipe>(1, 5, 1, 5, Arrays.asList(MOCKS.get(0), MOCKS.get(2), MOCKS.get(3), MOCKS.get(4))));
-        Page<Recipe> recipes = recipeService.searchRecipes("a", 1, 5, "id", "asc");
-        ArgumentCaptor<PageOptions> optionsCaptor = ArgumentCaptor.forClass(PageOptions.class);
-        ArgumentCaptor<String> termCaptor = ArgumentCaptor.forClass(String.class);
-        verify(recipeDao).searchRecipesByTerm(termCaptor.capture(), optionsCaptor.capture());
-        assertEquals(new Page<Recipe>(1, 5, 1, 5, Arrays.asList(MOCKS.get(0), MOCKS.get(2), MOCKS.get(3), MOCKS.get(4))), recipes, () -> "Service shouldn't change the page returned from the dao");
+        indexFinds("a", Arrays.asList(MOCKS.get(0), MOCKS.get(2), MOCKS.get(3), MOCKS.get(4)));
+        Page<Recipe> recipes = recipeService.searchRecipes("a", 1, 5, null, null);
+        verify(recipeDao, never()).searchRecipesByTerm(anyString(), any(PageOptions.class));
+        assertEquals(new Page<Recipe>(1, 5, 1, 4, Arrays.asList(MOCKS.get(0), MOCKS.get(2), MOCKS.get(3), MOCKS.get(4))), recipes, () -> "The page should hold the ranked recipes");
     }
 
     @Test
     void searchReturnsEmptyPage() throws SQLException{
-        when(recipeDao.searchRecipesByTerm(anyString(), any(PageOptions.class))).thenReturn(new Page<Recipe>(1, 5, 0, 0, Collections.emptyList()));
-        Page<Recipe> recipes = recipeService.searchRecipes("Bal", 1, 5, "id", "asc");
-        ArgumentCaptor<PageOptions> optionsCaptor = ArgumentCaptor.forClass(PageOptions.class);
-        ArgumentCaptor<String> termCaptor = ArgumentCaptor.forClass(String.class);
-        verify(recipeDao).searchRecipesByTerm(termCaptor.capture(), optionsCaptor.capture());
-        assertEquals(new Page<Recipe>(1, 5, 0, 0, Collections.emptyList()), recipes, () -> "Service shouldn't change the page returned from the dao");
+        indexFinds("Bal", Collections.emptyList());
+        Page<Recipe> recipes = recipeService.searchRecipes("Bal", 1, 5, null, null);
+        assertEquals(new Page<Recipe>(1, 5, 0, 0, Collections.emptyList()), recipes, () -> "Nothing found should be an empty page");
+    }
+
+    @Test
+    void explicitlySortedSearchIsServedByTheDao() {
+        Page<Recipe> page = new Page<Recipe>(1, 5, 1, 1, Arrays.asList(MOCKS.get(0)));
+        when(recipeDao.searchRecipesByTerm(eq("a"), any(PageOptions.class))).thenReturn(page);
+        assertEquals(page, recipeService.searchRecipes("a", 1, 5, "name", "desc"));
+        assertEquals(page, recipeService.searchRecipes("a", 1, 5, null, "desc"));
+        verify(recipeDao, never()).getSearchIndex();
+    }
+
+    @Test
+    void keysetSearchIsServedByTheDao() {
+        PageOptions options = new PageOptions(1, 5, "name", "asc");
+        options.setAfter("");
+        Page<Recipe> page = new Page<Recipe>(1, 5, 1, 1, Arrays.asList(MOCKS.get(0)));
+        when(recipeDao.searchRecipesByTerm("a", options)).thenReturn(page);
+        assertEquals(page, recipeService.searchRecipes("a", options));
+        verify(recipeDao, never()).getSearchIndex();
+    }
+
+    @Test
+    void importRecipesResolvesIngredientNames() throws IOException {
+        Chef author = new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", true);
+        when(recipeDao.findIngredient("Basil")).thenReturn(new Ingredient(3, "basil"));
+        when(recipeDao.createRecipes(any())).thenAnswer(invocation -> {
+            List<Recipe> chunk = invocation.getArgument(0);
+            assertEquals(1, chunk.size(), "Recipes with unknown ingredients should never reach the dao");
+            assertEquals(author, chunk.get(0).getAuthor());
+            assertEquals(3, chunk.get(0).getIngredients().get(0).getId(), "Ingredient names should be resolved to ids");
+            return new HashMap<>(Map.of("Pesto", 6));
+        });
+        String body = "{\"name\":\"Pesto\",\"instructions\":\"Blend\",\"ingredients\":[{\"name\":\"Basil\",\"volume\":2,\"unit\":\"cups\"}]}\n"
+                + "{\"name\":\"Stew\",\"instructions\":\"Simmer\",\"ingredients\":[{\"name\":\"Unobtainium\",\"volume\":1,\"unit\":\"g\"}]}\n";
+        BulkResult result = recipeService.importRecipes(
+                new JsonItemReader<>(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), Recipe.class), author, 10);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(Integer.valueOf(6), result.getItems().get(0).getId());
+        assertEquals(BulkResult.INVALID, result.getItems().get(1).getStatus());
+        assertEquals("Unknown ingredient Unobtainium", result.getItems().get(1).getMessage());
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.PageOptions;
+import com.revature.util.PoolConfig;
+import com.revature.util.PoolStats;
+
+/**
+ * Runs every DAO method against the real database with resource tracking switched on in the pool, and
+ * fails if a call leaves a connection borrowed or a statement or result set open.
+ */
+class ResourceLeakTest {
+
+    private ChefDAO chefDao;
+    private IngredientDAO ingredientDao;
+    private RecipeDAO recipeDao;
+
+    @BeforeAll
+    static void enableResourceTracking() {
+        PoolConfig config = PoolConfig.fromSystemProperties();
+        config.setTrackResources(true);
+        ConnectionUtil.configure(config);
+    }
+
+    @AfterAll
+    static void restorePool() {
+        ConnectionUtil.configure(PoolConfig.fromSystemProperties());
+    }
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+    }
+
+    @Test
+    void detectorCatchesUnclosedStatement() throws SQLException {
+        long before = ConnectionUtil.getPoolStats().getResourceLeaks();
+        try (Connection connection = new ConnectionUtil().getConnection()) {
+            connection.prepareStatement("SELECT 1").executeQuery();
+        }
+        assertEquals(before + 2, ConnectionUtil.getPoolStats().getResourceLeaks(),
+                () -> "The statement and its result set should both be reported");
+    }
+
+    @Test
+    void chefDaoClosesEverything() {
+        Chef chef = new Chef("leakcheck", "leak@check.com", "leakpass", false);
+        assertNoLeaks("getAllChefs", () -> chefDao.getAllChefs());
+        assertNoLeaks("getAllChefs(page)", () -> chefDao.getAllChefs(new PageOptions(1, 2, "id", "asc")));
+        assertNoLeaks("getChefById", () -> chefDao.getChefById(1));
+        assertNoLeaks("getChefByUsername", () -> chefDao.getChefByUsername("JoeCool"));
+        assertNoLeaks("searchChefsByTerm", () -> chefDao.searchChefsByTerm("e"));
+        assertNoLeaks("searchChefsByTerm(page)",
+                () -> chefDao.searchChefsByTerm("e", new PageOptions(1, 2, "id", "asc")));
+        assertNoLeaks("createChef", () -> chef.setId(chefDao.createChef(chef)));
+        assertNoLeaks("updateChef", () -> chefDao.updateChef(chef));
+        assertNoLeaks("updatePassword", () -> chefDao.updatePassword(chef.getId(), "newpass"));
+        assertNoLeaks("deleteChef", () -> chefDao.deleteChef(chef));
+    }
+
+    @Test
+    void ingredientDaoClosesEverything() {
+        Ingredient ingredient = new Ingredient("leakcheck");
+        assertNoLeaks("getAllIngredients", () -> ingredientDao.getAllIngredients());
+        assertNoLeaks("getAllIngredients(page)", () -> ingredientDao.getAllIngredients(new PageOptions(1, 2)));
+        assertNoLeaks("getIngredientById", () -> ingredientDao.getIngredientById(1));
+        assertNoLeaks("searchIngredients", () -> ingredientDao.searchIngredients("o"));
+        assertNoLeaks("searchIngredients(page)",
+                () -> ingredientDao.searchIngredients("o", new PageOptions(1, 2, "id", "asc")));
+        assertNoLeaks("getRecipeIngredients", () -> ingredientDao.getRecipeIngredients(List.of(1, 2, 3, 4, 5)));
+        assertNoLeaks("createIngredient", () -> ingredient.setId(ingredientDao.createIngredient(ingredient)));
+        assertNoLeaks("updateIngredient", () -> ingredientDao.updateIngredient(ingredient));
+        assertNoLeaks("deleteIngredient", () -> ingredientDao.deleteIngredient(ingredient));
+        assertNoLeaks("deleteIngredientById", () -> ingredientDao.deleteIngredientById(6));
+    }
+
+    @Test
+    void recipeDaoClosesEverything() {
+        Recipe recipe = new Recipe(0, "leakcheck", "stir", new Chef(1, "", "", "", false));
+        assertNoLeaks("getAllRecipes", () -> recipeDao.getAllRecipes());
+        assertNoLeaks("getAllRecipes(page)", () -> recipeDao.getAllRecipes(new PageOptions(1, 2)));
+        assertNoLeaks("getRecipeById", () -> recipeDao.getRecipeById(1));
+        assertNoLeaks("searchRecipesByTerm", () -> recipeDao.searchRecipesByTerm("soup"));
+        assertNoLeaks("searchRecipesByTerm(page)",
+                () -> recipeDao.searchRecipesByTerm("soup", new PageOptions(1, 2, "id", "asc")));
+        assertNoLeaks("loadIngredients", () -> recipeDao.loadIngredients(recipeDao.getAllRecipes()));
+        assertNoLeaks("createRecipe", () -> recipe.setId(recipeDao.createRecipe(recipe)));
+        assertNoLeaks("updateRecipe", () -> recipeDao.updateRecipe(recipe));
+        assertNoLeaks("deleteRecipe", () -> recipeDao.deleteRecipe(recipe));
+    }
+
+    private void assertNoLeaks(String call, Executable exec) {
+        long before = ConnectionUtil.getPoolStats().getResourceLeaks();
+        try {
+            exec.execute();
+        } catch (Throwable e) {
+            throw new AssertionError(call + " failed", e);
+        }
+        PoolStats after = ConnectionUtil.getPoolStats();
+        assertEquals(0, after.getActive(), () -> call + " did not return its connection to the pool");
+        assertEquals(before, after.getResourceLeaks(), () -> call + " left a statement or result set open");
+    }
+}
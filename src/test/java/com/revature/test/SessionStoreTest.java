@@ -0,0 +1,128 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Chef;
+import com.revature.util.InMemorySessionStore;
+import com.revature.util.SessionStore;
+
+public class SessionStoreTest {
+
+    private SessionStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void sessionsCanBeLookedUpAndRemoved() {
+        store = new InMemorySessionStore(60_000, 60_000, 100, 60_000);
+        Chef chef = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+        store.put("token", chef);
+        assertEquals(chef, store.get("token"));
+        assertNull(store.get("other"));
+        assertNull(store.get(null));
+
+        assertTrue(store.remove("token"));
+        assertFalse(store.remove("token"));
+        assertNull(store.get("token"));
+    }
+
+    @Test
+    void adminFlagIsKeptOnTheSession() {
+        store = new InMemorySessionStore(60_000, 60_000, 100, 60_000);
+        store.put("admin", new Chef(1, "ChefTrevin", "trevin@revature.com", "trevature", true));
+        store.put("chef", new Chef(2, "MasterChef", "mc@revature.com", "cooking", false));
+        assertTrue(store.isAdmin("admin"));
+        assertFalse(store.isAdmin("chef"));
+        assertFalse(store.isAdmin("missing"));
+        assertFalse(store.isAdmin(null));
+    }
+
+    @Test
+    void idleSessionsExpireAndAreSwept() throws InterruptedException {
+        store = new InMemorySessionStore(50, 60_000, 100, 60_000);
+        store.put("looked-up", new Chef());
+        store.put("swept", new Chef());
+        Thread.sleep(100);
+
+        assertNull(store.get("looked-up"), "An idle session should expire when looked up");
+        assertEquals(1, store.sweep(), "The sweeper should remove the remaining idle session");
+        assertEquals(0, store.size());
+        assertEquals(2L, store.getStats().get("expired"));
+    }
+
+    @Test
+    void startedStoresAreSweptInTheBackground() throws InterruptedException {
+        store = new InMemorySessionStore(50, 60_000, 100, 20).start();
+        store.put("swept", new Chef());
+        for (int i = 0; i < 50 && store.size() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, store.size(), "The background sweeper should remove the idle session");
+    }
+
+    @Test
+    void sessionsExpireAfterTheirLifetimeEvenWhenUsed() throws InterruptedException {
+        store = new InMemorySessionStore(60_000, 100, 100, 60_000);
+        store.put("token", new Chef());
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(40);
+            store.get("token");
+        }
+        assertNull(store.get("token"));
+    }
+
+    @Test
+    void leastRecentlyUsedSessionIsEvictedAtTheCap() {
+        store = new InMemorySessionStore(60_000, 60_000, 2, 60_000);
+        store.put("first", new Chef());
+        store.put("second", new Chef());
+        store.get("first");
+        store.put("third", new Chef());
+
+        assertEquals(2, store.size());
+        assertNull(store.get("second"), "The least recently used session should have been evicted");
+        assertTrue(store.get("first") != null && store.get("third") != null);
+        assertEquals(1L, store.getStats().get("evicted"));
+    }
+
+    @Test
+    void concurrentLoginsStayWithinTheCap() throws Exception {
+        store = new InMemorySessionStore(60_000, 60_000, 1_000, 60_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> logins = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                logins.add(executor.submit(() -> {
+                    String token = UUID.randomUUID().toString();
+                    store.put(token, new Chef());
+                    return token;
+                }));
+            }
+            for (Future<String> login : logins) {
+                login.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(store.size() <= 1_000, "The store should never hold more than its cap");
+        assertEquals(5_000L, store.getStats().get("created"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.SqlScriptParser;
+import com.revature.util.SqlScriptParser.ParsedStatement;
+
+public class SqlScriptParserTest {
+
+    private static List<ParsedStatement> parse(String script) throws IOException {
+        List<ParsedStatement> statements = new ArrayList<>();
+        try (SqlScriptParser parser = new SqlScriptParser(new StringReader(script))) {
+            ParsedStatement statement;
+            while ((statement = parser.next()) != null) {
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+
+    @Test
+    void splitsOnSemicolonsOutsideQuotesAndComments() throws IOException {
+        List<ParsedStatement> statements = parse("-- a comment; not a statement\r\n"
+                + "CREATE TABLE T (id INT, note VARCHAR(50));\r\n"
+                + "\r\n"
+                + "INSERT INTO T VALUES (1, 'semi; colon and ''quote''');\n"
+                + "/* block; comment\n spanning lines */ INSERT INTO \"T\" VALUES (2, 'two') -- trailing; comment\n"
+                + ";\n"
+                + "CREATE ALIAS F AS $$ String f() { return \"a;b\"; } $$;\n"
+                + "SELECT 1");
+
+        assertEquals(5, statements.size());
+        assertEquals("CREATE TABLE T (id INT, note VARCHAR(50))", statements.get(0).getSql());
+        assertEquals(2, statements.get(0).getLine());
+        assertEquals("INSERT INTO T VALUES (1, 'semi; colon and ''quote''')", statements.get(1).getSql());
+        assertEquals(4, statements.get(1).getLine());
+        assertEquals("INSERT INTO \"T\" VALUES (2, 'two')", statements.get(2).getSql());
+        assertEquals(6, statements.get(2).getLine());
+        assertEquals("CREATE ALIAS F AS $$ String f() { return \"a;b\"; } $$", statements.get(3).getSql());
+        assertEquals("SELECT 1", statements.get(4).getSql());
+        assertEquals(9, statements.get(4).getLine());
+    }
+
+    @Test
+    void emptyScriptHasNoStatements() throws IOException {
+        assertEquals(0, parse("  -- only a comment\n ;; \n").size());
+        try (SqlScriptParser parser = new SqlScriptParser(new StringReader(""))) {
+            assertNull(parser.next());
+        }
+    }
+
+    @Test
+    void unterminatedStringIsRejectedWithItsLine() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> parse("SELECT 1;\nINSERT INTO T VALUES ('open);\n"));
+        assertEquals("Unterminated string starting on line 2", e.getMessage());
+    }
+}
@@ -0,0 +1,75 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.SqlScriptRunner;
+
+public class SqlScriptRunnerTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() {
+        connection = new ConnectionUtil().getConnection();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+        DBUtil.RUN_SQL();
+    }
+
+    @Test
+    void largeFixtureIsSentInBatches() throws SQLException, IOException {
+        int rows = 20_000;
+        StringBuilder script = new StringBuilder("CREATE TABLE FIXTURE (id INT PRIMARY KEY, note VARCHAR(50));\n");
+        for (int i = 0; i < rows; i++) {
+            script.append("INSERT INTO FIXTURE VALUES (").append(i).append(", 'row; ").append(i).append("');\n");
+        }
+        script.append("CREATE INDEX FIXTURE_NOTE_IDX ON FIXTURE(note);\n");
+
+        SqlScriptRunner.Report report = new SqlScriptRunner(1_000).run(connection,
+                new StringReader(script.toString()), "fixture.sql");
+
+        assertEquals(rows + 2, report.getStatements());
+        assertEquals(22, report.getTimings().size(), "Two DDL statements and twenty batches should be timed");
+        assertEquals(1_000, report.getTimings().get(1).getStatements());
+        assertEquals(rows, count("SELECT COUNT(*) FROM FIXTURE"));
+    }
+
+    @Test
+    void failureNamesTheScriptAndLine() {
+        String script = "CREATE TABLE FIXTURE (id INT PRIMARY KEY);\n"
+                + "INSERT INTO FIXTURE VALUES (1);\n"
+                + "\n"
+                + "INSERT INTO FIXTURE VALUES (1);\n"
+                + "INSERT INTO FIXTURE VALUES (2);\n";
+
+        SQLException e = assertThrows(SQLException.class,
+                () -> new SqlScriptRunner().run(connection, new StringReader(script), "fixture.sql"));
+        assertTrue(e.getMessage().startsWith("fixture.sql failed at line 4: INSERT INTO FIXTURE VALUES (1)"),
+                e.getMessage());
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
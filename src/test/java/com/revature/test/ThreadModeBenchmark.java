@@ -0,0 +1,157 @@
+package com.revature.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import com.revature.controller.AuthenticationController;
+import com.revature.controller.IngredientController;
+import com.revature.controller.RecipeController;
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.JavalinAppUtil;
+import com.revature.util.JavalinAppUtil.ThreadMode;
+
+import io.javalin.Javalin;
+
+/**
+ * Compares request handling on Jetty's platform thread pool with handling on virtual threads. Not a JUnit test:
+ * run its main method.
+ *
+ * Every request is held for a fixed time before it is handled, standing in for a slow downstream call, so the
+ * number of requests in flight is bounded by the threads that can block at once. The benchmark reports
+ * throughput, latency percentiles, the peak number of live platform threads and the failed requests, by status
+ * code or exception, for each mode.
+ *
+ * Arguments, all optional: requests (20000), concurrency (1000), latency in milliseconds (50).
+ */
+public class ThreadModeBenchmark {
+
+    private static final int PORT = 8089;
+    private static final String URL = "http://localhost:" + PORT + "/recipes?term=soup&page=1&pageSize=5";
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 50;
+
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        ChefDAO chefDAO = new ChefDAO(connectionUtil);
+        IngredientDAO ingredientDAO = new IngredientDAO(connectionUtil);
+        RecipeDAO recipeDAO = new RecipeDAO(chefDAO, ingredientDAO, connectionUtil);
+        ChefService chefService = new ChefService(chefDAO);
+        AuthenticationService authService = new AuthenticationService(chefService);
+        JavalinAppUtil appUtil = new JavalinAppUtil(new RecipeController(new RecipeService(recipeDAO), authService),
+                new AuthenticationController(chefService, authService),
+                new IngredientController(new IngredientService(ingredientDAO)));
+
+        System.out.printf("%d requests, %d concurrent, %d ms each%n", requests, concurrency, latencyMillis);
+        for (ThreadMode mode : ThreadMode.values()) {
+            Javalin app = appUtil.getApp(mode);
+            app.before(ctx -> Thread.sleep(latencyMillis));
+            app.start(PORT);
+            try {
+                run(mode, Math.min(requests, concurrency), concurrency); // warm up
+                run(mode, requests, concurrency).print();
+            } finally {
+                app.stop();
+            }
+        }
+    }
+
+    private static Result run(ThreadMode mode, int requests, int concurrency) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        // a request that is never answered counts as failed rather than holding up the run
+        HttpRequest request = HttpRequest.newBuilder(URI.create(URL)).timeout(Duration.ofSeconds(30)).GET().build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        Map<String, Integer> failures = new TreeMap<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> calls = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                int call = i;
+                inFlight.acquire();
+                calls.add(callers.submit(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } finally {
+                        latencies[call] = System.nanoTime() - sent;
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<Integer> call : calls) {
+                try {
+                    int status = call.get();
+                    if (status != 200) {
+                        failures.merge("HTTP " + status, 1, Integer::sum);
+                    }
+                } catch (ExecutionException e) {
+                    failures.merge(e.getCause().getClass().getSimpleName(), 1, Integer::sum);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        // the client's and callers' threads are virtual, so live platform threads are the server's
+        return new Result(mode, requests, failures, elapsed, latencies, threads.getPeakThreadCount());
+    }
+
+    private static final class Result {
+        private final ThreadMode mode;
+        private final int requests;
+        /** The number of failed requests by status code or exception. */
+        private final Map<String, Integer> failures;
+        private final long elapsedNanos;
+        private final long[] latencies;
+        private final int peakThreads;
+
+        private Result(ThreadMode mode, int requests, Map<String, Integer> failures, long elapsedNanos,
+                long[] latencies, int peakThreads) {
+            this.mode = mode;
+            this.requests = requests;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+            this.peakThreads = peakThreads;
+        }
+
+        private void print() {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-8s %8.0f req/s  p50 %6.1f ms  p99 %6.1f ms  peak platform threads %4d  failures %s%n",
+                    mode, requests / (elapsedNanos / 1e9), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    peakThreads, failures.isEmpty() ? "0" : failures);
+        }
+
+        private static double percentile(long[] sorted, double fraction) {
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1e6;
+        }
+    }
+}
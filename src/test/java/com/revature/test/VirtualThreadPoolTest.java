@@ -0,0 +1,94 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.Test;
+
+import com.revature.controller.AuthenticationController;
+import com.revature.controller.IngredientController;
+import com.revature.controller.RecipeController;
+import com.revature.util.JavalinAppUtil;
+import com.revature.util.JavalinAppUtil.ThreadMode;
+import com.revature.util.VirtualThreadPool;
+
+import io.javalin.Javalin;
+
+public class VirtualThreadPoolTest {
+
+    @Test
+    void thousandsOfBlockedTasksRunAtOnce() throws InterruptedException {
+        VirtualThreadPool pool = new VirtualThreadPool("test");
+        int tasks = 5_000;
+        CountDownLatch started = new CountDownLatch(tasks);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean allVirtual = new AtomicBoolean(true);
+        for (int i = 0; i < tasks; i++) {
+            pool.execute(() -> {
+                if (!Thread.currentThread().isVirtual()) {
+                    allVirtual.set(false);
+                }
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertTrue(started.await(10, TimeUnit.SECONDS), "Every blocked task should be running at the same time");
+        assertEquals(tasks, pool.getThreads());
+        assertFalse(pool.isLowOnThreads());
+        release.countDown();
+        pool.shutdown();
+        pool.join();
+
+        assertTrue(allVirtual.get(), "Tasks should run on virtual threads");
+        assertEquals(0, pool.getThreads());
+        assertEquals(tasks, pool.getStats().get("peakRunning"));
+    }
+
+    @Test
+    void threadModeComesFromTheSystemProperty() {
+        String previous = System.getProperty("server.threads");
+        try {
+            System.clearProperty("server.threads");
+            assertEquals(ThreadMode.PLATFORM, ThreadMode.fromSystemProperties());
+            System.setProperty("server.threads", "Virtual");
+            assertEquals(ThreadMode.VIRTUAL, ThreadMode.fromSystemProperties());
+        } finally {
+            if (previous == null) {
+                System.clearProperty("server.threads");
+            } else {
+                System.setProperty("server.threads", previous);
+            }
+        }
+    }
+
+    @Test
+    void serverRunsOnTheThreadsOfItsModeAndQueuesConnections() {
+        JavalinAppUtil appUtil = new JavalinAppUtil(mock(RecipeController.class),
+                mock(AuthenticationController.class), mock(IngredientController.class));
+        for (ThreadMode mode : ThreadMode.values()) {
+            Javalin app = appUtil.getApp(mode).start(0);
+            try {
+                Server server = app.jettyServer().server();
+                assertEquals(mode == ThreadMode.VIRTUAL ? VirtualThreadPool.class : QueuedThreadPool.class,
+                        server.getThreadPool().getClass(), mode::name);
+                assertEquals(1024, ((ServerConnector) server.getConnectors()[0]).getAcceptQueueSize(), mode::name);
+            } finally {
+                app.stop();
+            }
+        }
+    }
+}
@@ -21,9 +21,9 @@ public class TestingUtils {
     }
 
     private static int count(String countSelStatement) {
-        try(Connection connection = new ConnectionUtil().getConnection()){
+        try(Connection connection = new ConnectionUtil().getConnection();
             Statement statement = connection.createStatement();
-            ResultSet resultSet = statement.executeQuery(countSelStatement);
+            ResultSet resultSet = statement.executeQuery(countSelStatement)){
             resultSet.next();
             return resultSet.getInt(1);
         } catch (SQLException ex) {